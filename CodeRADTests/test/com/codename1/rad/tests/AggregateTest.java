@@ -0,0 +1,113 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.rad.models.Aggregate;
+import com.codename1.rad.models.ChangeSet;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.testing.AbstractTest;
+import java.util.List;
+/**
+ *
+ * @author shannah
+ */
+public class AggregateTest extends AbstractTest {
+
+    static class Note extends Entity {
+        static StringProperty text;
+        public static final EntityType TYPE = new EntityType(){{
+            text = string();
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private void testChangedMembers() throws Exception {
+        Note root = new Note();
+        Note member = new Note();
+        Note other = new Note();
+        Aggregate agg = new Aggregate(root);
+        agg.add(member);
+        agg.add(other);
+        assertEqual(false, agg.hasChanged());
+        assertEqual(0, agg.getChangeSets().size());
+
+        member.setText(Note.text, "changed");
+        assertEqual(true, agg.hasChanged());
+        List<ChangeSet> changes = agg.getChangeSets();
+        assertEqual(1, changes.size());
+        assertEqual(member, changes.get(0).getEntity());
+        assertEqual("changed", changes.get(0).getValue(0));
+
+        // Clearing the member directly clears the aggregate.
+        member.clearChanged();
+        assertEqual(false, agg.hasChanged());
+        // The change set is kept until it is cleared explicitly.
+        assertEqual(1, agg.getChangeSets().size());
+        member.clearChangeSet();
+        assertEqual(0, agg.getChangeSets().size());
+
+        root.setText(Note.text, "root");
+        other.setText(Note.text, "other");
+        assertEqual(2, agg.getChangeSets().size());
+        agg.clearChanged();
+        assertEqual(false, agg.hasChanged());
+        assertEqual(false, root.hasChanged());
+        assertEqual(false, other.hasChanged());
+        assertEqual(2, agg.getChangeSets().size());
+        agg.clearChangeSet();
+        assertEqual(0, agg.getChangeSets().size());
+        assertEqual(true, other.getChangeSet().isEmpty());
+    }
+
+    private void testNotifyObserversKeepsChangeSets() throws Exception {
+        Note root = new Note();
+        Note member = new Note();
+        Aggregate agg = new Aggregate(root);
+        agg.add(member);
+        member.setText(Note.text, "changed");
+        agg.notifyObservers();
+        assertEqual(false, member.hasChanged());
+        List<ChangeSet> changes = agg.getChangeSets();
+        assertEqual(1, changes.size());
+        assertEqual(member, changes.get(0).getEntity());
+    }
+
+    private void testRemovedMember() throws Exception {
+        Note root = new Note();
+        Note member = new Note();
+        Aggregate agg = new Aggregate(root);
+        agg.add(member);
+        member.setText(Note.text, "changed");
+        assertEqual(true, agg.hasChanged());
+
+        // A removed member no longer counts as a change of the aggregate.
+        agg.remove(member);
+        assertEqual(false, agg.hasChanged());
+        member.setText(Note.text, "changed again");
+        assertEqual(false, agg.hasChanged());
+        assertEqual(0, agg.getChangeSets().size());
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testChangedMembers();
+        testRemovedMember();
+        testNotifyObserversKeepsChangeSets();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
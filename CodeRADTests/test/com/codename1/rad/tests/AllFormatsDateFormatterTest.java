@@ -0,0 +1,104 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.l10n.ParseException;
+import com.codename1.rad.text.AllFormatsDateFormatter;
+import com.codename1.testing.AbstractTest;
+import java.util.Calendar;
+import java.util.Date;
+/**
+ *
+ * @author shannah
+ */
+public class AllFormatsDateFormatterTest extends AbstractTest {
+
+    private static long parse(String date) throws ParseException {
+        return AllFormatsDateFormatter.getInstance().parse(date).getTime();
+    }
+
+    private void testIsoWithOffset() throws Exception {
+        assertEqual(1580464800000l, parse("2020-01-31T10:00:00+00:00"));
+        assertEqual(1580464800000l, parse("2020-01-31T10:00:00+0000"));
+        assertEqual(1580482800250l, parse("2020-01-31T10:00:00.250-05:00"));
+        assertEqual(1580482800250l, parse("2020-01-31T10:00:00.25-05"));
+        assertEqual(1580445000000l, parse("2020-01-31T10:00+0530"));
+        assertEqual(1709164800000l, parse("2024-02-29T00:00:00+00:00"));
+        assertEqual(-1000l, parse("1969-12-31T23:59:59+00:00"));
+
+        // Z is UTC...
+        assertEqual(1580464800000l, parse("2020-01-31T10:00:00Z"));
+        assertEqual(1580464800000l, parse("2020-01-31T10:00Z"));
+        assertEqual(1580464800500l, parse("2020-01-31T10:00:00.5Z"));
+        assertEqual(1580464800250l, parse("2020-01-31T10:00:00.25Z"));
+    }
+
+    private void testLocalMillisWithZ() throws Exception {
+        // ...except after exactly three fraction digits, which is the local time written by format().
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(new Date(parse("2020-01-31T10:00:00.250Z")));
+        assertEqual(10, cal.get(Calendar.HOUR_OF_DAY));
+        assertEqual(250, cal.get(Calendar.MILLISECOND));
+    }
+
+    private void testRfc1123() throws Exception {
+        assertEqual(1580464800000l, parse("Fri, 31 Jan 2020 10:00:00 GMT"));
+        assertEqual(1580464800000l, parse("Fri, 31 Jan 2020 10:00:00 UTC"));
+        assertEqual(1580461200000l, parse("Fri, 31 Jan 2020 10:00:00 +0100"));
+        assertEqual(1578045600000l, parse("Fri, 3 Jan 2020 10:00:00 GMT"));
+    }
+
+    private void testLocal() throws Exception {
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(new Date(parse("2020-01-31 10:20:30")));
+        assertEqual(2020, cal.get(Calendar.YEAR));
+        assertEqual(Calendar.JANUARY, cal.get(Calendar.MONTH));
+        assertEqual(31, cal.get(Calendar.DAY_OF_MONTH));
+        assertEqual(10, cal.get(Calendar.HOUR_OF_DAY));
+        assertEqual(20, cal.get(Calendar.MINUTE));
+        assertEqual(30, cal.get(Calendar.SECOND));
+
+        long day = parse("2020-01-31");
+        assertEqual(day, parse("01/31/2020"));
+        cal.setTime(new Date(day));
+        assertEqual(31, cal.get(Calendar.DAY_OF_MONTH));
+        assertEqual(0, cal.get(Calendar.HOUR_OF_DAY));
+    }
+
+    private void testFormatRoundTrip() throws Exception {
+        AllFormatsDateFormatter fmt = AllFormatsDateFormatter.getInstance();
+        Date date = new Date(1580464800123l);
+        assertEqual(date, fmt.parse(fmt.format(date)));
+    }
+
+    private void testInvalid() throws Exception {
+        boolean failed = false;
+        try {
+            parse("not a date");
+        } catch (ParseException ex) {
+            failed = true;
+        }
+        assertEqual(true, failed);
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testIsoWithOffset();
+        testLocalMillisWithZ();
+        testRfc1123();
+        testLocal();
+        testFormatRoundTrip();
+        testInvalid();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
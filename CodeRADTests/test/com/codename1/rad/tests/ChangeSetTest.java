@@ -0,0 +1,134 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.rad.models.ChangeSet;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.testing.AbstractTest;
+/**
+ *
+ * @author shannah
+ */
+public class ChangeSetTest extends AbstractTest {
+
+    static class Contact extends Entity {
+        static StringProperty name, email, phone;
+        public static final EntityType TYPE = new EntityType(){{
+            name = string();
+            email = string();
+            phone = string();
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    /**
+     * An entity with more properties than fit in one word of the changed property bitset.
+     */
+    static class Wide extends Entity {
+        static final StringProperty[] props = new StringProperty[70];
+        public static final EntityType TYPE = new EntityType(){{
+            for (int i=0; i<props.length; i++) {
+                props[i] = string();
+            }
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private void testChangeSet() throws Exception {
+        Contact c = new Contact();
+        assertEqual(true, c.getChangeSet().isEmpty());
+
+        c.setText(Contact.phone, "555-1234");
+        c.setText(Contact.name, "Steve");
+        assertEqual(true, c.isChanged(Contact.name));
+        assertEqual(false, c.isChanged(Contact.email));
+
+        ChangeSet changes = c.getChangeSet();
+        assertEqual(c, changes.getEntity());
+        assertEqual(2, changes.size());
+        // Properties are listed in entity type order.
+        assertEqual(Contact.name, changes.getProperty(0));
+        assertEqual("Steve", changes.getValue(0));
+        assertEqual(Contact.phone, changes.getProperty(1));
+        assertEqual(true, changes.contains(Contact.phone));
+        assertEqual(false, changes.contains(Contact.email));
+
+        // Setting the same value again isn't a change.
+        c.clearChangeSet();
+        c.setText(Contact.name, "Steve");
+        assertEqual(true, c.getChangeSet().isEmpty());
+        assertEqual(false, c.isChanged(Contact.name));
+    }
+
+    private void testWideEntity() throws Exception {
+        Wide w = new Wide();
+        w.setText(Wide.props[3], "a");
+        w.setText(Wide.props[64], "b");
+        w.setText(Wide.props[69], "c");
+        ChangeSet changes = w.getChangeSet();
+        assertEqual(3, changes.size());
+        assertEqual(Wide.props[3], changes.getProperty(0));
+        assertEqual(Wide.props[64], changes.getProperty(1));
+        assertEqual(Wide.props[69], changes.getProperty(2));
+        assertEqual(false, w.isChanged(Wide.props[63]));
+
+        w.clearChangeSet();
+        assertEqual(true, w.getChangeSet().isEmpty());
+        assertEqual(false, w.isChanged(Wide.props[64]));
+    }
+
+    private void testNotifyObserversKeepsChangeSet() throws Exception {
+        Contact c = new Contact();
+        int[] notified = new int[1];
+        c.addObserver((o, arg) -> notified[0]++);
+        c.setText(Contact.email, "steve@example.com");
+        // Notifying observers clears the changed flag, but not the change set.
+        c.notifyObservers();
+        assertEqual(1, notified[0]);
+        assertEqual(false, c.hasChanged());
+        ChangeSet changes = c.getChangeSet();
+        assertEqual(1, changes.size());
+        assertEqual(Contact.email, changes.getProperty(0));
+        assertEqual(true, c.isChanged(Contact.email));
+
+        c.clearChanged();
+        assertEqual(false, c.getChangeSet().isEmpty());
+        c.clearChangeSet();
+        assertEqual(true, c.getChangeSet().isEmpty());
+    }
+
+    private void testSetEntityTypeResetsChangeSet() throws Exception {
+        Contact c = new Contact();
+        c.setText(Contact.phone, "555-1234");
+        c.setEntityType(Wide.TYPE);
+        assertEqual(true, c.getChangeSet().isEmpty());
+        assertEqual(false, c.isChanged(Wide.props[2]));
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testChangeSet();
+        testWideEntity();
+        testNotifyObserversKeepsChangeSet();
+        testSetEntityTypeResetsChangeSet();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
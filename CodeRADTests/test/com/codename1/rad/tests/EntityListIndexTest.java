@@ -0,0 +1,153 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityType;
+import static com.codename1.rad.models.EntityType.tags;
+import com.codename1.rad.models.IntProperty;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.rad.models.Tag;
+import com.codename1.testing.AbstractTest;
+import java.util.List;
+/**
+ *
+ * @author shannah
+ */
+public class EntityListIndexTest extends AbstractTest {
+
+    static final Tag code = new Tag("code");
+
+    static class Item extends Entity {
+        static StringProperty sku;
+        static IntProperty price;
+        public static final EntityType TYPE = new EntityType(){{
+            sku = string(tags(code));
+            price = Integer();
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private static Item item(String sku, Integer price) {
+        Item i = new Item();
+        if (sku != null) {
+            i.setText(Item.sku, sku);
+        }
+        Item.price.setValue(i, price);
+        return i;
+    }
+
+    private static String skus(List<Item> items) {
+        StringBuilder sb = new StringBuilder();
+        for (Item i : items) {
+            if (sb.length() > 0) {
+                sb.append(",");
+            }
+            sb.append(i.getText(Item.sku));
+        }
+        return sb.toString();
+    }
+
+    private void testHashIndex() throws Exception {
+        EntityList<Item> items = new EntityList<>();
+        Item a = item("a", 1);
+        Item b = item("b", 2);
+        Item b2 = item("b", 3);
+        items.add(a);
+        items.add(b);
+        items.addIndex(code);
+        items.add(b2);
+
+        assertEqual(a, items.findFirst(code, "a"));
+        assertEqual(b, items.findFirst(code, "b"));
+        assertEqual("b,b", skus(items.findAll(code, "b")));
+        assertEqual(null, items.findFirst(code, "c"));
+
+        // The index follows changes to the indexed property.
+        b.setText(Item.sku, "c");
+        assertEqual(b, items.findFirst(code, "c"));
+        assertEqual(b2, items.findFirst(code, "b"));
+        assertEqual(1, items.findAll(code, "b").size());
+
+        // Rows with a null key aren't indexed until they get one.
+        Item none = item(null, 4);
+        items.add(none);
+        assertEqual(0, items.findAll(code, null).size());
+        none.setText(Item.sku, "d");
+        assertEqual(none, items.findFirst(code, "d"));
+
+        items.remove(b);
+        assertEqual(null, items.findFirst(code, "c"));
+        b.setText(Item.sku, "e");
+        assertEqual(null, items.findFirst(code, "e"));
+
+        // Lookups give the same results without the index.
+        items.removeIndex(code);
+        assertEqual(b2, items.findFirst(code, "b"));
+        assertEqual(none, items.findFirst(code, "d"));
+    }
+
+    private void testSortedIndex() throws Exception {
+        EntityList<Item> items = new EntityList<>();
+        items.add(item("x", 30));
+        items.add(item("y", 10));
+        items.add(item("z", 20));
+        items.add(item("w", 10));
+        items.add(item("v", null));
+        String unindexed = skus(items.range(Item.price, 10, 30));
+
+        items.addSortedIndex(Item.price);
+        // Rows are ordered by key, and rows with equal keys stay in list order.
+        assertEqual("y,w,z", skus(items.range(Item.price, 10, 30)));
+        assertEqual(unindexed, skus(items.range(Item.price, 10, 30)));
+        assertEqual("y,w,z,x", skus(items.range(Item.price, null, null)));
+        assertEqual("z,x", skus(items.range(Item.price, 15, null)));
+        assertEqual("y,w", skus(items.findAll(Item.price, 10)));
+
+        Item y = items.findFirst(Item.price, 10);
+        Item.price.setValue(y, 25);
+        assertEqual("w,z,y,x", skus(items.range(Item.price, null, null)));
+        assertEqual("w", skus(items.findAll(Item.price, 10)));
+
+        Item added = item("u", 20);
+        items.add(added);
+        assertEqual("w,z,u,y,x", skus(items.range(Item.price, null, null)));
+
+        items.remove(y);
+        assertEqual("w,z,u,x", skus(items.range(Item.price, null, null)));
+        assertEqual(null, items.findFirst(Item.price, 25));
+    }
+
+    private void testReplaceIndex() throws Exception {
+        EntityList<Item> items = new EntityList<>();
+        items.add(item("b", 2));
+        items.add(item("a", 1));
+        items.addIndex(Item.price);
+        items.addSortedIndex(Item.price);
+        assertEqual("a,b", skus(items.range(Item.price, null, null)));
+        Item.price.setValue(items.get(0), 0);
+        assertEqual("b,a", skus(items.range(Item.price, null, null)));
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testHashIndex();
+        testSortedIndex();
+        testReplaceIndex();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
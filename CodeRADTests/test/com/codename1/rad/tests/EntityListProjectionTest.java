@@ -0,0 +1,201 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.rad.models.BooleanProperty;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityList.EntitiesResetEvent;
+import com.codename1.rad.models.EntityList.EntityAddedEvent;
+import com.codename1.rad.models.EntityList.EntityRemovedEvent;
+import com.codename1.rad.models.EntityListProjection;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.testing.AbstractTest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+/**
+ *
+ * @author shannah
+ */
+public class EntityListProjectionTest extends AbstractTest {
+
+    static class Contact extends Entity {
+        static StringProperty name;
+        static BooleanProperty favorite;
+        public static final EntityType TYPE = new EntityType(){{
+            name = string();
+            favorite = Boolean();
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private static final Comparator<Contact> BY_NAME = (a, b) -> a.getText(Contact.name).compareTo(b.getText(Contact.name));
+
+    private static Contact contact(String name, boolean favorite) {
+        Contact c = new Contact();
+        c.setText(Contact.name, name);
+        Contact.favorite.setValue(c, favorite);
+        return c;
+    }
+
+    private static boolean isFavorite(Entity e) {
+        return Boolean.TRUE.equals(e.getBoolean(Contact.favorite));
+    }
+
+    private static String names(EntityList<Contact> list) {
+        StringBuilder sb = new StringBuilder();
+        for (Contact c : list) {
+            if (sb.length() > 0) {
+                sb.append(",");
+            }
+            sb.append(c.getText(Contact.name));
+        }
+        return sb.toString();
+    }
+
+    private void testSorted() throws Exception {
+        EntityList<Contact> contacts = new EntityList<>();
+        contacts.add(contact("carol", false));
+        contacts.add(contact("alice", false));
+        EntityListProjection<Contact> byName = new EntityListProjection<>(contacts, null, BY_NAME, Contact.name);
+        assertEqual("alice,carol", names(byName));
+
+        List<EntityList.EntityListEvent> events = new ArrayList<>();
+        byName.addActionListener(evt -> events.add(evt));
+        Contact bob = contact("bob", false);
+        contacts.add(bob);
+        assertEqual("alice,bob,carol", names(byName));
+        assertEqual(1, events.size());
+        assertEqual(1, ((EntityAddedEvent)events.get(0)).getIndex());
+
+        // Changing the sort key moves the row.
+        events.clear();
+        bob.setText(Contact.name, "dave");
+        assertEqual("alice,carol,dave", names(byName));
+        assertEqual(2, events.size());
+        assertEqual(1, ((EntityRemovedEvent)events.get(0)).getIndex());
+        assertEqual(2, ((EntityAddedEvent)events.get(1)).getIndex());
+
+        // A change that keeps the row in order doesn't fire events.
+        events.clear();
+        bob.setText(Contact.name, "david");
+        assertEqual(0, events.size());
+
+        contacts.remove(bob);
+        assertEqual("alice,carol", names(byName));
+        assertEqual(2, ((EntityRemovedEvent)events.get(0)).getIndex());
+    }
+
+    private void testRepeatedInsertsBetweenRows() throws Exception {
+        EntityList<Contact> contacts = new EntityList<>();
+        contacts.add(contact("a", false));
+        contacts.add(contact("b", false));
+        EntityListProjection<Contact> byName = new EntityListProjection<>(contacts, null, BY_NAME, Contact.name);
+
+        // Each row goes between "a" and the previous one, which eventually uses up the gap between their order labels.
+        List<Contact> added = new ArrayList<>();
+        for (int i=0; i<25; i++) {
+            Contact c = contact("a"+(char)('z' - i), false);
+            added.add(c);
+            contacts.add(c);
+        }
+        assertEqual(27, byName.size());
+        assertEqual("a", byName.get(0).getText(Contact.name));
+        assertEqual("ab", byName.get(1).getText(Contact.name));
+        assertEqual("b", byName.get(26).getText(Contact.name));
+
+        // Rows can still be found after their keys change.
+        Contact first = added.get(0);
+        first.setText(Contact.name, "c");
+        assertEqual(first, byName.get(26));
+        contacts.remove(added.get(24));
+        assertEqual(26, byName.size());
+        assertEqual("ac", byName.get(1).getText(Contact.name));
+    }
+
+    private void testFiltered() throws Exception {
+        EntityList<Contact> contacts = new EntityList<>();
+        Contact alice = contact("alice", true);
+        Contact bob = contact("bob", false);
+        Contact carol = contact("carol", true);
+        contacts.add(alice);
+        contacts.add(bob);
+        contacts.add(carol);
+        EntityListProjection<Contact> favorites = new EntityListProjection<>(contacts, e -> isFavorite(e), null, Contact.favorite);
+        assertEqual("alice,carol", names(favorites));
+
+        // Rows keep source order when there is no comparator.
+        Contact.favorite.setValue(bob, true);
+        assertEqual("alice,bob,carol", names(favorites));
+        Contact.favorite.setValue(alice, false);
+        assertEqual("bob,carol", names(favorites));
+
+        // Changes to unwatched properties are ignored.
+        alice.setText(Contact.name, "alison");
+        assertEqual("bob,carol", names(favorites));
+
+        favorites.detach();
+        Contact.favorite.setValue(alice, true);
+        assertEqual("bob,carol", names(favorites));
+        favorites.attach();
+        assertEqual("alison,bob,carol", names(favorites));
+    }
+
+    private void testSetFilterFiresReset() throws Exception {
+        EntityList<Contact> contacts = new EntityList<>();
+        contacts.add(contact("alice", true));
+        contacts.add(contact("bob", false));
+        EntityListProjection<Contact> projection = new EntityListProjection<>(contacts, null, null);
+        assertEqual(2, projection.size());
+
+        List<EntityList.EntityListEvent> events = new ArrayList<>();
+        projection.addActionListener(evt -> events.add(evt));
+        projection.setFilter(e -> isFavorite(e));
+        assertEqual("alice", names(projection));
+        assertEqual(1, events.size());
+        EntitiesResetEvent reset = (EntitiesResetEvent)events.get(0);
+        assertEqual(2, reset.getOldEntities().size());
+
+        events.clear();
+        projection.setComparator(BY_NAME);
+        assertEqual(1, events.size());
+        assertEqual(true, events.get(0) instanceof EntitiesResetEvent);
+    }
+
+    private void testReadOnly() throws Exception {
+        EntityList<Contact> contacts = new EntityList<>();
+        EntityListProjection<Contact> projection = new EntityListProjection<>(contacts, null, null);
+        boolean failed = false;
+        try {
+            projection.add(contact("alice", false));
+        } catch (UnsupportedOperationException ex) {
+            failed = true;
+        }
+        assertEqual(true, failed);
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testSorted();
+        testRepeatedInsertsBetweenRows();
+        testFiltered();
+        testSetFilterFiresReset();
+        testReadOnly();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
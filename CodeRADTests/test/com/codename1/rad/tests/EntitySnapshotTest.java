@@ -0,0 +1,251 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.io.Storage;
+import com.codename1.rad.io.EntitySnapshotReader;
+import com.codename1.rad.io.EntitySnapshotSchema;
+import com.codename1.rad.io.EntitySnapshotWriter;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityProperty;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.IntProperty;
+import com.codename1.rad.models.ListProperty;
+import com.codename1.rad.models.Property.Name;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.testing.AbstractTest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+/**
+ *
+ * @author shannah
+ */
+public class EntitySnapshotTest extends AbstractTest {
+
+    public static class Address extends Entity {
+        static StringProperty city;
+        public static final EntityType TYPE = new EntityType(){{
+            city = string(new Name("city"));
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    public static class Person extends Entity {
+        static StringProperty name;
+        static IntProperty age;
+        static EntityProperty<Address> home;
+        static EntityProperty<Person> friend;
+        public static final EntityType TYPE = new EntityType(){{
+            name = string(new Name("name"));
+            age = Integer(new Name("age"));
+            home = entity(Address.class, new Name("home"));
+            friend = entity(Person.class, new Name("friend"));
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    public static class People extends EntityList<Person> {}
+
+    /**
+     * A later version of {@link Person}, with its properties in a different order, one property dropped and one added.
+     */
+    public static class PersonV2 extends Entity {
+        static StringProperty email;
+        static IntProperty age;
+        static StringProperty name;
+        public static final EntityType TYPE = new EntityType(){{
+            email = string(new Name("email"));
+            age = Integer(new Name("age"));
+            name = string(new Name("name"));
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    public static class Group extends Entity {
+        static ListProperty<People> members;
+        public static final EntityType TYPE = new EntityType(){{
+            members = list(People.class, new Name("members"));
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    public static class Note extends Entity {
+        static StringProperty title, draft;
+        public static final EntityType TYPE = new EntityType(){{
+            title = string(new Name("title"));
+            draft = string();
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private static EntitySnapshotSchema createSchema() {
+        EntitySnapshotSchema schema = new EntitySnapshotSchema();
+        schema.register("Address", Address.TYPE, Address.class);
+        schema.register("Person", Person.TYPE, Person.class);
+        schema.register("Group", Group.TYPE, Group.class);
+        schema.registerList("People", People.class);
+        return schema;
+    }
+
+    private static Person person(String name, int age) {
+        Person p = new Person();
+        p.setText(Person.name, name);
+        Person.age.setValue(p, age);
+        return p;
+    }
+
+    private static byte[] write(EntitySnapshotSchema schema, Entity... entities) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        EntitySnapshotWriter writer = new EntitySnapshotWriter(schema, bytes);
+        for (Entity e : entities) {
+            writer.write(e);
+        }
+        writer.close();
+        return bytes.toByteArray();
+    }
+
+    private void testRoundTrip() throws Exception {
+        Address shared = new Address();
+        shared.setText(Address.city, "Vancouver");
+        Person steve = person("Steve", 42);
+        Person anne = person("Anne", 37);
+        Person.home.setValue(steve, shared);
+        Person.home.setValue(anne, shared);
+        // A reference cycle.
+        Person.friend.setValue(steve, anne);
+        Person.friend.setValue(anne, steve);
+        Group group = new Group();
+        People members = new People();
+        members.add(steve);
+        members.add(anne);
+        Group.members.setValue(group, members);
+
+        EntitySnapshotReader reader = new EntitySnapshotReader(createSchema(), new ByteArrayInputStream(write(createSchema(), group, steve)));
+        assertEqual(true, reader.hasNext());
+        Group groupCopy = (Group)reader.next();
+        assertEqual(true, reader.hasNext());
+        Person steveRoot = (Person)reader.next();
+        assertEqual(false, reader.hasNext());
+        reader.close();
+
+        EntityList membersCopy = groupCopy.getEntityList(Group.members);
+        assertEqual(true, membersCopy instanceof People);
+        assertEqual(2, membersCopy.size());
+        Person steveCopy = (Person)membersCopy.get(0);
+        Person anneCopy = (Person)membersCopy.get(1);
+        assertEqual("Steve", steveCopy.getText(Person.name));
+        assertEqual(42, (int)steveCopy.get(Person.age));
+        assertEqual("Anne", anneCopy.getText(Person.name));
+
+        // Entities that were shared when written are shared when read, across roots too.
+        assertEqual(true, steveCopy.getEntity(Person.home) == anneCopy.getEntity(Person.home));
+        assertEqual("Vancouver", steveCopy.getEntity(Person.home).getText(Address.city));
+        assertEqual(true, steveCopy.getEntity(Person.friend) == anneCopy);
+        assertEqual(true, anneCopy.getEntity(Person.friend) == steveCopy);
+        assertEqual(true, steveRoot == steveCopy);
+    }
+
+    private void testChangedType() throws Exception {
+        Person steve = person("Steve", 42);
+        byte[] bytes = write(createSchema(), steve);
+
+        EntitySnapshotSchema schema = new EntitySnapshotSchema();
+        schema.register("Person", PersonV2.TYPE, PersonV2.class);
+        schema.register("Address", Address.TYPE, Address.class);
+        EntitySnapshotReader reader = new EntitySnapshotReader(schema, new ByteArrayInputStream(bytes));
+        PersonV2 copy = (PersonV2)reader.next();
+        reader.close();
+
+        // Properties are matched by name, not position.
+        assertEqual("Steve", copy.getText(PersonV2.name));
+        assertEqual(42, (int)copy.get(PersonV2.age));
+        assertEqual(null, copy.get(PersonV2.email));
+    }
+
+    private void testUnnamedProperty() throws Exception {
+        EntitySnapshotSchema schema = new EntitySnapshotSchema();
+        schema.register("Note", Note.TYPE, Note.class);
+        Note note = new Note();
+        note.setText(Note.title, "Groceries");
+        note.setText(Note.draft, "Milk");
+        EntitySnapshotReader reader = new EntitySnapshotReader(schema, new ByteArrayInputStream(write(schema, note)));
+        Note copy = (Note)reader.next();
+        reader.close();
+
+        // Unnamed properties aren't saved.
+        assertEqual("Groceries", copy.getText(Note.title));
+        assertEqual(null, copy.get(Note.draft));
+    }
+
+    private void testUnregisteredType() throws Exception {
+        EntitySnapshotSchema schema = new EntitySnapshotSchema();
+        schema.register("Address", Address.TYPE, Address.class);
+        boolean failed = false;
+        try {
+            write(schema, person("Steve", 42));
+        } catch (IOException ex) {
+            failed = true;
+        }
+        assertEqual(true, failed);
+    }
+
+    private void testStorage() throws Exception {
+        String storageName = "EntitySnapshotTest.snapshot";
+        EntitySnapshotSchema schema = createSchema();
+        try {
+            People people = new People();
+            people.add(person("Steve", 42));
+            people.add(person("Anne", 37));
+            schema.save(storageName, people);
+
+            EntitySnapshotReader reader = schema.open(storageName);
+            try {
+                People copy = (People)reader.next();
+                assertEqual(2, copy.size());
+                assertEqual("Anne", copy.get(1).getText(Person.name));
+                assertEqual(false, reader.hasNext());
+            } finally {
+                reader.close();
+            }
+        } finally {
+            Storage.getInstance().deleteStorageFile(storageName);
+        }
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testRoundTrip();
+        testChangedType();
+        testUnnamedProperty();
+        testUnregisteredType();
+        testStorage();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
@@ -0,0 +1,226 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.io.FileSystemStorage;
+import com.codename1.io.Util;
+import com.codename1.rad.io.EntityStore;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.Property.Name;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.testing.AbstractTest;
+import java.io.InputStream;
+import java.io.OutputStream;
+/**
+ *
+ * @author shannah
+ */
+public class EntityStoreTest extends AbstractTest {
+
+    public static class Note extends Entity {
+        static StringProperty id, text;
+        public static final EntityType TYPE = new EntityType(){{
+            id = string(new Name("id"));
+            text = string(new Name("text"));
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private String path;
+
+    private EntityStore createStore() {
+        return new EntityStore(path, Note.TYPE, Note.class, Note.id);
+    }
+
+    private static Note note(String id, String text) {
+        Note n = new Note();
+        n.setText(Note.id, id);
+        n.setText(Note.text, text);
+        return n;
+    }
+
+    private void deleteFiles() {
+        FileSystemStorage fs = FileSystemStorage.getInstance();
+        if (fs.exists(path)) {
+            fs.delete(path);
+        }
+        if (fs.exists(path + ".compact")) {
+            fs.delete(path + ".compact");
+        }
+    }
+
+    private byte[] readLog() throws Exception {
+        InputStream in = FileSystemStorage.getInstance().openInputStream(path);
+        try {
+            return Util.readInputStream(in);
+        } finally {
+            Util.cleanup(in);
+        }
+    }
+
+    private void writeFile(String file, byte[] bytes, int len) throws Exception {
+        OutputStream out = FileSystemStorage.getInstance().openOutputStream(file);
+        try {
+            out.write(bytes, 0, len);
+        } finally {
+            Util.cleanup(out);
+        }
+    }
+
+    private EntityStore createStoreWithTwoNotes() throws Exception {
+        deleteFiles();
+        EntityStore store = createStore();
+        store.open();
+        store.put(note("1", "first"));
+        store.put(note("2", "second"));
+        store.close();
+        return store;
+    }
+
+    private void testRoundTrip() throws Exception {
+        EntityStore store = createStoreWithTwoNotes();
+        store.open();
+        assertEqual(2, store.size());
+        Entity n = store.get("1");
+        assertEqual("first", n.getText(Note.text));
+
+        // The update is built from the change set, which isn't affected by notifying observers.
+        n.setText(Note.text, "updated");
+        n.notifyObservers();
+        store.put(n);
+        // The store leaves the entity's change tracking to its other consumers.
+        assertEqual(true, n.isChanged(Note.text));
+        store.close();
+
+        store.open();
+        assertEqual("updated", store.get("1").getText(Note.text));
+        assertEqual("second", store.get("2").getText(Note.text));
+        store.remove("2");
+        store.compact();
+        store.close();
+
+        store.open();
+        assertEqual(1, store.size());
+        assertEqual("updated", store.get("1").getText(Note.text));
+        store.close();
+    }
+
+    private void testUpdatesAndCompaction() throws Exception {
+        EntityStore store = createStoreWithTwoNotes();
+        store.setCompactionThreshold(3);
+        store.open();
+        Entity n = store.get("1");
+        for (int i=0; i<10; i++) {
+            n.setText(Note.text, "edit "+i);
+            store.put(n);
+            n.clearChangeSet();
+        }
+        // Nothing changed, so nothing is written.
+        store.put(n);
+
+        // A different instance with the same key replaces the saved entity.
+        Note replacement = new Note();
+        replacement.setText(Note.id, "2");
+        store.put(replacement);
+        store.compact();
+        store.close();
+
+        store.open();
+        assertEqual(2, store.size());
+        assertEqual("edit 9", store.get("1").getText(Note.text));
+        assertEqual(null, store.get("2").get(Note.text));
+        store.close();
+    }
+
+    private void testUnnamedProperty() throws Exception {
+        EntityType type = new EntityType(){{
+            string(new Name("id"));
+            string();
+        }};
+        boolean failed = false;
+        try {
+            new EntityStore(path, type, null, type.getPropertyAt(0));
+        } catch (IllegalArgumentException ex) {
+            failed = true;
+        }
+        assertEqual(true, failed);
+    }
+
+    private void testTruncatedTail() throws Exception {
+        EntityStore store = createStoreWithTwoNotes();
+        byte[] log = readLog();
+        writeFile(path, log, log.length - 3);
+
+        store.open();
+        assertEqual(1, store.size());
+        assertEqual("first", store.get("1").getText(Note.text));
+        assertEqual(false, store.contains("2"));
+
+        // The torn record was compacted away, so new records are appended after the last good one.
+        store.put(note("3", "third"));
+        store.close();
+        store.open();
+        assertEqual(2, store.size());
+        assertEqual("third", store.get("3").getText(Note.text));
+        store.close();
+    }
+
+    private void testBadChecksum() throws Exception {
+        EntityStore store = createStoreWithTwoNotes();
+        byte[] log = readLog();
+        log[log.length-1] ^= 0xff;
+        writeFile(path, log, log.length);
+
+        store.open();
+        assertEqual(1, store.size());
+        assertEqual("first", store.get("1").getText(Note.text));
+        assertEqual(false, store.contains("2"));
+        store.close();
+    }
+
+    private void testCrashBetweenDeleteAndRename() throws Exception {
+        EntityStore store = createStoreWithTwoNotes();
+
+        // Simulate compact() being killed after the old log was deleted, but before the new one was renamed.
+        byte[] log = readLog();
+        writeFile(path + ".compact", log, log.length);
+        FileSystemStorage.getInstance().delete(path);
+
+        store.open();
+        assertEqual(2, store.size());
+        assertEqual("first", store.get("1").getText(Note.text));
+        assertEqual("second", store.get("2").getText(Note.text));
+        assertEqual(false, FileSystemStorage.getInstance().exists(path + ".compact"));
+        store.close();
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        path = FileSystemStorage.getInstance().getAppHomePath() + "EntityStoreTest.log";
+        try {
+            testRoundTrip();
+            testUpdatesAndCompaction();
+            testUnnamedProperty();
+            testTruncatedTail();
+            testBadChecksum();
+            testCrashBetweenDeleteAndRename();
+        } finally {
+            deleteFiles();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
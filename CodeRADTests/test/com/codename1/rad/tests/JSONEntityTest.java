@@ -0,0 +1,193 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.io.CharArrayReader;
+import com.codename1.rad.io.JSONEntityReader;
+import com.codename1.rad.io.JSONEntityWriter;
+import com.codename1.rad.models.BooleanProperty;
+import com.codename1.rad.models.DateProperty;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityProperty;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.IntProperty;
+import com.codename1.rad.models.ListProperty;
+import com.codename1.rad.models.Property.Name;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.testing.AbstractTest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Date;
+/**
+ *
+ * @author shannah
+ */
+public class JSONEntityTest extends AbstractTest {
+
+    public static class Address extends Entity {
+        static StringProperty city;
+        public static final EntityType TYPE = new EntityType(){{
+            city = string(new Name("city"));
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    public static class Addresses extends EntityList<Address> {}
+
+    public static class Person extends Entity {
+        static StringProperty name;
+        static IntProperty age;
+        static BooleanProperty active;
+        static DateProperty created;
+        static EntityProperty<Address> home;
+        static ListProperty<Addresses> addresses;
+        public static final EntityType TYPE = new EntityType(){{
+            name = string(new Name("name"));
+            age = Integer(new Name("age"));
+            active = Boolean(new Name("active"));
+            created = date(new Name("created"));
+            home = entity(Address.class, new Name("home"));
+            addresses = list(Addresses.class, new Name("addresses"));
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private static Address address(String city) {
+        Address a = new Address();
+        a.setText(Address.city, city);
+        return a;
+    }
+
+    private static JSONEntityReader createReader() {
+        JSONEntityReader reader = new JSONEntityReader();
+        reader.rowClass(Addresses.class, Address.class);
+        return reader;
+    }
+
+    private static Person read(String json) throws IOException {
+        Person p = new Person();
+        createReader().read(new CharArrayReader(json.toCharArray()), p);
+        return p;
+    }
+
+    private void testRoundTrip() throws Exception {
+        Person p = new Person();
+        p.setText(Person.name, "Steve \"Q\"\né");
+        Person.age.setValue(p, 42);
+        Person.active.setValue(p, true);
+        Date created = new Date(1577836800000l);
+        Person.created.setValue(p, created);
+        Person.home.setValue(p, address("Vancouver"));
+        Addresses addresses = new Addresses();
+        addresses.add(address("Toronto"));
+        addresses.add(address("Montreal"));
+        Person.addresses.setValue(p, addresses);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Writer out = new OutputStreamWriter(bytes, "UTF-8");
+        new JSONEntityWriter().write(out, p);
+        out.flush();
+
+        Person copy = read(new String(bytes.toByteArray(), "UTF-8"));
+        assertEqual(p.getText(Person.name), copy.getText(Person.name));
+        assertEqual(42, (int)copy.get(Person.age));
+        assertEqual(true, copy.getBoolean(Person.active));
+        assertEqual(created, copy.getDate(Person.created));
+        assertEqual("Vancouver", copy.getEntity(Person.home).getText(Address.city));
+        EntityList copiedAddresses = copy.getEntityList(Person.addresses);
+        assertEqual(2, copiedAddresses.size());
+        assertEqual("Montreal", copiedAddresses.get(1).getText(Address.city));
+    }
+
+    private void testSkipsUnknownKeys() throws Exception {
+        Person p = read("{\"extra\":{\"a\":[1,2,{\"b\":\"}\"}]},\"name\":\"caf\\u00e9\",\"more\":null}");
+        assertEqual("café", p.getText(Person.name));
+    }
+
+    private void testLongInput() throws Exception {
+        // Longer than the reader's chunk size, so that tokens span chunk boundaries.
+        StringBuilder sb = new StringBuilder();
+        for (int i=0; i<10000; i++) {
+            sb.append((char)('a' + i % 26));
+        }
+        Person p = read("{\"name\":\""+sb+"\",\"age\":7}");
+        assertEqual(sb.toString(), p.getText(Person.name));
+        assertEqual(7, (int)p.get(Person.age));
+    }
+
+    private void testReadAgain() throws Exception {
+        String json = "{\"name\":\"Steve\",\"addresses\":[{\"city\":\"Toronto\"},{\"city\":\"Montreal\"}]}";
+        Person p = read(json);
+        // Read entities are marked as unchanged.
+        assertEqual(false, p.hasChanged());
+        assertEqual(true, p.getChangeSet().isEmpty());
+        assertEqual(true, p.getEntityList(Person.addresses).get(0).getChangeSet().isEmpty());
+
+        // Reading into a populated entity replaces the rows of its lists.
+        createReader().read(new CharArrayReader(json.toCharArray()), p);
+        assertEqual(2, p.getEntityList(Person.addresses).size());
+    }
+
+    private void testNullRow() throws Exception {
+        Person p = new Person();
+        Addresses addresses = new Addresses();
+        addresses.add(address("Toronto"));
+        addresses.add(null);
+        Person.addresses.setValue(p, addresses);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Writer out = new OutputStreamWriter(bytes, "UTF-8");
+        new JSONEntityWriter().write(out, p);
+        out.flush();
+        String json = new String(bytes.toByteArray(), "UTF-8");
+        assertEqual(true, json.indexOf("null]") > 0);
+        // Null rows are skipped when reading.
+        assertEqual(1, read(json).getEntityList(Person.addresses).size());
+    }
+
+    private void testMalformed() throws Exception {
+        assertEqual(true, failsToRead("{\"created\":\"not a date\"}"));
+        assertEqual(true, failsToRead("{\"age\":12x}"));
+        assertEqual(true, failsToRead("{\"name\":\"unterminated"));
+        assertEqual(true, failsToRead("{\"name\" \"missing colon\"}"));
+    }
+
+    private boolean failsToRead(String json) {
+        try {
+            read(json);
+            return false;
+        } catch (IOException ex) {
+            return true;
+        }
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testRoundTrip();
+        testSkipsUnknownKeys();
+        testLongInput();
+        testReadAgain();
+        testNullRow();
+        testMalformed();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
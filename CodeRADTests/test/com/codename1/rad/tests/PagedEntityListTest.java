@@ -0,0 +1,203 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.io.Util;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityList.EntitiesAddedEvent;
+import com.codename1.rad.models.EntityList.EntitiesReloadedEvent;
+import com.codename1.rad.models.EntityList.EntitiesResetEvent;
+import com.codename1.rad.models.EntityListProjection;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.InMemoryPageSource;
+import com.codename1.rad.models.PagedEntityList;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.testing.AbstractTest;
+import com.codename1.ui.CN;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ *
+ * @author shannah
+ */
+public class PagedEntityListTest extends AbstractTest {
+
+    static class Row extends Entity {
+        static StringProperty name;
+        public static final EntityType TYPE = new EntityType(){{
+            name = string();
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private static List<Row> createRows(int count) {
+        List<Row> out = new ArrayList<>();
+        for (int i=0; i<count; i++) {
+            Row r = new Row();
+            r.setText(Row.name, "row "+i);
+            out.add(r);
+        }
+        return out;
+    }
+
+    /**
+     * Requests the row at the given index, and waits for its page to be loaded.
+     */
+    private static void load(PagedEntityList<Row> list, int index) {
+        list.get(index);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!list.isLoaded(index) && System.currentTimeMillis() < deadline) {
+            CN.invokeAndBlock(() -> Util.sleep(10));
+        }
+    }
+
+    private void testPaging() throws Exception {
+        List<Row> rows = createRows(25);
+        PagedEntityList<Row> list = new PagedEntityList<>(Row.TYPE, new InMemoryPageSource<>(rows), 10);
+        assertEqual(true, list.isSizeKnown());
+        assertEqual(25, list.size());
+        assertEqual(false, list.isLoaded(0));
+
+        load(list, 5);
+        assertEqual(true, list.isLoaded(0));
+        assertEqual(true, list.isLoaded(9));
+        assertEqual(false, list.isLoaded(10));
+        assertEqual(rows.get(5), list.get(5));
+
+        load(list, 24);
+        assertEqual(rows.get(24), list.get(24));
+        // Iteration only visits loaded rows.
+        int count = 0;
+        for (Row r : list) {
+            count++;
+        }
+        assertEqual(15, count);
+    }
+
+    private void testEstimatedSize() throws Exception {
+        InMemoryPageSource<Row> source = new InMemoryPageSource<>(createRows(25));
+        source.setSizeKnown(false);
+        PagedEntityList<Row> list = new PagedEntityList<>(Row.TYPE, source, 10);
+        assertEqual(false, list.isSizeKnown());
+        assertEqual(10, list.size());
+
+        // While pages are full, the estimate is one page past the loaded rows.
+        load(list, 0);
+        assertEqual(20, list.size());
+        load(list, 10);
+        assertEqual(30, list.size());
+
+        // A partial page marks the end.
+        load(list, 20);
+        assertEqual(true, list.isSizeKnown());
+        assertEqual(25, list.size());
+    }
+
+    private void testEviction() throws Exception {
+        List<Row> rows = createRows(40);
+        PagedEntityList<Row> list = new PagedEntityList<>(Row.TYPE, new InMemoryPageSource<>(rows), 10);
+        list.setMaxPages(2);
+        load(list, 0);
+        load(list, 10);
+        // Touch the first page, so that the second one is the least recently used.
+        list.get(0);
+        load(list, 20);
+        assertEqual(true, list.isLoaded(0));
+        assertEqual(false, list.isLoaded(10));
+        assertEqual(true, list.isLoaded(20));
+
+        list.setMaxPages(1);
+        assertEqual(false, list.isLoaded(0));
+        assertEqual(true, list.isLoaded(20));
+    }
+
+    private void testEvents() throws Exception {
+        List<Row> rows = createRows(30);
+        PagedEntityList<Row> list = new PagedEntityList<>(Row.TYPE, new InMemoryPageSource<>(rows), 10);
+        list.setMaxPages(1);
+        List<EntityList.EntityListEvent> events = new ArrayList<>();
+        list.addActionListener(evt -> events.add(evt));
+
+        load(list, 0);
+        assertEqual(1, events.size());
+        EntitiesAddedEvent added = (EntitiesAddedEvent)events.get(0);
+        assertEqual(0, added.getIndex());
+        assertEqual(10, added.getCount());
+
+        load(list, 10);
+        assertEqual(2, events.size());
+        assertEqual(10, ((EntitiesAddedEvent)events.get(1)).getIndex());
+
+        // The first page was evicted.  Loading it again reloads rows that listeners have already seen.
+        assertEqual(false, list.isLoaded(0));
+        load(list, 0);
+        assertEqual(3, events.size());
+        EntitiesReloadedEvent reloaded = (EntitiesReloadedEvent)events.get(2);
+        assertEqual(0, reloaded.getIndex());
+        assertEqual(10, reloaded.getCount());
+    }
+
+    private void testInvalidate() throws Exception {
+        List<Row> rows = createRows(30);
+        PagedEntityList<Row> list = new PagedEntityList<>(Row.TYPE, new InMemoryPageSource<>(rows), 10);
+        load(list, 0);
+        load(list, 10);
+        List<EntityList.EntityListEvent> events = new ArrayList<>();
+        list.addActionListener(evt -> events.add(evt));
+
+        list.invalidate();
+        assertEqual(false, list.isLoaded(0));
+        assertEqual(1, events.size());
+        EntitiesResetEvent reset = (EntitiesResetEvent)events.get(0);
+        assertEqual(20, reset.getOldEntities().size());
+
+        // After invalidation, pages are new again.
+        load(list, 0);
+        assertEqual(2, events.size());
+        assertEqual(true, events.get(1) instanceof EntitiesAddedEvent);
+    }
+
+    private void testDerivedListsNotSupported() throws Exception {
+        PagedEntityList<Row> list = new PagedEntityList<>(Row.TYPE, new InMemoryPageSource<>(createRows(5)), 10);
+        boolean failed = false;
+        try {
+            list.addIndex(Row.name);
+        } catch (UnsupportedOperationException ex) {
+            failed = true;
+        }
+        assertEqual(true, failed);
+
+        failed = false;
+        try {
+            new EntityListProjection<Row>(list, null, null);
+        } catch (IllegalArgumentException ex) {
+            failed = true;
+        }
+        assertEqual(true, failed);
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testPaging();
+        testEstimatedSize();
+        testEviction();
+        testEvents();
+        testInvalidate();
+        testDerivedListsNotSupported();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
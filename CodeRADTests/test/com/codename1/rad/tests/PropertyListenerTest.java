@@ -0,0 +1,96 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.PropertyChangeEvent;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.testing.AbstractTest;
+import com.codename1.ui.events.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ *
+ * @author shannah
+ */
+public class PropertyListenerTest extends AbstractTest {
+
+    static class Note extends Entity {
+        static StringProperty text;
+        public static final EntityType TYPE = new EntityType(){{
+            text = string();
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private void testDispatchOrder() throws Exception {
+        Note n = new Note();
+        List<String> calls = new ArrayList<>();
+        n.addPropertyChangeListener(Note.text, evt -> calls.add("a"));
+        n.addPropertyChangeListener(Note.text, evt -> calls.add("b"));
+        n.addPropertyChangeListener(evt -> calls.add("any"));
+        n.setText(Note.text, "hello");
+        assertEqual(3, calls.size());
+        assertEqual(true, calls.indexOf("a") < calls.indexOf("b"));
+    }
+
+    private void testRemoveDuringDispatch() throws Exception {
+        Note n = new Note();
+        int[] counts = new int[2];
+        ActionListener<PropertyChangeEvent>[] first = new ActionListener[1];
+        first[0] = evt -> {
+            counts[0]++;
+            n.removePropertyChangeListener(Note.text, first[0]);
+        };
+        n.addPropertyChangeListener(Note.text, first[0]);
+        n.addPropertyChangeListener(Note.text, evt -> counts[1]++);
+
+        n.setText(Note.text, "one");
+        // Removing a listener while an event is fired doesn't skip the listeners after it.
+        assertEqual(1, counts[0]);
+        assertEqual(1, counts[1]);
+
+        n.setText(Note.text, "two");
+        assertEqual(1, counts[0]);
+        assertEqual(2, counts[1]);
+    }
+
+    private void testAddDuringDispatch() throws Exception {
+        Note n = new Note();
+        int[] added = new int[1];
+        ActionListener<PropertyChangeEvent> late = evt -> added[0]++;
+        n.addPropertyChangeListener(Note.text, evt -> n.addPropertyChangeListener(Note.text, late));
+
+        n.setText(Note.text, "one");
+        // A listener added during dispatch only sees later events.
+        assertEqual(0, added[0]);
+        n.setText(Note.text, "two");
+        assertEqual(1, added[0]);
+
+        // Adding the same listener again doesn't register it twice.
+        n.setText(Note.text, "three");
+        assertEqual(2, added[0]);
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testDispatchOrder();
+        testRemoveDuringDispatch();
+        testAddDuringDispatch();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
@@ -0,0 +1,105 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityProperty;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.PropertySelector;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.testing.AbstractTest;
+/**
+ *
+ * @author shannah
+ */
+public class PropertySelectorTest extends AbstractTest {
+
+    static class Address extends Entity {
+        static StringProperty city;
+        public static final EntityType TYPE = new EntityType(){{
+            city = string();
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    static class Person extends Entity {
+        static EntityProperty<Address> address;
+        public static final EntityType TYPE = new EntityType(){{
+            address = entity(Address.class);
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private static Address address(String city) {
+        Address a = new Address();
+        a.setText(Address.city, city);
+        return a;
+    }
+
+    private void testCachedPath() throws Exception {
+        Person p = new Person();
+        Address a1 = address("Vancouver");
+        Person.address.setValue(p, a1);
+        PropertySelector sel = new PropertySelector(p, Person.address).child(Address.city);
+        assertEqual("Vancouver", sel.getText(null));
+        assertEqual(a1, sel.getLeafEntity());
+
+        // The cached path must be re-resolved when an intermediate entity is replaced.
+        Address a2 = address("Toronto");
+        Person.address.setValue(p, a2);
+        assertEqual("Toronto", sel.getText(null));
+        assertEqual(a2, sel.getLeafEntity());
+
+        a2.setText(Address.city, "Montreal");
+        assertEqual("Montreal", sel.getText(null));
+
+        Person.address.setValue(p, null);
+        assertEqual("none", sel.getText("none"));
+    }
+
+    private void testDeepListenerReattached() throws Exception {
+        Person p = new Person();
+        Address a1 = address("Vancouver");
+        Person.address.setValue(p, a1);
+        PropertySelector sel = new PropertySelector(p, Person.address).child(Address.city);
+        int[] count = new int[1];
+        sel.addPropertyChangeListener(evt -> count[0]++);
+
+        a1.setText(Address.city, "Victoria");
+        assertEqual(1, count[0]);
+
+        Address a2 = address("Toronto");
+        Person.address.setValue(p, a2);
+        assertEqual(2, count[0]);
+
+        // The leaf listener moved to the new address.
+        a1.setText(Address.city, "Nanaimo");
+        assertEqual(2, count[0]);
+        a2.setText(Address.city, "Ottawa");
+        assertEqual(3, count[0]);
+        assertEqual(0, a1.getPropertyChangeListenerCount());
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testCachedPath();
+        testDeepListenerReattached();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
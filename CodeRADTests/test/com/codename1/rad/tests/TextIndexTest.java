@@ -0,0 +1,152 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityListProjection;
+import com.codename1.rad.models.EntityType;
+import static com.codename1.rad.models.EntityType.tags;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.rad.models.TextIndex;
+import com.codename1.rad.schemas.Thing;
+import com.codename1.testing.AbstractTest;
+import java.util.Set;
+/**
+ *
+ * @author shannah
+ */
+public class TextIndexTest extends AbstractTest {
+
+    static class Contact extends Entity {
+        static StringProperty name, notes, phone;
+        public static final EntityType TYPE = new EntityType(){{
+            name = string(tags(Thing.name));
+            notes = string(tags(Thing.description));
+            phone = string();
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private static Contact contact(String name, String notes) {
+        Contact c = new Contact();
+        c.setText(Contact.name, name);
+        if (notes != null) {
+            c.setText(Contact.notes, notes);
+        }
+        c.setText(Contact.phone, "555-1234");
+        return c;
+    }
+
+    private static String names(EntityList<Contact> list) {
+        StringBuilder sb = new StringBuilder();
+        for (Contact c : list) {
+            if (sb.length() > 0) {
+                sb.append(",");
+            }
+            sb.append(c.getText(Contact.name));
+        }
+        return sb.toString();
+    }
+
+    private void testQueries() throws Exception {
+        EntityList<Contact> contacts = new EntityList<>();
+        Contact steve = contact("Steve Hannah", "Works on CodeRAD");
+        Contact stephanie = contact("Stephanie Jones", "Met at a conference, 2019");
+        Contact bob = contact("Bob Stevens", null);
+        contacts.add(steve);
+        contacts.add(stephanie);
+        TextIndex<Contact> index = new TextIndex<>(contacts, Thing.name, Thing.description);
+        contacts.add(bob);
+
+        // Tokens are matched case-insensitively, across all of the tagged properties.
+        assertEqual(true, index.findToken("STEVE").contains(steve));
+        assertEqual(1, index.findToken("steve").size());
+        assertEqual(true, index.findToken("2019").contains(stephanie));
+        assertEqual(true, index.findToken("coderad").contains(steve));
+        // Untagged properties aren't indexed.
+        assertEqual(0, index.findToken("555").size());
+
+        Set<Contact> ste = index.findPrefix("Ste");
+        assertEqual(3, ste.size());
+        assertEqual(0, index.findPrefix("xyz").size());
+
+        // Every word of a query must match.
+        Set<Contact> results = index.search("ste han");
+        assertEqual(1, results.size());
+        assertEqual(true, results.contains(steve));
+        assertEqual(3, index.search("").size());
+        assertEqual(0, index.search("ste xyz").size());
+        assertEqual(true, index.matches(bob, "bo stev"));
+        assertEqual(false, index.matches(bob, "hannah"));
+
+        // The index follows changes to the rows.
+        steve.setText(Contact.name, "Steven Smith");
+        assertEqual(0, index.findToken("hannah").size());
+        assertEqual(0, index.findPrefix("han").size());
+        assertEqual(true, index.findToken("smith").contains(steve));
+        contacts.remove(stephanie);
+        assertEqual(0, index.findToken("jones").size());
+        stephanie.setText(Contact.name, "Stephanie Smith");
+        assertEqual(1, index.findToken("smith").size());
+
+        index.detach();
+        bob.setText(Contact.name, "Robert Stevens");
+        assertEqual(0, index.findToken("robert").size());
+        index.attach();
+        assertEqual(true, index.findToken("robert").contains(bob));
+    }
+
+    private void testProjection() throws Exception {
+        EntityList<Contact> contacts = new EntityList<>();
+        Contact steve = contact("Steve Hannah", null);
+        Contact anne = contact("Anne Stevens", null);
+        Contact bob = contact("Bob Jones", null);
+        contacts.add(steve);
+        contacts.add(anne);
+        contacts.add(bob);
+        TextIndex<Contact> index = new TextIndex<>(contacts, Thing.name, Thing.description);
+
+        EntityListProjection<Contact> results = index.createProjection("stev", null);
+        // Rows are kept in list order when there is no comparator.
+        assertEqual("Steve Hannah,Anne Stevens", names(results));
+
+        // Rows enter and leave the results as they change.
+        bob.setText(Contact.name, "Bob Stevenson");
+        assertEqual("Steve Hannah,Anne Stevens,Bob Stevenson", names(results));
+        anne.setText(Contact.name, "Anne Smith");
+        assertEqual("Steve Hannah,Bob Stevenson", names(results));
+        Contact added = contact("Stevie Wonder", null);
+        contacts.add(added);
+        assertEqual("Steve Hannah,Bob Stevenson,Stevie Wonder", names(results));
+
+        results.setFilter(index.createFilter("s"));
+        assertEqual("Steve Hannah,Anne Smith,Bob Stevenson,Stevie Wonder", names(results));
+
+        results.setComparator((a, b) -> a.getText(Contact.name).compareTo(b.getText(Contact.name)));
+        results.setFilter(index.createFilter("bob"));
+        assertEqual("Bob Stevenson", names(results));
+        results.setFilter(index.createFilter(""));
+        assertEqual("Anne Smith,Bob Stevenson,Steve Hannah,Stevie Wonder", names(results));
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testQueries();
+        testProjection();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
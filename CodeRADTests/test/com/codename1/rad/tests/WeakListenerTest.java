@@ -0,0 +1,82 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.tests;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.PropertyChangeEvent;
+import com.codename1.rad.models.PropertySelector;
+import com.codename1.rad.models.StringProperty;
+import com.codename1.testing.AbstractTest;
+import com.codename1.ui.events.ActionListener;
+/**
+ *
+ * @author shannah
+ */
+public class WeakListenerTest extends AbstractTest {
+
+    static class Note extends Entity {
+        static StringProperty text;
+        public static final EntityType TYPE = new EntityType(){{
+            text = string();
+        }};
+
+        {
+            setEntityType(TYPE);
+        }
+    }
+
+    private void testWeakListener() throws Exception {
+        Note n = new Note();
+        int[] count = new int[1];
+        ActionListener<PropertyChangeEvent> l = evt -> count[0]++;
+        n.addWeakPropertyChangeListener(Note.text, l);
+        assertEqual(1, n.getPropertyChangeListenerCount());
+
+        n.setText(Note.text, "one");
+        assertEqual(1, count[0]);
+
+        // Adding the same listener again, strongly or weakly, doesn't register it twice.
+        n.addWeakPropertyChangeListener(Note.text, l);
+        n.addPropertyChangeListener(Note.text, l);
+        n.setText(Note.text, "two");
+        assertEqual(2, count[0]);
+
+        n.removePropertyChangeListener(Note.text, l);
+        assertEqual(0, n.getPropertyChangeListenerCount());
+        n.setText(Note.text, "three");
+        assertEqual(2, count[0]);
+    }
+
+    private void testWeakSelectorListener() throws Exception {
+        Note n = new Note();
+        PropertySelector sel = new PropertySelector(n, Note.text);
+        int[] count = new int[1];
+        ActionListener<PropertyChangeEvent> l = evt -> count[0]++;
+        sel.addWeakPropertyChangeListener(l);
+        assertEqual(1, n.getPropertyChangeListenerCount());
+
+        n.setText(Note.text, "one");
+        assertEqual(1, count[0]);
+
+        sel.removePropertyChangeListener(l);
+        assertEqual(0, n.getPropertyChangeListenerCount());
+    }
+
+    @Override
+    public boolean runTest() throws Exception {
+        testWeakListener();
+        testWeakSelectorListener();
+        return true;
+    }
+
+    @Override
+    public boolean shouldExecuteOnEDT() {
+        return true;
+    }
+
+
+
+}
@@ -0,0 +1,23 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.attributes;
+
+import com.codename1.rad.models.Attribute;
+import com.codename1.rad.ui.CommitPolicy;
+
+/**
+ * Attribute for specifying the {@link CommitPolicy} of a {@link com.codename1.rad.nodes.FieldNode}.  It is inherited,
+ * so it can also be set on a form or section to apply to all of its fields.
+ * @author shannah
+ * @see com.codename1.rad.ui.UI#commitPolicy(com.codename1.rad.ui.CommitPolicy) 
+ */
+public class CommitPolicyAttribute extends Attribute<CommitPolicy> {
+    
+    public CommitPolicyAttribute(CommitPolicy value) {
+        super(value);
+    }
+    
+}
@@ -0,0 +1,221 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.controllers;
+
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.nodes.ActionNode;
+import com.codename1.rad.nodes.ActionNode.ActionNodeEvent;
+import com.codename1.ui.CN;
+import com.codename1.ui.Component;
+import com.codename1.ui.events.ActionListener;
+import com.codename1.ui.events.ComponentStateChangeEvent;
+import com.codename1.io.Log;
+import com.codename1.util.AsyncResource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link AsyncResource} for work that is performed in response to an action, off of the EDT.
+ *
+ * Tasks are run on a small shared pool of background threads (at most {@link #MAX_THREADS}), so a slow task, such as a
+ * network request, doesn't hold up async actions that are started after it.  Threads exit after they have been idle
+ * for {@link #IDLE_TIMEOUT} milliseconds, and are started again on demand.
+ *
+ * Async actions are created using {@link Controller#runAsync(com.codename1.rad.nodes.ActionNode.ActionNodeEvent, com.codename1.rad.controllers.AsyncAction.Task) }
+ * or {@link Controller#addAsyncActionListener(com.codename1.rad.nodes.ActionNode, com.codename1.rad.controllers.AsyncAction.Task) }.  The
+ * {@link Task} is run on a background thread, and the result is delivered back on the EDT, so callbacks registered with
+ * {@link #ready(com.codename1.util.SuccessCallback) } and {@link #except(com.codename1.util.SuccessCallback) } can safely update the UI.
+ *
+ * If the component that the action was fired from is deinitialized (i.e. removed from the display) before the task
+ * completes, the async action is cancelled, and its result is discarded.
+ *
+ * == Example
+ *
+ * [source,java]
+ * ----
+ * addAsyncActionListener(save, (evt, task) -> {
+ *     return repository.save(evt.getEntity()); <1>
+ * });
+ * ----
+ * <1> Runs on a background thread.  If the user taps "save" again for the same entity while this is still running, the
+ * second tap is ignored.
+ *
+ * @author shannah
+ */
+public class AsyncAction<V> extends AsyncResource<V> {
+
+    /**
+     * The maximum number of background threads used to run async actions.
+     */
+    public static final int MAX_THREADS = 4;
+
+    /**
+     * The number of milliseconds that a background thread waits for a new task before it exits.
+     */
+    public static final int IDLE_TIMEOUT = 30000;
+
+    /**
+     * Tasks waiting for a background thread.
+     */
+    private static final List<Runnable> queue = new ArrayList<>();
+    private static int threadCount;
+    private static int idleThreads;
+
+    /**
+     * The work to be performed by an async action.
+     * @param <V> The result type.
+     */
+    public static interface Task<V> {
+
+        /**
+         * Performs the work.  This is called on a background thread.  Long-running tasks should periodically check
+         * {@link AsyncAction#isCancelled() } and return early if the action has been cancelled.
+         * @param evt The event that triggered the action.
+         * @param action The async action that is running this task.
+         * @return The result.
+         * @throws Exception If the task fails.  The exception will be delivered to the {@link AsyncAction#except(com.codename1.util.SuccessCallback) } callbacks.
+         */
+        public V run(ActionNodeEvent evt, AsyncAction<V> action) throws Exception;
+    }
+
+    private final ActionNode action;
+    private final Entity entity;
+    private final Component source;
+    private final ActionNodeEvent event;
+    private final Task<V> task;
+
+    private ActionListener<ComponentStateChangeEvent> stateChangeListener = evt -> {
+        if (!evt.isInitialized()) {
+            cancel(false);
+        }
+    };
+
+    AsyncAction(ActionNodeEvent event, Task<V> task) {
+        this.event = event;
+        this.task = task;
+        this.action = (ActionNode)event.getAction().getCanonicalNode();
+        this.entity = event.getEntity();
+        this.source = event.getContext().getEventSource();
+    }
+
+    /**
+     * Gets the canonical action that this async action was triggered by.
+     * @return
+     */
+    public ActionNode getAction() {
+        return action;
+    }
+
+    /**
+     * Gets the entity that the action was fired on.
+     * @return
+     */
+    public Entity getEntity() {
+        return entity;
+    }
+
+    /**
+     * Gets the event that triggered this async action.
+     * @return
+     */
+    public ActionNodeEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * Checks whether this async action was triggered by the given action on the given entity.  Used for
+     * de-duplicating repeated taps.
+     * @param action The action.
+     * @param entity The entity.
+     * @return
+     */
+    boolean matches(ActionNode action, Entity entity) {
+        return this.action == action.getCanonicalNode() && this.entity == entity;
+    }
+
+    /**
+     * Starts the task on the background thread.  Must be called on the EDT.
+     */
+    void start() {
+        if (source != null) {
+            source.addStateChangeListener(stateChangeListener);
+        }
+        runInBackground(() -> {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                V result = task.run(event, this);
+                CN.callSerially(() -> {
+                    if (!isDone()) {
+                        complete(result);
+                    }
+                });
+            } catch (Throwable t) {
+                CN.callSerially(() -> {
+                    if (!isDone()) {
+                        error(t);
+                    }
+                });
+            }
+        });
+
+    }
+
+    /**
+     * Stops listening to the source component's lifecycle.  Must be called on the EDT.
+     */
+    void detach() {
+        if (source != null) {
+            source.removeStateChangeListener(stateChangeListener);
+        }
+    }
+
+    private static void runInBackground(Runnable r) {
+        synchronized (queue) {
+            queue.add(r);
+            if (queue.size() > idleThreads && threadCount < MAX_THREADS) {
+                threadCount++;
+                new Thread(() -> runWorker(), "AsyncActionThread-"+threadCount).start();
+            } else {
+                queue.notify();
+            }
+        }
+    }
+
+    /**
+     * Runs queued tasks until the queue has been empty for {@link #IDLE_TIMEOUT} milliseconds.
+     */
+    private static void runWorker() {
+        while (true) {
+            Runnable next;
+            synchronized (queue) {
+                long deadline = System.currentTimeMillis() + IDLE_TIMEOUT;
+                while (queue.isEmpty()) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        threadCount--;
+                        return;
+                    }
+                    idleThreads++;
+                    try {
+                        queue.wait(remaining);
+                    } catch (InterruptedException ex) {
+                    } finally {
+                        idleThreads--;
+                    }
+                }
+                next = queue.remove(0);
+            }
+            try {
+                next.run();
+            } catch (Throwable t) {
+                Log.e(t);
+            }
+        }
+    }
+
+}
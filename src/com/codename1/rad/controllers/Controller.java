@@ -9,8 +9,8 @@ import com.codename1.rad.nodes.ActionNode;
 import com.codename1.rad.nodes.ActionNode.ActionNodeEvent;
 import com.codename1.rad.nodes.Node;
 import com.codename1.rad.nodes.ViewNode;
+import com.codename1.ui.CN;
 import com.codename1.ui.events.ActionListener;
-import com.codename1.ui.util.EventDispatcher;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -71,20 +71,92 @@ public class Controller implements ActionListener<ControllerEvent> {
     private Controller parent;
     private Map<Class,Object> lookups;
     
-    private static class ActionHandler {
-        private ActionNode action;
-        private ActionListener<ActionNodeEvent> handler;
-        private ActionListener<ControllerEvent> wrapperListener;
+    /**
+     * Marker stored in {@link #resolvedLookups} for types that resolved to null.
+     */
+    private static final Object NULL_LOOKUP = new Object();
+    
+    /**
+     * Incremented whenever any controller adds a lookup or changes its parent.  Lookups are registered while the
+     * controller hierarchy is being set up, so invalidating every cache on a change is cheaper than tracking
+     * which controllers descend from the one that changed, and it keeps a cache hit down to a single comparison.
+     */
+    private static int lookupEpoch;
+    
+    private Map<Class,Object> resolvedLookups;
+    
+    /**
+     * The value of {@link #lookupEpoch} when {@link #resolvedLookups} was filled.
+     */
+    private int resolvedLookupsEpoch;
+    
+    /**
+     * Objects registered with {@link #addLookup(java.lang.Class, java.lang.Object) }, oldest first.
+     */
+    private List<Object> lookupOrder;
+    
+    /**
+     * Index of the types that have been looked up in this controller without an exact registration, mapped to the
+     * most recently registered object that is an instance of the type, or {@link #NULL_LOOKUP}.  Updated by
+     * {@link #addLookup(java.lang.Class, java.lang.Object) }.
+     */
+    private Map<Class,Object> supertypeLookups;
+    
+    /**
+     * A registered listener, with the sequence number of its registration.  Listeners registered through the 
+     * different {@code add*Listener()} methods are kept in separate indexes, and merged by sequence number when an
+     * event is dispatched, so that they are notified in the order they were registered.
+     */
+    private static class Registration {
+        private final int seq;
+        private final ActionListener listener;
         
+        Registration(int seq, ActionListener listener) {
+            this.seq = seq;
+            this.listener = listener;
+        }
     }
     
-    private List<ActionHandler> actionHandlers = new ArrayList<>();
+    private static final Registration[] NO_REGISTRATIONS = new Registration[0];
+    
+    /**
+     * Sequence number for the next registered listener.
+     */
+    private int nextListenerSeq;
+    
+    /**
+     * Listeners registered via {@link #addEventListener(com.codename1.ui.events.ActionListener) }.  Arrays are copied on 
+     * write, so that listeners can be added or removed during dispatch.
+     */
+    private Registration[] listeners = NO_REGISTRATIONS;
+    
+    /**
+     * Action listeners registered via {@link #addActionListener(com.codename1.rad.nodes.ActionNode, com.codename1.ui.events.ActionListener) },
+     * keyed by canonical action node, so that dispatching an {@link ActionNodeEvent} only
+     * notifies the handlers for that action.
+     */
+    private Map<ActionNode,Registration[]> actionListeners;
+    
+    /**
+     * Listeners registered via {@link #addEventListener(java.lang.Class, com.codename1.ui.events.ActionListener) },
+     * keyed by event class.
+     */
+    private Map<Class,Registration[]> eventClassListeners;
     
+    /**
+     * Cache of the listeners that apply to a given concrete event class, in registration order.  Cleared whenever
+     * the event class listeners change.
+     */
+    private Map<Class,Registration[]> resolvedEventClassListeners;
     
+    /**
+     * Async actions started with {@link #runAsync(com.codename1.rad.nodes.ActionNode.ActionNodeEvent, com.codename1.rad.controllers.AsyncAction.Task) } that
+     * haven't completed yet.
+     */
+    private List<AsyncAction> pendingAsyncActions;
     
-    private EventDispatcher listeners = new EventDispatcher();
     {
-        listeners.addListener(this);
+        listeners = register(listeners, this);
     }
     
     /**
@@ -104,54 +176,263 @@ public class Controller implements ActionListener<ControllerEvent> {
      * @param l 
      */
     public void addEventListener(ActionListener<ControllerEvent> l) {
-        listeners.addListener(l);
+        listeners = register(listeners, l);
     }
     
     public void removeEventListener(ActionListener<ControllerEvent> l) {
-        listeners.removeListener(l);
+        listeners = unregister(listeners, l);
     }
     
-    private ActionHandler findActionHandler(ActionNode action, ActionListener<ActionNodeEvent> l) {
-        ActionHandler h = null;
-        action = (ActionNode)action.getCanonicalNode();
-        for (ActionHandler candidate : actionHandlers) {
-            if (candidate.action == action && candidate.handler == l) {
-                return candidate;
+    /**
+     * Returns a copy of the given registrations with the listener appended.  Does nothing if the listener is already registered.
+     */
+    private Registration[] register(Registration[] current, ActionListener l) {
+        int len = current.length;
+        for (int i=0; i<len; i++) {
+            if (current[i].listener == l) {
+                return current;
             }
         }
-        return null;
+        Registration[] out = new Registration[len+1];
+        System.arraycopy(current, 0, out, 0, len);
+        out[len] = new Registration(nextListenerSeq++, l);
+        return out;
     }
     
-    public void addActionListener(ActionNode action, ActionListener<ActionNodeEvent> l) {
-        ActionHandler h = new ActionHandler();
-        h.action = (ActionNode)action.getCanonicalNode();
-        h.handler = l;
-        h.wrapperListener = evt -> {
-            if (ActionNode.getActionNodeEvent(evt, action) != null) {
-                l.actionPerformed((ActionNodeEvent)evt);
+    /**
+     * Returns a copy of the given registrations without the listener.
+     */
+    private static Registration[] unregister(Registration[] current, ActionListener l) {
+        int len = current.length;
+        for (int i=0; i<len; i++) {
+            if (current[i].listener == l) {
+                if (len == 1) {
+                    return NO_REGISTRATIONS;
+                }
+                Registration[] out = new Registration[len-1];
+                System.arraycopy(current, 0, out, 0, i);
+                System.arraycopy(current, i+1, out, i, len-i-1);
+                return out;
             }
-        };
-        actionHandlers.add(h);
-        addEventListener(h.wrapperListener);
+        }
+        return current;
+    }
+    
+    /**
+     * Adds a listener that is only notified of controller events that are instances of the given
+     * event class.  This is cheaper than adding a general listener with {@link #addEventListener(com.codename1.ui.events.ActionListener) }
+     * that checks the event type itself, since the listener isn't invoked at all for other events.  The listener is
+     * notified in registration order relative to all other listeners of this controller.
+     * @param <T> The event type.
+     * @param eventClass The event class.  Subclasses of this class will also be delivered to the listener.
+     * @param l The listener.
+     */
+    public <T extends ControllerEvent> void addEventListener(Class<T> eventClass, ActionListener<T> l) {
+        if (eventClassListeners == null) {
+            eventClassListeners = new HashMap<>();
+        }
+        Registration[] current = eventClassListeners.get(eventClass);
+        eventClassListeners.put(eventClass, register(current == null ? NO_REGISTRATIONS : current, l));
+        resolvedEventClassListeners = null;
+    }
+    
+    /**
+     * Removes a listener that was added with {@link #addEventListener(java.lang.Class, com.codename1.ui.events.ActionListener) }.
+     * @param <T> The event type.
+     * @param eventClass The event class that the listener was registered with.
+     * @param l The listener.
+     */
+    public <T extends ControllerEvent> void removeEventListener(Class<T> eventClass, ActionListener<T> l) {
+        if (eventClassListeners == null) {
+            return;
+        }
+        Registration[] current = eventClassListeners.get(eventClass);
+        if (current == null) {
+            return;
+        }
+        Registration[] next = unregister(current, l);
+        if (next.length == 0) {
+            eventClassListeners.remove(eventClass);
+        } else {
+            eventClassListeners.put(eventClass, next);
+        }
+        resolvedEventClassListeners = null;
+    }
+    
+    /**
+     * Adds a listener to be notified when the given action is fired in this controller's context.
+     * Listeners are indexed by the action's canonical node so that events for other actions never
+     * reach this listener.  The listener is notified in registration order relative to all other listeners of
+     * this controller.
+     * @param action The action to listen for.
+     * @param l The listener.
+     */
+    public void addActionListener(ActionNode action, ActionListener<ActionNodeEvent> l) {
+        if (actionListeners == null) {
+            actionListeners = new HashMap<>();
+        }
+        ActionNode key = (ActionNode)action.getCanonicalNode();
+        Registration[] current = actionListeners.get(key);
+        actionListeners.put(key, register(current == null ? NO_REGISTRATIONS : current, l));
         
     }
     
+    /**
+     * Removes a listener that was added with {@link #addActionListener(com.codename1.rad.nodes.ActionNode, com.codename1.ui.events.ActionListener) }.
+     * @param action The action.
+     * @param l The listener.
+     */
     public void removeActionListener(ActionNode action, ActionListener<ActionNodeEvent> l) {
-        ActionHandler h = findActionHandler(action, l);
-        if (h != null) {
-            listeners.removeListener(h.wrapperListener);
-            actionHandlers.remove(h);
+        if (actionListeners == null) {
+            return;
+        }
+        ActionNode key = (ActionNode)action.getCanonicalNode();
+        Registration[] current = actionListeners.get(key);
+        if (current != null) {
+            Registration[] next = unregister(current, l);
+            if (next.length == 0) {
+                actionListeners.remove(key);
+            } else {
+                actionListeners.put(key, next);
+            }
+        }
+    }
+    
+    /**
+     * Adds a listener for the given action whose work is performed off of the EDT.  The event is consumed, and
+     * the task is run as if by {@link #runAsync(com.codename1.rad.nodes.ActionNode.ActionNodeEvent, com.codename1.rad.controllers.AsyncAction.Task) }.
+     * @param <V> The result type of the task.
+     * @param action The action to listen for.
+     * @param task The task to run on a background thread when the action is fired.
+     */
+    public <V> void addAsyncActionListener(ActionNode action, AsyncAction.Task<V> task) {
+        addActionListener(action, evt -> {
+            evt.consume();
+            runAsync(evt, task);
+        });
+    }
+    
+    /**
+     * Runs a task for the given action event on a background thread, delivering the result back on the EDT.
+     * 
+     * If an async action for the same action and entity is still pending in this controller (e.g. the user double-tapped
+     * a button), the task is not run again, and the pending async action is returned instead.
+     * 
+     * The async action is cancelled if the component that fired the event is deinitialized before the task completes.
+     * 
+     * @param <V> The result type of the task.
+     * @param evt The action event.
+     * @param task The task to run.
+     * @return The async action, which can be used to receive the result, or to cancel the task.
+     */
+    public <V> AsyncAction<V> runAsync(ActionNodeEvent evt, AsyncAction.Task<V> task) {
+        if (pendingAsyncActions == null) {
+            pendingAsyncActions = new ArrayList<>();
+        }
+        for (AsyncAction pending : pendingAsyncActions) {
+            if (pending.matches(evt.getAction(), evt.getEntity())) {
+                return (AsyncAction<V>)pending;
+            }
         }
+        AsyncAction<V> out = new AsyncAction<V>(evt, task);
+        pendingAsyncActions.add(out);
+        out.ready(res -> {
+            out.detach();
+            pendingAsyncActions.remove(out);
+        });
+        out.except(err -> {
+            out.detach();
+            pendingAsyncActions.remove(out);
+        });
+        out.start();
+        return out;
+    }
+    
+    private Registration[] resolveEventClassListeners(Class eventClass) {
+        if (resolvedEventClassListeners == null) {
+            resolvedEventClassListeners = new HashMap<>();
+        }
+        Registration[] out = resolvedEventClassListeners.get(eventClass);
+        if (out == null) {
+            List<Registration> matches = new ArrayList<>();
+            for (Map.Entry<Class,Registration[]> e : eventClassListeners.entrySet()) {
+                if (e.getKey().isAssignableFrom(eventClass)) {
+                    for (Registration r : e.getValue()) {
+                        int pos = matches.size();
+                        while (pos > 0 && matches.get(pos-1).seq > r.seq) {
+                            pos--;
+                        }
+                        matches.add(pos, r);
+                    }
+                }
+            }
+            out = matches.toArray(new Registration[matches.size()]);
+            resolvedEventClassListeners.put(eventClass, out);
+        }
+        return out;
     }
     
     /**
      * Dispatches an event first to listeners of this controller, and then, if not consumed yet,
      * to listeners of the parent controller.  The event will propagate up the controller hierarchy
      * until it is either consumed, or until it reaches the top of the hierarchy (i.e. parent == null).
+     * 
+     * Within a controller, the listeners that apply to the event are notified in the order they were registered, whether
+     * they were added as general listeners ({@link #addEventListener(com.codename1.ui.events.ActionListener) }), event class
+     * listeners ({@link #addEventListener(java.lang.Class, com.codename1.ui.events.ActionListener) }) or action listeners
+     * ({@link #addActionListener(com.codename1.rad.nodes.ActionNode, com.codename1.ui.events.ActionListener) }).  Once a
+     * listener consumes the event, no further listeners are notified.
      * @param evt The event to be dispatched.
      */
     protected void dispatchEvent(ControllerEvent evt) {
-        listeners.fireActionEvent(evt);
+        if (!CN.isEdt()) {
+            CN.callSeriallyAndWait(() -> dispatchEvent(evt));
+            return;
+        }
+        Registration[] general = listeners;
+        Registration[] byClass = eventClassListeners == null || eventClassListeners.isEmpty() ? 
+                NO_REGISTRATIONS : resolveEventClassListeners(evt.getClass());
+        Registration[] byAction = NO_REGISTRATIONS;
+        ActionNodeEvent ane = null;
+        if (actionListeners != null && !actionListeners.isEmpty()) {
+            ane = ActionNode.getActionNodeEvent(evt);
+            if (ane != null && ane.getAction() != null) {
+                Registration[] regs = actionListeners.get((ActionNode)ane.getAction().getCanonicalNode());
+                if (regs != null) {
+                    byAction = regs;
+                }
+            }
+        }
+        
+        // Merge the three lists by registration order.
+        int i = 0, j = 0, k = 0;
+        while (!evt.isConsumed()) {
+            Registration next = null;
+            int source = -1;
+            if (i < general.length) {
+                next = general[i];
+                source = 0;
+            }
+            if (j < byClass.length && (next == null || byClass[j].seq < next.seq)) {
+                next = byClass[j];
+                source = 1;
+            }
+            if (k < byAction.length && (next == null || byAction[k].seq < next.seq)) {
+                next = byAction[k];
+                source = 2;
+            }
+            if (next == null) {
+                break;
+            }
+            if (source == 0) {
+                i++;
+            } else if (source == 1) {
+                j++;
+            } else {
+                k++;
+            }
+            next.listener.actionPerformed(source == 2 ? ane : evt);
+        }
         if (!evt.isConsumed() && parent != null) {
             parent.dispatchEvent(evt);
         }
@@ -231,6 +512,7 @@ public class Controller implements ActionListener<ControllerEvent> {
     
     public void setParent(Controller parent) {
         this.parent = parent;
+        lookupEpoch++;
     }
     
     protected ViewNode createViewNode() {
@@ -249,24 +531,105 @@ public class Controller implements ActionListener<ControllerEvent> {
         return node;
     }
     
+    /**
+     * Looks up an object of the given type in this controller's context.  Objects registered in this
+     * controller (via {@link #addLookup(java.lang.Object) } or {@link #addLookup(java.lang.Class, java.lang.Object) }) take
+     * precedence.  If none is found, the lookup proceeds up the controller hierarchy.
+     * 
+     * Objects are matched first by the exact class that they were registered with, and then by 
+     * supertype or interface, so a repository registered as a concrete class can be looked up by its interface.  If 
+     * several objects registered in the same controller match, the most recently registered one wins.
+     * 
+     * Results are cached per controller, and the caches are invalidated when any controller adds a lookup or 
+     * changes its parent.
+     * @param <T> The type of object to look up.
+     * @param type The type of object to look up.
+     * @return The matching object, or null if none found.
+     */
     public <T> T lookup(Class<T> type) {
-        if (lookups != null) {
-            T out = (T)lookups.get(type);
+        if (resolvedLookupsEpoch != lookupEpoch) {
+            resolvedLookups = null;
+            resolvedLookupsEpoch = lookupEpoch;
+        }
+        if (resolvedLookups != null) {
+            Object out = resolvedLookups.get(type);
             if (out != null) {
-                return out;
+                return out == NULL_LOOKUP ? null : (T)out;
             }
         }
-        if (parent != null) {
-            return parent.lookup(type);
+        T out = lookupLocal(type);
+        if (out == null && parent != null) {
+            out = parent.lookup(type);
         }
-        return null;
+        if (resolvedLookups == null) {
+            resolvedLookups = new HashMap<>();
+        }
+        resolvedLookups.put(type, out == null ? NULL_LOOKUP : out);
+        return out;
+    }
+    
+    private <T> T lookupLocal(Class<T> type) {
+        if (lookups == null) {
+            return null;
+        }
+        T out = (T)lookups.get(type);
+        if (out != null) {
+            return out;
+        }
+        if (supertypeLookups == null) {
+            supertypeLookups = new HashMap<>();
+        }
+        Object match = supertypeLookups.get(type);
+        if (match == null) {
+            match = NULL_LOOKUP;
+            for (int i=lookupOrder.size()-1; i>=0; i--) {
+                Object candidate = lookupOrder.get(i);
+                if (type.isAssignableFrom(candidate.getClass())) {
+                    match = candidate;
+                    break;
+                }
+            }
+            supertypeLookups.put(type, match);
+        }
+        return match == NULL_LOOKUP ? null : (T)match;
     }
     
+    /**
+     * Registers an object in this controller so that it can be retrieved using {@link #lookup(java.lang.Class) }
+     * from this controller and its descendants.  The object is registered under its concrete class.
+     * @param obj The object to register.
+     */
     public void addLookup(Object obj) {
+        addLookup((Class)obj.getClass(), obj);
+    }
+    
+    /**
+     * Registers an object in this controller under the given type.  Use this to register a service
+     * under an interface or supertype so that lookups by that type don't need to search.
+     * @param <T> The type to register the object as.
+     * @param type The type to register the object as.
+     * @param obj The object to register.
+     */
+    public <T> void addLookup(Class<T> type, T obj) {
         if (lookups == null) {
             lookups = new HashMap<>();
+            lookupOrder = new ArrayList<>();
         }
         lookups.put(obj.getClass(), obj);
+        lookups.put(type, obj);
+        lookupOrder.remove(obj);
+        lookupOrder.add(obj);
+        if (supertypeLookups != null) {
+            // Codename One doesn't support enumerating the supertypes of a class, so we can't index the object under all 
+            // of them up front.  Instead, update the types that have already been looked up.  The most recent registration wins.
+            Class cls = obj.getClass();
+            for (Map.Entry<Class,Object> e : supertypeLookups.entrySet()) {
+                if (e.getKey().isAssignableFrom(cls)) {
+                    e.setValue(obj);
+                }
+            }
+        }
+        lookupEpoch++;
     }
     
     
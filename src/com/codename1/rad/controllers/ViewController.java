@@ -24,6 +24,22 @@ import com.codename1.ui.events.ComponentStateChangeEvent;
 public class ViewController extends Controller {
     private Component view;
     private static final String KEY = "com.codename1.ui.controllers.ViewController";
+    private static final String CACHED_KEY = "com.codename1.ui.controllers.ViewController.cached";
+    
+    /**
+     * Incremented whenever any ViewController's view changes.  Used to invalidate 
+     * cached controller resolutions.
+     */
+    private static int viewGeneration;
+    
+    /**
+     * The result of resolving the nearest ViewController for a component, cached as a client
+     * property on the component.
+     */
+    private static class CachedViewController {
+        private ViewController controller;
+        private int generation;
+    }
     
     /**
      * Event that is fired when a "view" is set in a view controller.
@@ -97,6 +113,7 @@ public class ViewController extends Controller {
      * @param view 
      */
     public void setView(Component view) {
+        viewGeneration++;
         if (this.view != null) {
             if (this.view instanceof EventProducer) {
                 ((EventProducer)this.view).getActionSupport().removeActionListener(viewListener);
@@ -122,12 +139,23 @@ public class ViewController extends Controller {
         }
     }
     
+    /**
+     * Gets the nearest ViewController for the given component.  This walks up the component hierarchy (checking
+     * both owners and parents) until it finds a component that is the view of a ViewController.  The walk stops early
+     * at any component that has a cached controller from {@link #cacheViewController(com.codename1.ui.Component) }.
+     * @param cmp The component.
+     * @return The nearest ViewController, or null if none found.
+     */
     public static ViewController getViewController(Component cmp) {
         Component orig = cmp;
         ViewController ctrl = (ViewController)cmp.getClientProperty(KEY);
         if (ctrl != null) {
             return ctrl;
         }
+        CachedViewController cached = (CachedViewController)cmp.getClientProperty(CACHED_KEY);
+        if (cached != null && cached.generation == viewGeneration) {
+            return cached.controller;
+        }
         cmp = orig.getOwner();
         if (cmp != null) {
             ctrl =  getViewController(cmp);
@@ -149,6 +177,33 @@ public class ViewController extends Controller {
         return null;
     }
     
+    /**
+     * Resolves and caches the nearest ViewController for a component, so that subsequent calls to 
+     * {@link #getViewController(com.codename1.ui.Component) } for the component, or its descendants,
+     * don't need to walk the rest of the hierarchy.  This should be called when the component is initialized,
+     * and {@link #clearCachedViewController(com.codename1.ui.Component) } should be called when it is deinitialized, since
+     * a component is always deinitialized and reinitialized when it or one of its ancestors is re-parented.
+     * 
+     * The cache is also invalidated whenever the view of any ViewController changes.
+     * @param cmp The component.
+     */
+    public static void cacheViewController(Component cmp) {
+        cmp.putClientProperty(CACHED_KEY, null);
+        CachedViewController cached = new CachedViewController();
+        cached.generation = viewGeneration;
+        cached.controller = getViewController(cmp);
+        cmp.putClientProperty(CACHED_KEY, cached);
+    }
+    
+    /**
+     * Clears the cached ViewController for a component.
+     * @param cmp The component.
+     * @see #cacheViewController(com.codename1.ui.Component) 
+     */
+    public static void clearCachedViewController(Component cmp) {
+        cmp.putClientProperty(CACHED_KEY, null);
+    }
+    
     /**
      * Gets the view associated with this controller.
      * @return 
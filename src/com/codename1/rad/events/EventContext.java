@@ -22,6 +22,101 @@ import java.util.Map;
  * @author shannah
  */
 public class EventContext {
+    
+    /**
+     * Number of extra data entries that are stored inline before spilling into a map.
+     */
+    private static final int INLINE_EXTRA_CAPACITY = 4;
+    
+    /**
+     * Storage for extra data.  Small numbers of entries are kept in parallel arrays, and only
+     * spill into a map when there are more than {@link #INLINE_EXTRA_CAPACITY} keys.  Instances 
+     * may be shared between an EventContext and its copies, in which case they are copied before 
+     * being modified.
+     */
+    private static class ExtraData {
+        private Object[] keys;
+        private Object[] values;
+        private int size;
+        private Map spill;
+        
+        private ExtraData copy() {
+            ExtraData out = new ExtraData();
+            if (spill != null) {
+                out.spill = new HashMap(spill);
+            } else if (size > 0) {
+                out.keys = new Object[keys.length];
+                out.values = new Object[values.length];
+                System.arraycopy(keys, 0, out.keys, 0, size);
+                System.arraycopy(values, 0, out.values, 0, size);
+                out.size = size;
+            }
+            return out;
+        }
+        
+        private int indexOf(Object key) {
+            for (int i=0; i<size; i++) {
+                Object k = keys[i];
+                if (k == key || (k != null && k.equals(key))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        private void put(Object key, Object val) {
+            if (spill != null) {
+                spill.put(key, val);
+                return;
+            }
+            int index = indexOf(key);
+            if (index >= 0) {
+                values[index] = val;
+                return;
+            }
+            if (keys == null) {
+                keys = new Object[INLINE_EXTRA_CAPACITY];
+                values = new Object[INLINE_EXTRA_CAPACITY];
+            }
+            if (size < INLINE_EXTRA_CAPACITY) {
+                keys[size] = key;
+                values[size] = val;
+                size++;
+                return;
+            }
+            spill = new HashMap();
+            for (int i=0; i<size; i++) {
+                spill.put(keys[i], values[i]);
+            }
+            spill.put(key, val);
+            keys = null;
+            values = null;
+            size = 0;
+        }
+        
+        private Object get(Object key) {
+            if (spill != null) {
+                return spill.get(key);
+            }
+            int index = indexOf(key);
+            return index < 0 ? null : values[index];
+        }
+        
+        private Iterable keys() {
+            if (spill != null) {
+                return spill.keySet();
+            }
+            ArrayList out = new ArrayList(size);
+            for (int i=0; i<size; i++) {
+                out.add(keys[i]);
+            }
+            return out;
+        }
+        
+        private boolean isEmpty() {
+            return spill != null ? spill.isEmpty() : size == 0;
+        }
+    }
 
     public EventContext(Entity entity, Component source, ActionNode action) {
         this.entity = entity;
@@ -29,11 +124,18 @@ public class EventContext {
         this.action = action;
     }
     
+    /**
+     * Creates a copy of this context with a different action.  The extra data is shared
+     * between this context and the copy until either of them is modified.
+     * @param action The action for the copy.
+     * @return A copy of this context.
+     */
     public EventContext copyWithNewAction(ActionNode action) {
         EventContext out = new EventContext(entity, eventSource, action);
         if (extraData != null) {
-            out.extraData = new HashMap<>();
-            out.extraData.putAll(extraData);
+            out.extraData = extraData;
+            out.extraDataShared = true;
+            extraDataShared = true;
         }
         return out;
     }
@@ -87,7 +189,10 @@ public class EventContext {
     
     public void putExtra(Object key, Object val) {
         if (extraData == null) {
-            extraData = new HashMap();
+            extraData = new ExtraData();
+        } else if (extraDataShared) {
+            extraData = extraData.copy();
+            extraDataShared = false;
         }
         extraData.put(key, val);
     }
@@ -103,7 +208,7 @@ public class EventContext {
         if (extraData == null) {
             return new ArrayList();
         }
-        return extraData.keySet();
+        return extraData.keys();
     }
     
     public boolean hasExtraData() {
@@ -113,5 +218,11 @@ public class EventContext {
     private Entity entity;
     private Component eventSource;
     private ActionNode action;
-    private Map extraData;
+    private ExtraData extraData;
+    
+    /**
+     * True if {@link #extraData} may be shared with another context, and must be copied before
+     * it is modified.
+     */
+    private boolean extraDataShared;
 }
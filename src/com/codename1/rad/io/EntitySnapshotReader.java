@@ -0,0 +1,298 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.io;
+
+import com.codename1.rad.models.ContentType;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.Property;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.codename1.rad.io.EntitySnapshotWriter.*;
+
+/**
+ * Reads entities from a snapshot written by {@link EntitySnapshotWriter}.  Root entities are read lazily, one per call to
+ * {@link #next() }, so a large snapshot doesn't need to be decoded all at once.
+ *
+ * Property values are matched to the current {@link EntityType} using the property layout recorded in the snapshot (see
+ * {@link EntitySnapshotSchema}).  Values for properties that no longer exist, or whose type has changed, are skipped.
+ * Loaded entities are marked as unchanged.
+ * @author shannah
+ * @see EntitySnapshotSchema#open(java.lang.String)
+ */
+public class EntitySnapshotReader {
+    private final EntitySnapshotSchema schema;
+    private final DataInputStream in;
+    private final List<Entity> entities = new ArrayList<>();
+    private final List<TypeLayout> typeLayouts = new ArrayList<>();
+    private final List<Class> listClasses = new ArrayList<>();
+    private int pendingTag = -1;
+    private boolean closed;
+
+    /**
+     * The property layout of an entity type as it was recorded in the snapshot, mapped to the properties of
+     * the current entity type.
+     */
+    private static class TypeLayout {
+        final String name;
+        final EntityType type;
+
+        /**
+         * The current property for each ordinal in the snapshot, or null if there is no matching property.
+         */
+        final Property[] properties;
+
+        TypeLayout(String name, EntityType type, Property[] properties) {
+            this.name = name;
+            this.type = type;
+            this.properties = properties;
+        }
+    }
+
+    /**
+     * Creates a reader, and reads the snapshot header.
+     * @param schema The schema with the registered entity types.
+     * @param in The input stream.
+     * @throws IOException If the stream isn't a snapshot, or was written by a newer, incompatible version.
+     */
+    public EntitySnapshotReader(EntitySnapshotSchema schema, InputStream in) throws IOException {
+        this.schema = schema;
+        this.in = in instanceof DataInputStream ? (DataInputStream)in : new DataInputStream(in);
+        if (this.in.readInt() != EntitySnapshotSchema.MAGIC) {
+            throw new IOException("Not an entity snapshot");
+        }
+        int version = this.in.readUnsignedByte();
+        if (version > EntitySnapshotSchema.VERSION) {
+            throw new IOException("Unsupported entity snapshot version "+version);
+        }
+    }
+
+    /**
+     * Checks whether there is another root entity in the snapshot.
+     * @return
+     * @throws IOException
+     */
+    public boolean hasNext() throws IOException {
+        if (closed) {
+            return false;
+        }
+        if (pendingTag < 0) {
+            pendingTag = in.readUnsignedByte();
+        }
+        return pendingTag != V_END;
+    }
+
+    /**
+     * Reads the next root entity.
+     * @return The entity.  May be an {@link EntityList}.
+     * @throws IOException If there are no more entities, or the snapshot is malformed.
+     */
+    public Entity next() throws IOException {
+        if (!hasNext()) {
+            throw new IOException("No more entities in snapshot");
+        }
+        int tag = pendingTag;
+        pendingTag = -1;
+        Object out = readValue(tag);
+        if (out != null && !(out instanceof Entity)) {
+            throw new IOException("Expected entity in snapshot but found "+out);
+        }
+        return (Entity)out;
+    }
+
+    /**
+     * Closes the underlying stream.
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            in.close();
+        }
+    }
+
+    private Object readValue(int tag) throws IOException {
+        switch (tag) {
+            case V_NULL: return null;
+            case V_STRING:
+            case V_TEXT: return readString();
+            case V_INT: return readVarInt();
+            case V_LONG: return in.readLong();
+            case V_DOUBLE: return in.readDouble();
+            case V_FLOAT: return in.readFloat();
+            case V_TRUE: return Boolean.TRUE;
+            case V_FALSE: return Boolean.FALSE;
+            case V_DATE: return new Date(in.readLong());
+            case V_ENTITY:
+            case V_ROW: return readEntity(tag == V_ENTITY);
+            case V_LIST: return readList();
+            case V_REF: {
+                int id = readVarInt();
+                if (id < 0 || id >= entities.size()) {
+                    throw new IOException("Invalid entity reference "+id+" in snapshot");
+                }
+                return entities.get(id);
+            }
+            default:
+                throw new IOException("Invalid value tag "+tag+" in snapshot");
+        }
+    }
+
+    private Entity readEntity(boolean useEntityClass) throws IOException {
+        TypeLayout layout = readTypeRef();
+        if (layout == null) {
+            throw new IOException("Entity without type in snapshot");
+        }
+        Class cls = useEntityClass ? schema.getEntityClass(layout.name) : null;
+        Entity entity;
+        if (cls != null) {
+            entity = (Entity)newInstance(cls);
+            if (entity.getEntityType() != layout.type) {
+                entity.setEntityType(layout.type);
+            }
+        } else {
+            entity = new Entity();
+            entity.setEntityType(layout.type);
+        }
+        entities.add(entity);
+
+        int count = readVarInt();
+        for (int i=0; i<count; i++) {
+            int ordinal = readVarInt();
+            int tag = in.readUnsignedByte();
+            Object value = readValue(tag);
+            Property prop = ordinal >= 0 && ordinal < layout.properties.length ? layout.properties[ordinal] : null;
+            if (prop == null || value == null) {
+                continue;
+            }
+            ContentType type = prop.getContentType();
+            if (tag == V_TEXT && type.getRepresentationClass() != String.class) {
+                value = ContentType.convert(ContentType.Text, value, type);
+                if (value == null) {
+                    continue;
+                }
+            }
+            if (type.getRepresentationClass().isAssignableFrom(value.getClass())) {
+                prop.setValue(entity, value);
+            }
+        }
+        entity.clearChanged();
+        entity.clearChangeSet();
+        return entity;
+    }
+
+    private EntityList readList() throws IOException {
+        int ref = readVarInt();
+        Class cls = EntityList.class;
+        if (ref > 0) {
+            int index = ref-1;
+            if (index == listClasses.size()) {
+                Class registered = schema.getListClass(in.readUTF());
+                listClasses.add(registered == null ? EntityList.class : registered);
+            } else if (index > listClasses.size()) {
+                throw new IOException("Invalid list class reference "+index+" in snapshot");
+            }
+            cls = listClasses.get(index);
+        }
+        EntityList list = (EntityList)newInstance(cls);
+        entities.add(list);
+        TypeLayout rowLayout = readTypeRef();
+        if (rowLayout != null && list.getRowType() == null) {
+            list.setRowType(rowLayout.type);
+        }
+        int size = readVarInt();
+        for (int i=0; i<size; i++) {
+            Object row = readValue(in.readUnsignedByte());
+            if (row instanceof Entity) {
+                list.add((Entity)row);
+            }
+        }
+        list.clearChanged();
+        list.clearChangeSet();
+        return list;
+    }
+
+    /**
+     * Reads an entity type reference.  The first time a type is referenced, its name and property layout
+     * follow the reference.
+     * @return The type layout, or null for a null reference.
+     * @throws IOException If the snapshot refers to a type that isn't registered in the schema.
+     */
+    private TypeLayout readTypeRef() throws IOException {
+        int ref = readVarInt();
+        if (ref == 0) {
+            return null;
+        }
+        int index = ref-1;
+        if (index < typeLayouts.size()) {
+            return typeLayouts.get(index);
+        }
+        if (index > typeLayouts.size()) {
+            throw new IOException("Invalid type reference "+index+" in snapshot");
+        }
+        String name = in.readUTF();
+        EntityType type = schema.getType(name);
+        if (type == null) {
+            throw new IOException("Snapshot contains entity type "+name+" which is not registered in the snapshot schema");
+        }
+        int len = readVarInt();
+        Property[] props = new Property[len];
+        for (int i=0; i<len; i++) {
+            String key = in.readUTF();
+            if (key.length() == 0) {
+                // Unnamed properties are skipped.  Matching them by ordinal could load a value into an unrelated property.
+                continue;
+            }
+            for (Property p : type) {
+                if (key.equals(EntitySnapshotSchema.getPropertyKey(p))) {
+                    props[i] = p;
+                    break;
+                }
+            }
+        }
+        TypeLayout layout = new TypeLayout(name, type, props);
+        typeLayouts.add(layout);
+        return layout;
+    }
+
+    private Object newInstance(Class cls) throws IOException {
+        try {
+            return cls.newInstance();
+        } catch (Exception ex) {
+            throw new IOException("Failed to instantiate "+cls+".  Classes registered in a snapshot schema must have a public no-arg constructor: "+ex.getMessage());
+        }
+    }
+
+    private String readString() throws IOException {
+        int len = readVarInt();
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    private int readVarInt() throws IOException {
+        int v = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.readUnsignedByte();
+            v |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+            if (shift > 28) {
+                throw new IOException("Malformed varint in snapshot");
+            }
+        }
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
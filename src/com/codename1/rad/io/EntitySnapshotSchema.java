@@ -0,0 +1,186 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.io;
+
+import com.codename1.io.Storage;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.Property;
+import com.codename1.rad.models.Property.Name;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of the entity types and classes that can be stored in a binary entity snapshot.  Snapshots are written by
+ * {@link EntitySnapshotWriter} and read back by {@link EntitySnapshotReader}.
+ *
+ * Every entity type that appears in a snapshot must be registered with a stable name, since the snapshot refers to types
+ * by name rather than by class.  Properties are written by ordinal (their index in the {@link EntityType}), and each type's
+ * property layout is recorded in the snapshot.  Properties with a {@link Name} attribute are matched by name when
+ * the snapshot is loaded, so those properties may be reordered, added or removed between app versions.  Properties without
+ * a name can't be matched safely across versions, so they aren't saved.
+ *
+ * == Example
+ *
+ * [source,java]
+ * ----
+ * EntitySnapshotSchema schema = new EntitySnapshotSchema();
+ * schema.register("Contact", Contact.TYPE, Contact.class);
+ * schema.registerList("Contacts", Contacts.class);
+ *
+ * // Save
+ * schema.save("contacts.snapshot", contacts);
+ *
+ * // Load lazily
+ * EntitySnapshotReader reader = schema.open("contacts.snapshot");
+ * try {
+ *     while (reader.hasNext()) {
+ *         Contacts loaded = (Contacts)reader.next();
+ *     }
+ * } finally {
+ *     reader.close();
+ * }
+ * ----
+ * @author shannah
+ */
+public class EntitySnapshotSchema {
+
+    /**
+     * Magic number at the start of every snapshot.
+     */
+    static final int MAGIC = 0x52414453;
+
+    /**
+     * The snapshot format version written by this version of the library.
+     */
+    static final int VERSION = 1;
+
+    private final Map<String,EntityType> types = new HashMap<>();
+    private final Map<EntityType,String> typeNames = new HashMap<>();
+    private final Map<String,Class> entityClasses = new HashMap<>();
+    private final Map<String,Class> listClasses = new HashMap<>();
+    private final Map<Class,String> listNames = new HashMap<>();
+
+    /**
+     * Registers an entity type whose entities are plain {@link Entity} objects.
+     * @param name A stable name for the type.
+     * @param type The entity type.
+     */
+    public void register(String name, EntityType type) {
+        register(name, type, null);
+    }
+
+    /**
+     * Registers an entity type along with the entity class that should be instantiated for it when a snapshot is
+     * loaded.
+     * @param name A stable name for the type.
+     * @param type The entity type.
+     * @param cls The entity class.  Must have a public no-arg constructor.  May be null to use a plain {@link Entity}.
+     */
+    public void register(String name, EntityType type, Class<? extends Entity> cls) {
+        types.put(name, type);
+        typeNames.put(type, name);
+        if (cls != null) {
+            entityClasses.put(name, cls);
+        }
+    }
+
+    /**
+     * Registers an {@link EntityList} subclass.  Lists whose class isn't registered are loaded as plain {@link EntityList}
+     * objects.
+     * @param name A stable name for the list class.
+     * @param cls The list class.  Must have a public no-arg constructor.
+     */
+    public void registerList(String name, Class<? extends EntityList> cls) {
+        listClasses.put(name, cls);
+        listNames.put(cls, name);
+    }
+
+    String getTypeName(EntityType type) {
+        return typeNames.get(type);
+    }
+
+    EntityType getType(String name) {
+        return types.get(name);
+    }
+
+    Class getEntityClass(String name) {
+        return entityClasses.get(name);
+    }
+
+    String getListName(Class cls) {
+        return listNames.get(cls);
+    }
+
+    Class getListClass(String name) {
+        return listClasses.get(name);
+    }
+
+    /**
+     * Gets the key that identifies a property in the snapshot's type layout.
+     * @param prop The property.
+     * @return The property's name, or an empty string if it doesn't have a {@link Name} attribute.
+     */
+    static String getPropertyKey(Property prop) {
+        Name name = (Name)prop.getAttribute(Name.class);
+        return name == null ? "" : name.getValue();
+    }
+
+    /**
+     * Saves the given entities to {@link Storage} as a snapshot.
+     * @param storageName The storage entry name.
+     * @param entities The root entities to save.
+     * @throws IOException
+     */
+    public void save(String storageName, Iterable<? extends Entity> entities) throws IOException {
+        OutputStream out = Storage.getInstance().createOutputStream(storageName);
+        EntitySnapshotWriter writer = new EntitySnapshotWriter(this, new BufferedOutputStream(out));
+        try {
+            for (Entity e : entities) {
+                writer.write(e);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Saves a single entity (e.g. an {@link EntityList}) to {@link Storage} as a snapshot.
+     * @param storageName The storage entry name.
+     * @param entity The root entity to save.
+     * @throws IOException
+     */
+    public void save(String storageName, Entity entity) throws IOException {
+        OutputStream out = Storage.getInstance().createOutputStream(storageName);
+        EntitySnapshotWriter writer = new EntitySnapshotWriter(this, new BufferedOutputStream(out));
+        try {
+            writer.write(entity);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Opens a snapshot from {@link Storage} for reading.  Root entities are read one at a time as
+     * {@link EntitySnapshotReader#next() } is called.  The reader should be closed when finished.
+     * @param storageName The storage entry name.
+     * @return The reader.
+     * @throws IOException If the entry doesn't exist, or isn't a snapshot.
+     */
+    public EntitySnapshotReader open(String storageName) throws IOException {
+        InputStream in = Storage.getInstance().createInputStream(storageName);
+        if (in == null) {
+            throw new IOException("No snapshot found in storage with name "+storageName);
+        }
+        return new EntitySnapshotReader(this, new BufferedInputStream(in));
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.io;
+
+import com.codename1.rad.models.ContentType;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.Property;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes entities in a compact, versioned binary snapshot format.  The format is driven by {@link EntityType} metadata:
+ * each entity type's property layout is written once, the first time the type appears, and after that each property
+ * value is written as its ordinal followed by a typed value.
+ *
+ * Nested {@link Entity} and {@link EntityList} values are written inline.  An entity that is reachable more than
+ * once (including through a cycle) is only written the first time.  Later occurrences are written as back-references, so
+ * shared references and cycles are preserved when the snapshot is loaded by {@link EntitySnapshotReader}.
+ *
+ * Root entities are written one at a time with {@link #write(com.codename1.rad.models.Entity) }.  Back-references
+ * may span root entities.  The writer must be closed to terminate the snapshot.
+ * @author shannah
+ * @see EntitySnapshotSchema
+ */
+public class EntitySnapshotWriter {
+    static final int V_END = 0;
+    static final int V_NULL = 1;
+    static final int V_STRING = 2;
+    static final int V_INT = 3;
+    static final int V_LONG = 4;
+    static final int V_DOUBLE = 5;
+    static final int V_FLOAT = 6;
+    static final int V_TRUE = 7;
+    static final int V_FALSE = 8;
+    static final int V_DATE = 9;
+    static final int V_TEXT = 10;
+    static final int V_ENTITY = 11;
+    static final int V_ROW = 12;
+    static final int V_LIST = 13;
+    static final int V_REF = 14;
+
+    private final EntitySnapshotSchema schema;
+    private final DataOutputStream out;
+    private final Map<Entity,Integer> ids = new HashMap<>();
+    private final Map<EntityType,Integer> typeRefs = new HashMap<>();
+    private final Map<Class,Integer> listRefs = new HashMap<>();
+    private boolean closed;
+
+    /**
+     * Creates a writer, and writes the snapshot header.
+     * @param schema The schema with the registered entity types.
+     * @param out The output stream.
+     * @throws IOException
+     */
+    public EntitySnapshotWriter(EntitySnapshotSchema schema, OutputStream out) throws IOException {
+        this.schema = schema;
+        this.out = out instanceof DataOutputStream ? (DataOutputStream)out : new DataOutputStream(out);
+        this.out.writeInt(EntitySnapshotSchema.MAGIC);
+        this.out.writeByte(EntitySnapshotSchema.VERSION);
+    }
+
+    /**
+     * Writes a root entity.
+     * @param entity The entity.  May be an {@link EntityList}.
+     * @throws IOException If the entity, or an entity reachable from it, has a type that isn't registered in the schema.
+     */
+    public void write(Entity entity) throws IOException {
+        if (closed) {
+            throw new IOException("Snapshot writer is closed");
+        }
+        writeEntity(entity);
+    }
+
+    /**
+     * Terminates the snapshot and closes the output stream.
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.writeByte(V_END);
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeEntity(Entity entity) throws IOException {
+        if (entity == null) {
+            out.writeByte(V_NULL);
+            return;
+        }
+        Integer id = ids.get(entity);
+        if (id != null) {
+            out.writeByte(V_REF);
+            writeVarInt(id);
+            return;
+        }
+        ids.put(entity, ids.size());
+        if (entity instanceof EntityList) {
+            writeList((EntityList)entity);
+            return;
+        }
+        EntityType type = entity.getEntityType();
+        String name = type == null ? null : schema.getTypeName(type);
+        if (name == null) {
+            throw new IOException("Cannot write entity "+entity+" because its entity type is not registered in the snapshot schema");
+        }
+        Class cls = schema.getEntityClass(name);
+        out.writeByte(cls != null && cls == entity.getClass() ? V_ENTITY : V_ROW);
+        writeTypeRef(type);
+
+        int len = type.size();
+        int count = 0;
+        for (int i=0; i<len; i++) {
+            if (isSaved(type.getPropertyAt(i), entity)) {
+                count++;
+            }
+        }
+        writeVarInt(count);
+        for (int i=0; i<len; i++) {
+            Property prop = type.getPropertyAt(i);
+            if (!isSaved(prop, entity)) {
+                continue;
+            }
+            Object value = prop.getValue(entity);
+            writeVarInt(i);
+            writeValue(prop.getContentType(), value);
+        }
+    }
+
+    /**
+     * Checks whether a property value is written to the snapshot.  Null values are skipped, as are properties without a
+     * name, since the reader has no reliable way to match them to a property of the current entity type.
+     */
+    private static boolean isSaved(Property prop, Entity entity) {
+        return EntitySnapshotSchema.getPropertyKey(prop).length() > 0 && prop.getValue(entity) != null;
+    }
+
+    private void writeList(EntityList list) throws IOException {
+        out.writeByte(V_LIST);
+        Class cls = list.getClass();
+        if (cls == EntityList.class) {
+            writeVarInt(0);
+        } else {
+            Integer ref = listRefs.get(cls);
+            if (ref != null) {
+                writeVarInt(ref+1);
+            } else {
+                String name = schema.getListName(cls);
+                if (name == null) {
+                    throw new IOException("Cannot write list "+list+" because its class "+cls+" is not registered in the snapshot schema");
+                }
+                ref = listRefs.size();
+                listRefs.put(cls, ref);
+                writeVarInt(ref+1);
+                out.writeUTF(name);
+            }
+        }
+        EntityType rowType = list.getRowType();
+        if (rowType != null && schema.getTypeName(rowType) == null) {
+            rowType = null;
+        }
+        writeTypeRef(rowType);
+        int size = list.size();
+        writeVarInt(size);
+        for (int i=0; i<size; i++) {
+            writeEntity(list.get(i));
+        }
+    }
+
+    /**
+     * Writes a reference to an entity type.  The first time a type is written, its name and property layout
+     * follow the reference.
+     * @param type The type, or null.
+     * @throws IOException
+     */
+    private void writeTypeRef(EntityType type) throws IOException {
+        if (type == null) {
+            writeVarInt(0);
+            return;
+        }
+        Integer ref = typeRefs.get(type);
+        if (ref != null) {
+            writeVarInt(ref+1);
+            return;
+        }
+        ref = typeRefs.size();
+        typeRefs.put(type, ref);
+        writeVarInt(ref+1);
+        out.writeUTF(schema.getTypeName(type));
+        int len = type.size();
+        writeVarInt(len);
+        for (int i=0; i<len; i++) {
+            out.writeUTF(EntitySnapshotSchema.getPropertyKey(type.getPropertyAt(i)));
+        }
+    }
+
+    private void writeValue(ContentType type, Object value) throws IOException {
+        if (value instanceof Entity) {
+            writeEntity((Entity)value);
+        } else if (value instanceof String) {
+            out.writeByte(V_STRING);
+            writeString((String)value);
+        } else if (value instanceof Integer) {
+            out.writeByte(V_INT);
+            writeVarInt((Integer)value);
+        } else if (value instanceof Long) {
+            out.writeByte(V_LONG);
+            out.writeLong((Long)value);
+        } else if (value instanceof Double) {
+            out.writeByte(V_DOUBLE);
+            out.writeDouble((Double)value);
+        } else if (value instanceof Float) {
+            out.writeByte(V_FLOAT);
+            out.writeFloat((Float)value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(((Boolean)value) ? V_TRUE : V_FALSE);
+        } else if (value instanceof Date) {
+            out.writeByte(V_DATE);
+            out.writeLong(((Date)value).getTime());
+        } else if (type.canConvertTo(ContentType.Text) || ContentType.Text.canConvertFrom(type)) {
+            out.writeByte(V_TEXT);
+            writeString((String)ContentType.convert(type, value, ContentType.Text));
+        } else {
+            out.writeByte(V_NULL);
+        }
+    }
+
+    /**
+     * Writes a string as a length-prefixed UTF-8 byte sequence.  Unlike {@link DataOutputStream#writeUTF(java.lang.String) },
+     * this isn't limited to 64K.
+     * @param str The string.
+     * @throws IOException
+     */
+    private void writeString(String str) throws IOException {
+        byte[] bytes = str.getBytes("UTF-8");
+        writeVarInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Writes an int using a variable-length encoding, 7 bits per byte.  Negative values are zigzag-encoded so
+     * that small negative values remain compact.
+     * @param value The value.
+     * @throws IOException
+     */
+    private void writeVarInt(int value) throws IOException {
+        int v = (value << 1) ^ (value >> 31);
+        while ((v & ~0x7f) != 0) {
+            out.writeByte((v & 0x7f) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+}
@@ -0,0 +1,746 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.io;
+
+import com.codename1.io.FileSystemStorage;
+import com.codename1.io.Util;
+import com.codename1.rad.models.ChangeSet;
+import com.codename1.rad.models.ContentType;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.Property;
+import com.codename1.rad.models.Property.Name;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.codename1.rad.io.EntitySnapshotWriter.*;
+
+/**
+ * An append-only local store for entities of a single {@link EntityType}, backed by a log file in {@link FileSystemStorage}.
+ *
+ * Saving an entity that was read from, or already saved to, the store appends a record with only the properties in the
+ * entity's change set (see {@link Entity#getChangeSet() }), so the file is never rewritten on a normal save.  The store
+ * doesn't clear the change set, since other consumers (e.g. a sync layer) may also need it.  Call {@link Entity#clearChangeSet() }
+ * once all of them have processed the changes.  The store keeps an in-memory index from primary key to the log records for
+ * that key, and entities are only read from the log ("rehydrated") when they are requested with {@link #get(java.lang.String) }.
+ *
+ * As records for the same entity accumulate, the log is compacted: it is rewritten with a single record per live entity.
+ * Compaction happens automatically once the log holds more than {@link #setCompactionThreshold(int) } obsolete
+ * records, and can also be requested with {@link #compact() }.
+ *
+ * Each record is checksummed.  If the app is killed while a record is being written, the partial record is detected
+ * when the store is opened, and the log is compacted to drop it.
+ *
+ * Only scalar properties (strings, numbers, booleans, dates, and types that can be converted to text) are stored.  Entity
+ * and list properties are not.  Properties are stored by their {@link Name}, so that the log stays readable when properties
+ * are added to or removed from the entity type.  Every stored property must therefore have a {@link Name} attribute.  Use an
+ * {@link EntitySnapshotSchema} to persist whole entity graphs.
+ *
+ * == Example
+ *
+ * [source,java]
+ * ----
+ * String path = FileSystemStorage.getInstance().getAppHomePath() + "contacts.log";
+ * EntityStore store = new EntityStore(path, Contact.TYPE, Contact.class, Contact.id);
+ * store.open();
+ *
+ * Contact c = (Contact)store.get("123");
+ * c.set(Contact.name, "Steve");
+ * store.put(c);  // Appends only the name property
+ * ----
+ * @author shannah
+ */
+public class EntityStore {
+    /**
+     * A record with all of an entity's properties.  Replaces any earlier records for the key.
+     */
+    private static final int OP_PUT = 1;
+
+    /**
+     * A record with only the changed properties of an entity.  Applied on top of the earlier records for the key.
+     */
+    private static final int OP_UPDATE = 2;
+    private static final int OP_DELETE = 3;
+
+    /**
+     * Size of the record header (payload length and checksum).
+     */
+    private static final int HEADER_SIZE = 8;
+
+    private final String path;
+    private final EntityType type;
+    private final Class<? extends Entity> entityClass;
+    private final Property primaryKey;
+    private final Map<String,Property> propertiesByKey = new HashMap<>();
+
+    /**
+     * The properties that are stored, i.e. the ones that aren't entities or lists.
+     */
+    private final Property[] storedProperties;
+
+    /**
+     * Maps each live primary key to the offsets of its records in the log, oldest first.
+     */
+    private final Map<String,List<Long>> index = new HashMap<>();
+
+    /**
+     * Entities that have been rehydrated or saved.
+     */
+    private final Map<String,Entity> loaded = new HashMap<>();
+
+    private long logLength;
+    private int recordCount;
+    private int compactionThreshold = 1000;
+    private boolean open;
+
+    /**
+     * Creates a store.
+     * @param path The path of the log file in {@link FileSystemStorage}.
+     * @param type The entity type of entities in the store.
+     * @param entityClass The entity class to instantiate when rehydrating entities.  Must have a public no-arg constructor.  May be
+     * null to use plain {@link Entity} objects.
+     * @param primaryKey The property that uniquely identifies each entity.
+     * @throws IllegalArgumentException If a stored property of the entity type doesn't have a {@link Name} attribute.
+     */
+    public EntityStore(String path, EntityType type, Class<? extends Entity> entityClass, Property primaryKey) {
+        this.path = path;
+        this.type = type;
+        this.entityClass = entityClass;
+        this.primaryKey = primaryKey;
+        List<Property> stored = new ArrayList<>();
+        for (Property p : type) {
+            if (!isStored(p)) {
+                continue;
+            }
+            String key = getPropertyKey(p);
+            if (key == null) {
+                throw new IllegalArgumentException("Property "+p+" of entity type "+type+" does not have a Name attribute.  "
+                        + "Properties are stored by name, so all scalar properties of an entity type used in an entity store must be named.");
+            }
+            propertiesByKey.put(key, p);
+            stored.add(p);
+        }
+        if (!stored.contains(primaryKey)) {
+            throw new IllegalArgumentException("The primary key of an entity store must be a scalar property of its entity type");
+        }
+        storedProperties = stored.toArray(new Property[stored.size()]);
+    }
+
+    private static boolean isStored(Property prop) {
+        ContentType ctype = prop.getContentType();
+        return !ctype.isEntity() && !ctype.isEntityList();
+    }
+
+    /**
+     * Sets the number of obsolete records that the log may contain before it is automatically compacted.
+     * @param threshold The threshold.  Default is 1000.
+     */
+    public void setCompactionThreshold(int threshold) {
+        this.compactionThreshold = threshold;
+    }
+
+    /**
+     * Gets the number of obsolete records that the log may contain before it is automatically compacted.
+     * @return
+     */
+    public int getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Opens the store, reading the index from the log.  Entities themselves are not loaded until they are requested.  If
+     * the log ends with a partially written record, the log is compacted to remove it.
+     * @throws IOException
+     */
+    public synchronized void open() throws IOException {
+        FileSystemStorage fs = FileSystemStorage.getInstance();
+        String tmp = path + ".compact";
+        if (!fs.exists(path) && fs.exists(tmp)) {
+            // Crashed after the old log was deleted during compaction, but before the new log was renamed.
+            fs.rename(tmp, getFileName(path));
+        } else if (fs.exists(tmp)) {
+            fs.delete(tmp);
+        }
+        index.clear();
+        loaded.clear();
+        logLength = 0;
+        recordCount = 0;
+        open = true;
+        if (!fs.exists(path)) {
+            return;
+        }
+        boolean corrupt = false;
+        long fileLength = fs.getLength(path);
+        DataInputStream in = new DataInputStream(fs.openInputStream(path));
+        try {
+            while (true) {
+                int first = in.read();
+                if (first < 0) {
+                    break;
+                }
+                int len;
+                byte[] payload;
+                try {
+                    len = (first << 24) | (in.readUnsignedByte() << 16) | (in.readUnsignedByte() << 8) | in.readUnsignedByte();
+                    int checksum = in.readInt();
+                    if (len < 0 || len > fileLength - logLength - HEADER_SIZE) {
+                        // Torn length field.  Don't trust it for allocation.
+                        corrupt = true;
+                        break;
+                    }
+                    payload = new byte[len];
+                    in.readFully(payload);
+                    if (checksum(payload) != checksum) {
+                        corrupt = true;
+                        break;
+                    }
+                } catch (EOFException eof) {
+                    corrupt = true;
+                    break;
+                }
+                DataInputStream rec = new DataInputStream(new ByteArrayInputStream(payload));
+                int op = rec.readUnsignedByte();
+                String key = rec.readUTF();
+                indexRecord(op, key, logLength);
+                logLength += HEADER_SIZE + len;
+            }
+        } finally {
+            Util.cleanup(in);
+        }
+        if (corrupt) {
+            compact();
+        }
+    }
+
+    /**
+     * Closes the store.
+     */
+    public synchronized void close() {
+        open = false;
+        index.clear();
+        loaded.clear();
+    }
+
+    private void checkOpen() throws IOException {
+        if (!open) {
+            throw new IOException("Entity store "+path+" is not open");
+        }
+    }
+
+    private void indexRecord(int op, String key, long offset) {
+        recordCount++;
+        if (op == OP_DELETE) {
+            index.remove(key);
+            return;
+        }
+        List<Long> offsets = index.get(key);
+        if (offsets == null || op == OP_PUT) {
+            offsets = new ArrayList<>();
+            index.put(key, offsets);
+        }
+        offsets.add(offset);
+    }
+
+    /**
+     * Gets the primary keys of all entities in the store.
+     * @return A copy of the set of keys.
+     */
+    public synchronized Set<String> keys() {
+        return new HashSet<String>(index.keySet());
+    }
+
+    /**
+     * Gets the number of entities in the store.
+     * @return
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Checks whether the store contains an entity with the given primary key.
+     * @param key The primary key.
+     * @return
+     */
+    public synchronized boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Gets the entity with the given primary key, reading it from the log if it hasn't been loaded yet.
+     * @param key The primary key.
+     * @return The entity, or null if the store doesn't contain it.
+     * @throws IOException
+     */
+    public synchronized Entity get(String key) throws IOException {
+        checkOpen();
+        Entity out = loaded.get(key);
+        if (out != null) {
+            return out;
+        }
+        List<Long> offsets = index.get(key);
+        if (offsets == null) {
+            return null;
+        }
+        out = rehydrate(key);
+        loaded.put(key, out);
+        return out;
+    }
+
+    /**
+     * Saves an entity.  If the entity is the one that was last read from, or saved to, the store for its key, only the
+     * properties in its change set are written.  Otherwise all of its properties are written, replacing the saved entity.
+     * The entity's change set isn't cleared.
+     * @param entity The entity.
+     * @throws IOException
+     */
+    public synchronized void put(Entity entity) throws IOException {
+        checkOpen();
+        String key = getKey(entity);
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot store entity "+entity+" without a primary key");
+        }
+        boolean update = index.containsKey(key) && loaded.get(key) == entity;
+        int op = update ? OP_UPDATE : OP_PUT;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(op);
+        out.writeUTF(key);
+        if (update) {
+            ChangeSet changes = entity.getChangeSet();
+            int len = changes.size();
+            int count = 0;
+            for (int i=0; i<len; i++) {
+                if (isStored(changes.getProperty(i))) {
+                    count++;
+                }
+            }
+            if (count == 0) {
+                return;
+            }
+            out.writeInt(count);
+            for (int i=0; i<len; i++) {
+                Property prop = changes.getProperty(i);
+                if (isStored(prop)) {
+                    writeProperty(out, prop, toStoredValue(prop, changes.getValue(i)));
+                }
+            }
+        } else {
+            writeAll(out, getStoredValues(entity));
+        }
+        out.flush();
+        append(op, key, bytes.toByteArray());
+        loaded.put(key, entity);
+        maybeCompact();
+    }
+
+    private void writeAll(DataOutputStream out, Object[] values) throws IOException {
+        int len = values.length;
+        int count = 0;
+        for (int i=0; i<len; i++) {
+            if (values[i] != null) {
+                count++;
+            }
+        }
+        out.writeInt(count);
+        for (int i=0; i<len; i++) {
+            if (values[i] != null) {
+                writeProperty(out, storedProperties[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Gets the values of the stored properties of an entity, in the form that they are written to the log.
+     * @param entity The entity.
+     * @return
+     */
+    private Object[] getStoredValues(Entity entity) {
+        int len = storedProperties.length;
+        Object[] out = new Object[len];
+        for (int i=0; i<len; i++) {
+            out[i] = toStoredValue(storedProperties[i], storedProperties[i].getValue(entity));
+        }
+        return out;
+    }
+
+    private static Object toStoredValue(Property prop, Object value) {
+        if (value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Double || value instanceof Float || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Date) {
+            return value;
+        }
+        if (!(value instanceof Entity) && prop.getContentType().canConvertTo(ContentType.Text)) {
+            return ContentType.convert(prop.getContentType(), value, ContentType.Text);
+        }
+        // Entities and other non-scalar values are not stored.
+        return null;
+    }
+
+    /**
+     * Removes the entity with the given primary key.
+     * @param key The primary key.
+     * @throws IOException
+     */
+    public synchronized void remove(String key) throws IOException {
+        checkOpen();
+        if (!index.containsKey(key)) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(OP_DELETE);
+        out.writeUTF(key);
+        out.flush();
+        append(OP_DELETE, key, bytes.toByteArray());
+        loaded.remove(key);
+        maybeCompact();
+    }
+
+    /**
+     * Rewrites the log with a single record per entity, dropping obsolete and removed records.  The log is read once,
+     * and the records for each key are folded together.  The saved values are used rather than loaded entities, which
+     * may have unsaved changes.
+     * @throws IOException
+     */
+    public synchronized void compact() throws IOException {
+        checkOpen();
+        FileSystemStorage fs = FileSystemStorage.getInstance();
+        String tmp = path + ".compact";
+
+        // Maps each live key to its property values, each of which is a {tag, value} pair keyed by property name.
+        Map<String,Map<String,Object[]>> rows = new HashMap<>();
+        if (fs.exists(path)) {
+            DataInputStream in = new DataInputStream(fs.openInputStream(path));
+            try {
+                long pos = 0;
+                // Only the records up to logLength are valid.  Anything after it is a torn record.
+                while (pos < logLength) {
+                    int len = in.readInt();
+                    in.readInt();
+                    byte[] payload = new byte[len];
+                    in.readFully(payload);
+                    pos += HEADER_SIZE + len;
+                    foldRecord(rows, payload);
+                }
+            } finally {
+                Util.cleanup(in);
+            }
+        }
+
+        Map<String,List<Long>> newIndex = new HashMap<>();
+        long newLength = 0;
+        DataOutputStream out = new DataOutputStream(fs.openOutputStream(tmp));
+        try {
+            for (Map.Entry<String,Map<String,Object[]>> e : rows.entrySet()) {
+                String key = e.getKey();
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream rec = new DataOutputStream(bytes);
+                rec.writeByte(OP_PUT);
+                rec.writeUTF(key);
+                rec.writeInt(e.getValue().size());
+                for (Map.Entry<String,Object[]> value : e.getValue().entrySet()) {
+                    rec.writeUTF(value.getKey());
+                    int tag = (Integer)value.getValue()[0];
+                    rec.writeByte(tag);
+                    writeValue(rec, tag, value.getValue()[1]);
+                }
+                rec.flush();
+                byte[] payload = bytes.toByteArray();
+                writeRecord(out, payload);
+                List<Long> offsets = new ArrayList<>();
+                offsets.add(newLength);
+                newIndex.put(key, offsets);
+                newLength += HEADER_SIZE + payload.length;
+            }
+        } finally {
+            Util.cleanup(out);
+        }
+        if (fs.exists(path)) {
+            fs.delete(path);
+        }
+        fs.rename(tmp, getFileName(path));
+        index.clear();
+        index.putAll(newIndex);
+        logLength = newLength;
+        recordCount = newIndex.size();
+    }
+
+    /**
+     * Applies a log record to the values being collected by {@link #compact() }.
+     * @param rows The values of each live key.
+     * @param payload The record payload.
+     * @throws IOException
+     */
+    private static void foldRecord(Map<String,Map<String,Object[]>> rows, byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int op = in.readUnsignedByte();
+        String key = in.readUTF();
+        if (op == OP_DELETE) {
+            rows.remove(key);
+            return;
+        }
+        Map<String,Object[]> values = rows.get(key);
+        if (values == null || op == OP_PUT) {
+            values = new HashMap<>();
+            rows.put(key, values);
+        }
+        int count = in.readInt();
+        for (int i=0; i<count; i++) {
+            String name = in.readUTF();
+            int tag = in.readUnsignedByte();
+            Object value = readValue(in, tag);
+            if (value == null) {
+                values.remove(name);
+            } else {
+                values.put(name, new Object[]{tag, value});
+            }
+        }
+    }
+
+    private void maybeCompact() throws IOException {
+        if (recordCount - index.size() > compactionThreshold) {
+            compact();
+        }
+    }
+
+    private void append(int op, String key, byte[] payload) throws IOException {
+        FileSystemStorage fs = FileSystemStorage.getInstance();
+        OutputStream os = fs.exists(path) ? fs.openOutputStream(path, (int)logLength) : fs.openOutputStream(path);
+        DataOutputStream out = new DataOutputStream(os);
+        try {
+            writeRecord(out, payload);
+        } finally {
+            Util.cleanup(out);
+        }
+        indexRecord(op, key, logLength);
+        logLength += HEADER_SIZE + payload.length;
+    }
+
+    private static void writeRecord(DataOutputStream out, byte[] payload) throws IOException {
+        out.writeInt(payload.length);
+        out.writeInt(checksum(payload));
+        out.write(payload);
+        out.flush();
+    }
+
+    /**
+     * Reads the entity with the given key from the log.
+     * @param key The primary key.  Must be in the index.
+     * @return A new entity.
+     * @throws IOException
+     */
+    private Entity rehydrate(String key) throws IOException {
+        List<Long> offsets = index.get(key);
+        Entity entity;
+        if (entityClass != null) {
+            try {
+                entity = entityClass.newInstance();
+            } catch (Exception ex) {
+                throw new IOException("Failed to instantiate "+entityClass+".  Entity classes used in an entity store must have a public no-arg constructor: "+ex.getMessage());
+            }
+        } else {
+            entity = new Entity();
+        }
+        if (entity.getEntityType() != type) {
+            entity.setEntityType(type);
+        }
+        DataInputStream in = new DataInputStream(FileSystemStorage.getInstance().openInputStream(path));
+        try {
+            long pos = 0;
+            for (Long offset : offsets) {
+                skipFully(in, offset - pos);
+                int len = in.readInt();
+                in.readInt();
+                byte[] payload = new byte[len];
+                in.readFully(payload);
+                pos = offset + HEADER_SIZE + len;
+                applyRecord(entity, payload);
+            }
+        } finally {
+            Util.cleanup(in);
+        }
+        entity.clearChanged();
+        entity.clearChangeSet();
+        return entity;
+    }
+
+    private void applyRecord(Entity entity, byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        in.readUnsignedByte();
+        in.readUTF();
+        int count = in.readInt();
+        for (int i=0; i<count; i++) {
+            Property prop = propertiesByKey.get(in.readUTF());
+            int tag = in.readUnsignedByte();
+            Object value = readValue(in, tag);
+            if (prop == null) {
+                continue;
+            }
+            ContentType ctype = prop.getContentType();
+            if (tag == V_TEXT && value != null && ctype.getRepresentationClass() != String.class) {
+                value = ContentType.convert(ContentType.Text, value, ctype);
+            }
+            if (value == null || ctype.getRepresentationClass().isAssignableFrom(value.getClass())) {
+                prop.setValue(entity, value);
+            }
+        }
+    }
+
+    private static void skipFully(InputStream in, long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+
+    private String getKey(Entity entity) {
+        Object value = primaryKey.getValue(entity);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String) {
+            return (String)value;
+        }
+        ContentType ctype = primaryKey.getContentType();
+        if (ctype.canConvertTo(ContentType.Text)) {
+            return (String)ContentType.convert(ctype, value, ContentType.Text);
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Gets the key that identifies a property in the log.
+     * @param prop The property.
+     * @return The property's name, or null if it doesn't have a {@link Name} attribute.
+     */
+    private static String getPropertyKey(Property prop) {
+        Name name = (Name)prop.getAttribute(Name.class);
+        return name == null ? null : name.getValue();
+    }
+
+    /**
+     * Writes a property value.
+     * @param out The output stream.
+     * @param prop The property.
+     * @param value The value, as returned by {@link #toStoredValue(com.codename1.rad.models.Property, java.lang.Object) }.
+     * @throws IOException
+     */
+    private void writeProperty(DataOutputStream out, Property prop, Object value) throws IOException {
+        out.writeUTF(getPropertyKey(prop));
+        int tag;
+        if (value == null) {
+            tag = V_NULL;
+        } else if (value instanceof String) {
+            tag = prop.getContentType().getRepresentationClass() == String.class ? V_STRING : V_TEXT;
+        } else if (value instanceof Integer) {
+            tag = V_INT;
+        } else if (value instanceof Long) {
+            tag = V_LONG;
+        } else if (value instanceof Double) {
+            tag = V_DOUBLE;
+        } else if (value instanceof Float) {
+            tag = V_FLOAT;
+        } else if (value instanceof Boolean) {
+            tag = ((Boolean)value) ? V_TRUE : V_FALSE;
+        } else if (value instanceof Date) {
+            tag = V_DATE;
+        } else {
+            tag = V_NULL;
+        }
+        out.writeByte(tag);
+        writeValue(out, tag, value);
+    }
+
+    /**
+     * Writes a value after its tag.
+     * @param out The output stream.
+     * @param tag The tag.
+     * @param value The value.
+     * @throws IOException
+     */
+    private static void writeValue(DataOutputStream out, int tag, Object value) throws IOException {
+        switch (tag) {
+            case V_STRING:
+            case V_TEXT: writeString(out, (String)value); break;
+            case V_INT: out.writeInt((Integer)value); break;
+            case V_LONG: out.writeLong((Long)value); break;
+            case V_DOUBLE: out.writeDouble((Double)value); break;
+            case V_FLOAT: out.writeFloat((Float)value); break;
+            case V_DATE: out.writeLong(((Date)value).getTime()); break;
+            default: break;
+        }
+    }
+
+    private static Object readValue(DataInputStream in, int tag) throws IOException {
+        switch (tag) {
+            case V_NULL: return null;
+            case V_STRING:
+            case V_TEXT: return readString(in);
+            case V_INT: return in.readInt();
+            case V_LONG: return in.readLong();
+            case V_DOUBLE: return in.readDouble();
+            case V_FLOAT: return in.readFloat();
+            case V_TRUE: return Boolean.TRUE;
+            case V_FALSE: return Boolean.FALSE;
+            case V_DATE: return new Date(in.readLong());
+            default:
+                throw new IOException("Invalid value tag "+tag+" in entity store");
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] bytes = str.getBytes("UTF-8");
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    /**
+     * Computes a 32-bit FNV-1a hash of the payload, used to detect partially written records.
+     * @param bytes The payload.
+     * @return
+     */
+    private static int checksum(byte[] bytes) {
+        int h = 0x811c9dc5;
+        for (byte b : bytes) {
+            h ^= (b & 0xff);
+            h *= 0x01000193;
+        }
+        return h;
+    }
+
+    private static String getFileName(String path) {
+        int pos = path.lastIndexOf('/');
+        return pos < 0 ? path : path.substring(pos+1);
+    }
+}
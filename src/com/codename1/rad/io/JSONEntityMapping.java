@@ -0,0 +1,134 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.io;
+
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.Property;
+import com.codename1.rad.models.Property.Name;
+import com.codename1.rad.models.Tag;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for {@link JSONEntityReader} and {@link JSONEntityWriter} which defines how JSON keys map to the properties
+ * of an {@link EntityType}.
+ *
+ * A property is mapped to a JSON key if:
+ *
+ * . It has a {@link Name} attribute.  E.g. `string(new Name("firstName"), tags(Person.givenName))`.  The key is the name.
+ * . It has a tag that was registered using {@link #key(java.lang.String, com.codename1.rad.models.Tag) }.  E.g. `mapping.key("id", Thing.identifier)`.
+ *
+ * Properties that aren't mapped to a key are ignored.  The key index for each entity type is computed once, and cached
+ * by the mapping (except for dynamic entity types, whose properties may change).
+ * @author shannah
+ */
+public abstract class JSONEntityMapping {
+    private final List<String> tagKeys = new ArrayList<>();
+    private final List<Tag> tags = new ArrayList<>();
+    private final Map<EntityType,Class> entityClasses = new HashMap<>();
+    private final Map<Class,Class> rowClasses = new HashMap<>();
+    private final Map<EntityType,KeyIndex> keyIndexes = new HashMap<>();
+
+    /**
+     * The mapping between JSON keys and properties for a single entity type.
+     */
+    static class KeyIndex {
+        final Map<String,Property> propertiesByKey = new HashMap<>();
+        final Property[] properties;
+        final String[] keys;
+
+        KeyIndex(Property[] properties, String[] keys) {
+            this.properties = properties;
+            this.keys = keys;
+            int len = properties.length;
+            for (int i=0; i<len; i++) {
+                propertiesByKey.put(keys[i], properties[i]);
+            }
+        }
+    }
+
+    /**
+     * Maps a JSON key to the property tagged with the given tag.  Applies to all entity types.
+     * @param key The JSON key.
+     * @param tag The tag.
+     */
+    public void key(String key, Tag tag) {
+        tagKeys.add(key);
+        tags.add(tag);
+        keyIndexes.clear();
+    }
+
+    /**
+     * Registers the entity class to instantiate for an entity type, when nested entities of that type need to be created.
+     * If no class is registered, a plain {@link Entity} with the entity type is created.
+     * @param type The entity type.
+     * @param cls The entity class.  Must have a public no-arg constructor.
+     */
+    public void entityClass(EntityType type, Class<? extends Entity> cls) {
+        entityClasses.put(type, cls);
+    }
+
+    /**
+     * Registers the entity class to instantiate for rows of the given list class.
+     * @param listClass The list class.
+     * @param rowClass The row entity class.  Must have a public no-arg constructor.
+     */
+    public void rowClass(Class<? extends EntityList> listClass, Class<? extends Entity> rowClass) {
+        rowClasses.put(listClass, rowClass);
+    }
+
+    Class getEntityClass(EntityType type) {
+        return entityClasses.get(type);
+    }
+
+    Class getRowClass(Class listClass) {
+        return rowClasses.get(listClass);
+    }
+
+    /**
+     * Gets the key index for the given entity type.
+     * @param type The entity type.
+     * @return The key index.
+     */
+    KeyIndex getKeyIndex(EntityType type) {
+        KeyIndex out = keyIndexes.get(type);
+        if (out != null) {
+            return out;
+        }
+        List<Property> props = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (Property p : type) {
+            String key = null;
+            Name name = (Name)p.getAttribute(Name.class);
+            if (name != null) {
+                key = name.getValue();
+            } else {
+                int len = tags.size();
+                for (int i=0; i<len; i++) {
+                    if (p.getTags().contains(tags.get(i))) {
+                        key = tagKeys.get(i);
+                        break;
+                    }
+                }
+            }
+            if (key != null) {
+                props.add(p);
+                keys.add(key);
+            }
+        }
+        out = new KeyIndex(props.toArray(new Property[props.size()]), keys.toArray(new String[keys.size()]));
+        if (!type.isDynamic()) {
+            keyIndexes.put(type, out);
+        }
+        return out;
+    }
+
+
+}
@@ -0,0 +1,455 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.io;
+
+import com.codename1.rad.models.ContentType;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.EntityType;
+import com.codename1.rad.models.Property;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Date;
+
+/**
+ * Reads JSON directly into entities, without building an intermediate `Map` tree.  The JSON is tokenized as it is read,
+ * and each value is converted once, from its JSON type to the content type of the property that its key maps to.  Nested
+ * objects and arrays are read directly into {@link Entity} and {@link EntityList} properties.
+ *
+ * See {@link JSONEntityMapping} for how keys are mapped to properties.  Keys that don't map to a property are skipped.
+ * A JSON array replaces the rows of an existing list property.  Entities and lists that are read are marked as unchanged
+ * (their changed flag and change set are cleared), like the ones read by {@link EntitySnapshotReader}.
+ *
+ * == Example
+ *
+ * [source,java]
+ * ----
+ * JSONEntityReader reader = new JSONEntityReader();
+ * reader.key("id", Thing.identifier);
+ * reader.key("name", Thing.name);
+ * reader.rowClass(Contacts.class, Contact.class);
+ *
+ * Contacts contacts = new Contacts();
+ * reader.readList(new InputStreamReader(in, "UTF-8"), contacts);
+ * ----
+ * @author shannah
+ */
+public class JSONEntityReader extends JSONEntityMapping {
+    private Reader in;
+    private int pushback = -2;
+    private final StringBuilder buf = new StringBuilder();
+    private final char[] chunk = new char[4096];
+    private int chunkPos, chunkLen;
+
+    /**
+     * Reads a JSON object into the given entity.
+     * @param in The reader to read the JSON from.
+     * @param entity The entity to populate.
+     * @throws IOException If reading fails, or the JSON is malformed.
+     */
+    public void read(Reader in, Entity entity) throws IOException {
+        this.in = in;
+        pushback = -2;
+        chunkPos = chunkLen = 0;
+        try {
+            readObject(entity);
+        } finally {
+            this.in = null;
+        }
+    }
+
+    /**
+     * Reads a JSON array of objects, and adds a row to the given list for each object.  Existing rows are kept.
+     * @param in The reader to read the JSON from.
+     * @param list The list to add rows to.
+     * @throws IOException If reading fails, or the JSON is malformed.
+     */
+    public void readList(Reader in, EntityList list) throws IOException {
+        this.in = in;
+        pushback = -2;
+        chunkPos = chunkLen = 0;
+        try {
+            readArray(list);
+        } finally {
+            this.in = null;
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int out = pushback;
+            pushback = -2;
+            return out;
+        }
+        if (chunkPos >= chunkLen) {
+            // Read the input in chunks rather than a char at a time, since an unbuffered Reader
+            // (e.g. an InputStreamReader over a connection) may do a decode per call.
+            chunkPos = 0;
+            chunkLen = in.read(chunk, 0, chunk.length);
+            while (chunkLen == 0) {
+                chunkLen = in.read(chunk, 0, chunk.length);
+            }
+            if (chunkLen < 0) {
+                chunkLen = 0;
+                return -1;
+            }
+        }
+        return chunk[chunkPos++];
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        int c = read();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            c = read();
+        }
+        unread(c);
+        return c;
+    }
+
+    private void expect(char expected) throws IOException {
+        peekNonWhitespace();
+        int c = read();
+        if (c != expected) {
+            throw syntaxError("Expected '"+expected+"'", c);
+        }
+    }
+
+    private IOException syntaxError(String message, int found) {
+        return new IOException(message+" but found "+(found < 0 ? "end of input" : "'"+(char)found+"'"));
+    }
+
+    private void readObject(Entity entity) throws IOException {
+        readObjectBody(entity);
+        entity.clearChanged();
+        entity.clearChangeSet();
+    }
+
+    private void readObjectBody(Entity entity) throws IOException {
+        expect('{');
+        JSONEntityMapping.KeyIndex index = getKeyIndex(entity.getEntityType());
+        if (peekNonWhitespace() == '}') {
+            read();
+            return;
+        }
+        while (true) {
+            peekNonWhitespace();
+            int q = read();
+            if (q != '"') {
+                throw syntaxError("Expected key", q);
+            }
+            String key = readStringBody();
+            expect(':');
+            Property prop = index.propertiesByKey.get(key);
+            if (prop == null) {
+                skipValue();
+            } else {
+                readValue(entity, prop);
+            }
+            int c = peekNonWhitespace();
+            read();
+            if (c == '}') {
+                return;
+            }
+            if (c != ',') {
+                throw syntaxError("Expected ',' or '}'", c);
+            }
+        }
+    }
+
+    private void readArray(EntityList list) throws IOException {
+        readArrayBody(list);
+        list.clearChanged();
+        list.clearChangeSet();
+    }
+
+    private void readArrayBody(EntityList list) throws IOException {
+        expect('[');
+        if (peekNonWhitespace() == ']') {
+            read();
+            return;
+        }
+        while (true) {
+            int c = peekNonWhitespace();
+            Entity row = c == '{' ? createRow(list) : null;
+            if (row == null) {
+                skipValue();
+            } else {
+                readObject(row);
+                list.add(row);
+            }
+            c = peekNonWhitespace();
+            read();
+            if (c == ']') {
+                return;
+            }
+            if (c != ',') {
+                throw syntaxError("Expected ',' or ']'", c);
+            }
+        }
+    }
+
+    private Entity createRow(EntityList list) {
+        Class rowClass = getRowClass(list.getClass());
+        EntityType rowType = list.getRowType();
+        if (rowClass == null && rowType != null) {
+            rowClass = getEntityClass(rowType);
+        }
+        if (rowClass != null) {
+            return (Entity)newInstance(rowClass);
+        }
+        if (rowType != null) {
+            Entity out = new Entity();
+            out.setEntityType(rowType);
+            return out;
+        }
+        return null;
+    }
+
+    private Object newInstance(Class cls) {
+        try {
+            return cls.newInstance();
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to instantiate "+cls+".  Entity classes used in JSON binding must have a public no-arg constructor: "+ex.getMessage());
+        }
+    }
+
+    private void readValue(Entity entity, Property prop) throws IOException {
+        ContentType type = prop.getContentType();
+        int c = peekNonWhitespace();
+        switch (c) {
+            case '{': {
+                if (!type.isEntity() || type.isEntityList()) {
+                    skipValue();
+                    return;
+                }
+                Entity child = (Entity)prop.getValue(entity);
+                if (child == null) {
+                    Class cls = type.getRepresentationClass();
+                    if (cls == Entity.class) {
+                        skipValue();
+                        return;
+                    }
+                    child = (Entity)newInstance(cls);
+                }
+                readObject(child);
+                prop.setValue(entity, child);
+                return;
+            }
+            case '[': {
+                if (!type.isEntityList()) {
+                    skipValue();
+                    return;
+                }
+                EntityList list = (EntityList)prop.getValue(entity);
+                if (list == null) {
+                    list = (EntityList)newInstance(type.getRepresentationClass());
+                    prop.setValue(entity, list);
+                } else {
+                    // The array replaces the rows, so that reading into a populated entity again doesn't duplicate them.
+                    list.clear();
+                }
+                readArray(list);
+                return;
+            }
+            case '"': {
+                read();
+                String value = readStringBody();
+                try {
+                    prop.setValue(entity, fromString(type, value));
+                } catch (NumberFormatException ex) {
+                    throw new IOException("Invalid number \""+value+"\"");
+                } catch (RuntimeException ex) {
+                    // E.g. a date that can't be parsed.
+                    throw new IOException("Invalid value \""+value+"\": "+ex.getMessage());
+                }
+                return;
+            }
+            case 't':
+            case 'f':
+            case 'n': {
+                String literal = readLiteral();
+                if ("null".equals(literal)) {
+                    prop.setValue(entity, null);
+                } else if ("true".equals(literal) || "false".equals(literal)) {
+                    prop.setValue(entity, fromBoolean(type, "true".equals(literal)));
+                } else {
+                    throw new IOException("Unexpected token "+literal);
+                }
+                return;
+            }
+            default: {
+                String literal = readLiteral();
+                try {
+                    prop.setValue(entity, fromNumber(type, literal));
+                } catch (NumberFormatException ex) {
+                    throw new IOException("Invalid number "+literal);
+                }
+            }
+        }
+    }
+
+    private Object fromString(ContentType type, String value) {
+        Class cls = type.getRepresentationClass();
+        if (cls == String.class) {
+            return value;
+        }
+        if (cls == Long.class) {
+            return Long.parseLong(value.trim());
+        }
+        return ContentType.convert(ContentType.Text, value, type);
+    }
+
+    private Object fromBoolean(ContentType type, boolean value) {
+        Class cls = type.getRepresentationClass();
+        if (cls == Boolean.class) {
+            return value;
+        }
+        return fromString(type, String.valueOf(value));
+    }
+
+    private Object fromNumber(ContentType type, String value) {
+        Class cls = type.getRepresentationClass();
+        boolean integral = value.indexOf('.') < 0 && value.indexOf('e') < 0 && value.indexOf('E') < 0;
+        if (cls == Integer.class) {
+            return integral ? Integer.parseInt(value) : (int)Double.parseDouble(value);
+        }
+        if (cls == Long.class) {
+            return integral ? Long.parseLong(value) : (long)Double.parseDouble(value);
+        }
+        if (cls == Double.class) {
+            return Double.parseDouble(value);
+        }
+        if (cls == Float.class) {
+            return Float.parseFloat(value);
+        }
+        if (cls == String.class) {
+            return value;
+        }
+        if (cls == Boolean.class) {
+            return Double.parseDouble(value) != 0;
+        }
+        if (cls == Date.class && integral) {
+            return new Date(Long.parseLong(value));
+        }
+        return ContentType.convert(ContentType.Text, value, type);
+    }
+
+    /**
+     * Reads a string whose opening quote has already been consumed.
+     * @return The unescaped string.
+     * @throws IOException
+     */
+    private String readStringBody() throws IOException {
+        buf.setLength(0);
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                throw syntaxError("Unterminated string", c);
+            }
+            if (c == '"') {
+                return buf.toString();
+            }
+            if (c == '\\') {
+                c = read();
+                switch (c) {
+                    case 'n': buf.append('\n'); break;
+                    case 'r': buf.append('\r'); break;
+                    case 't': buf.append('\t'); break;
+                    case 'b': buf.append('\b'); break;
+                    case 'f': buf.append('\f'); break;
+                    case 'u': {
+                        int code = 0;
+                        for (int i=0; i<4; i++) {
+                            int h = hexValue(read());
+                            if (h < 0) {
+                                throw new IOException("Invalid unicode escape");
+                            }
+                            code = (code << 4) | h;
+                        }
+                        buf.append((char)code);
+                        break;
+                    }
+                    default:
+                        if (c < 0) {
+                            throw syntaxError("Unterminated string", c);
+                        }
+                        buf.append((char)c);
+                }
+            } else {
+                buf.append((char)c);
+            }
+        }
+    }
+
+    private static int hexValue(int c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a number or a literal (true, false, null).
+     * @return The token text.
+     * @throws IOException
+     */
+    private String readLiteral() throws IOException {
+        buf.setLength(0);
+        while (true) {
+            int c = read();
+            if (c < 0 || c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                unread(c);
+                break;
+            }
+            buf.append((char)c);
+        }
+        if (buf.length() == 0) {
+            throw syntaxError("Expected value", read());
+        }
+        return buf.toString();
+    }
+
+    private void skipValue() throws IOException {
+        int c = peekNonWhitespace();
+        switch (c) {
+            case '{':
+            case '[': {
+                read();
+                int depth = 1;
+                while (depth > 0) {
+                    c = read();
+                    if (c < 0) {
+                        throw syntaxError("Unterminated value", c);
+                    }
+                    if (c == '"') {
+                        readStringBody();
+                    } else if (c == '{' || c == '[') {
+                        depth++;
+                    } else if (c == '}' || c == ']') {
+                        depth--;
+                    }
+                }
+                return;
+            }
+            case '"':
+                read();
+                readStringBody();
+                return;
+            default:
+                readLiteral();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.io;
+
+import com.codename1.rad.models.ContentType;
+import com.codename1.rad.models.Entity;
+import com.codename1.rad.models.EntityList;
+import com.codename1.rad.models.Property;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes entities as JSON directly to a {@link Writer}, without building an intermediate `Map` tree.  This is the
+ * counterpart of {@link JSONEntityReader}, and uses the same key mapping rules (see {@link JSONEntityMapping}).
+ *
+ * Strings, numbers and booleans are written as the corresponding JSON types.  Dates are written as milliseconds since
+ * the epoch.  Nested entities and entity lists are written as objects and arrays.  Null values, and properties that
+ * don't map to a key, are omitted.  If an entity graph contains a cycle, the repeated entity is written as `null`.
+ * @author shannah
+ */
+public class JSONEntityWriter extends JSONEntityMapping {
+    private final Set<Entity> visiting = new HashSet<>();
+
+    /**
+     * Writes the given entity as a JSON object.
+     * @param out The writer to write to.
+     * @param entity The entity.
+     * @throws IOException
+     */
+    public void write(Writer out, Entity entity) throws IOException {
+        visiting.clear();
+        writeObject(out, entity);
+    }
+
+    /**
+     * Writes the given list as a JSON array of objects.
+     * @param out The writer to write to.
+     * @param list The list.
+     * @throws IOException
+     */
+    public void writeList(Writer out, EntityList list) throws IOException {
+        visiting.clear();
+        writeArray(out, list);
+    }
+
+    private void writeObject(Writer out, Entity entity) throws IOException {
+        if (!visiting.add(entity)) {
+            out.write("null");
+            return;
+        }
+        JSONEntityMapping.KeyIndex index = getKeyIndex(entity.getEntityType());
+        out.write('{');
+        boolean first = true;
+        int len = index.properties.length;
+        for (int i=0; i<len; i++) {
+            Property prop = index.properties[i];
+            Object value = prop.getValue(entity);
+            if (value == null) {
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            writeString(out, index.keys[i]);
+            out.write(':');
+            writeValue(out, prop.getContentType(), value);
+        }
+        out.write('}');
+        visiting.remove(entity);
+    }
+
+    private void writeArray(Writer out, EntityList list) throws IOException {
+        out.write('[');
+        int len = list.size();
+        for (int i=0; i<len; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Entity row = list.get(i);
+            if (row == null) {
+                out.write("null");
+            } else {
+                writeObject(out, row);
+            }
+        }
+        out.write(']');
+    }
+
+    private void writeValue(Writer out, ContentType type, Object value) throws IOException {
+        if (value instanceof EntityList) {
+            writeArray(out, (EntityList)value);
+        } else if (value instanceof Entity) {
+            writeObject(out, (Entity)value);
+        } else if (value instanceof String) {
+            writeString(out, (String)value);
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number)value).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                out.write("null");
+            } else {
+                out.write(String.valueOf(value));
+            }
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.write(String.valueOf(value));
+        } else if (value instanceof Date) {
+            out.write(String.valueOf(((Date)value).getTime()));
+        } else if (type.canConvertTo(ContentType.Text) || ContentType.Text.canConvertFrom(type)) {
+            writeString(out, (String)ContentType.convert(type, value, ContentType.Text));
+        } else {
+            writeString(out, String.valueOf(value));
+        }
+    }
+
+    private void writeString(Writer out, String str) throws IOException {
+        out.write('"');
+        int len = str.length();
+        int start = 0;
+        for (int i=0; i<len; i++) {
+            char c = str.charAt(i);
+            String escape = null;
+            switch (c) {
+                case '"': escape = "\\\""; break;
+                case '\\': escape = "\\\\"; break;
+                case '\n': escape = "\\n"; break;
+                case '\r': escape = "\\r"; break;
+                case '\t': escape = "\\t"; break;
+                case '\b': escape = "\\b"; break;
+                case '\f': escape = "\\f"; break;
+                default:
+                    if (c < 0x20) {
+                        String hex = Integer.toHexString(c);
+                        escape = "\\u" + "0000".substring(hex.length()) + hex;
+                    }
+            }
+            if (escape != null) {
+                out.write(str, start, i-start);
+                out.write(escape);
+                start = i+1;
+            }
+        }
+        out.write(str, start, len-start);
+        out.write('"');
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains utilities for reading and writing entities, such as JSON binding, and binary snapshots for
+ * persisting entities to storage.
+ */
+package com.codename1.rad.io;
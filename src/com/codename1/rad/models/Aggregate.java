@@ -8,6 +8,7 @@ package com.codename1.rad.models;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
 import java.util.Set;
@@ -23,6 +24,20 @@ public class Aggregate extends Entity implements Iterable<Entity> {
     private transient final Entity root;
     private transient Set<Entity> entities=new HashSet<>();
     
+    /**
+     * Members of this aggregate that have changed since they were last cleared.  Maintained incrementally
+     * by {@link #memberChanged(com.codename1.rad.models.Entity) } and {@link #memberCleared(com.codename1.rad.models.Entity) } so
+     * that {@link #hasChanged() } doesn't need to visit every member.
+     */
+    private transient final Set<Entity> changedEntities = new HashSet<>();
+    
+    /**
+     * Members of this aggregate that have a non-empty change set (see {@link Entity#getChangeSet() }).  Tracked
+     * separately from {@link #changedEntities} because the changed flag is cleared when observers are notified,
+     * while the change set is kept until {@link #clearChangeSet() } is called.
+     */
+    private transient final Set<Entity> changeSetEntities = new HashSet<>();
+    
     private Observer entityObserver = new Observer() {
         @Override
         public void update(Observable o, Object arg) {
@@ -37,6 +52,64 @@ public class Aggregate extends Entity implements Iterable<Entity> {
         root.setAggregate(this);
         root.addObserver(entityObserver);
         entities.add(root);
+        if (root.hasChanged()) {
+            memberChanged(root);
+        }
+        if (root.hasChangeSet()) {
+            memberPropertyChanged(root);
+        }
+    }
+    
+    /**
+     * Called by a member entity when it is marked as changed.
+     * @param entity The member entity.
+     */
+    void memberChanged(Entity entity) {
+        synchronized (changedEntities) {
+            changedEntities.add(entity);
+        }
+    }
+    
+    /**
+     * Called by a member entity when its changes are cleared.
+     * @param entity The member entity.
+     */
+    void memberCleared(Entity entity) {
+        synchronized (changedEntities) {
+            changedEntities.remove(entity);
+        }
+    }
+    
+    /**
+     * Called by a member entity when one of its properties is marked as changed.
+     * @param entity The member entity.
+     */
+    void memberPropertyChanged(Entity entity) {
+        synchronized (changeSetEntities) {
+            changeSetEntities.add(entity);
+        }
+    }
+    
+    /**
+     * Called by a member entity when its change set is cleared.
+     * @param entity The member entity.
+     */
+    void memberChangeSetCleared(Entity entity) {
+        synchronized (changeSetEntities) {
+            changeSetEntities.remove(entity);
+        }
+    }
+    
+    private Entity[] getChangedEntitiesArray() {
+        synchronized (changedEntities) {
+            return changedEntities.toArray(new Entity[changedEntities.size()]);
+        }
+    }
+    
+    private Entity[] getChangeSetEntitiesArray() {
+        synchronized (changeSetEntities) {
+            return changeSetEntities.toArray(new Entity[changeSetEntities.size()]);
+        }
     }
     public Entity getRoot() {
         return root;
@@ -53,6 +126,12 @@ public class Aggregate extends Entity implements Iterable<Entity> {
         if (entities.add(entity)) {
             entity.setAggregate(this);
             entity.addObserver(entityObserver);
+            if (entity.hasChanged()) {
+                memberChanged(entity);
+            }
+            if (entity.hasChangeSet()) {
+                memberPropertyChanged(entity);
+            }
         }
     }
     
@@ -60,34 +139,61 @@ public class Aggregate extends Entity implements Iterable<Entity> {
         if (entities.remove(entity)) {
             entity.setAggregate(null);
             entity.deleteObserver(entityObserver);
+            memberCleared(entity);
+            memberChangeSetCleared(entity);
         }
     }
 
     @Override
     public synchronized boolean hasChanged() {
-        if (!super.hasChanged()) {
-            for (Entity e : new ArrayList<>(entities)) {
-                if (e.hasChanged()) {
-                    return true;
-                }
-            }
-            return false;
-        } else {
+        if (super.hasChanged()) {
             return true;
         }
+        synchronized (changedEntities) {
+            return !changedEntities.isEmpty();
+        }
+    }
+
+    /**
+     * Gets the change sets of all entities in this aggregate that have changed properties.  Only the members that
+     * have changed properties are visited.  The change sets are kept until {@link #clearChangeSet() } is called, even 
+     * if observers have been notified in the meantime.
+     * @return List of change sets.  Never null.
+     * @see Entity#getChangeSet() 
+     */
+    public List<ChangeSet> getChangeSets() {
+        List<ChangeSet> out = new ArrayList<>();
+        for (Entity e : getChangeSetEntitiesArray()) {
+            ChangeSet changes = e.getChangeSet();
+            if (!changes.isEmpty()) {
+                out.add(changes);
+            }
+        }
+        return out;
     }
 
     @Override
-    protected synchronized void clearChanged() {
+    public synchronized void clearChanged() {
         super.clearChanged();
-        for (Entity e : new ArrayList<Entity>(entities)) {
+        for (Entity e : getChangedEntitiesArray()) {
             e.clearChanged();
         }
     }
 
+    /**
+     * Resets the change sets of this aggregate and of all of its members.
+     */
+    @Override
+    public synchronized void clearChangeSet() {
+        super.clearChangeSet();
+        for (Entity e : getChangeSetEntitiesArray()) {
+            e.clearChangeSet();
+        }
+    }
+
     @Override
     public void notifyObservers(Object arg) {
-        for (Entity e : new ArrayList<Entity>(entities)) {
+        for (Entity e : getChangedEntitiesArray()) {
             e.notifyObservers(arg);
         }
         super.notifyObservers(arg);
@@ -0,0 +1,91 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.models;
+
+/**
+ * A compact snapshot of the properties of an {@link Entity} that have changed since the last time its changes
+ * were cleared, along with their current values.  This can be used, for example, to upload only the fields of an
+ * entity that have changed.
+ *
+ * [source,java]
+ * ----
+ * ChangeSet changes = entity.getChangeSet();
+ * for (int i=0; i<changes.size(); i++) {
+ *     payload.put(changes.getProperty(i), changes.getValue(i));
+ * }
+ * entity.clearChangeSet();
+ * ----
+ * @author shannah
+ * @see Entity#getChangeSet()
+ * @see Aggregate#getChangeSets()
+ */
+public class ChangeSet {
+    private final Entity entity;
+    private final Property[] properties;
+    private final Object[] values;
+
+    ChangeSet(Entity entity, Property[] properties, Object[] values) {
+        this.entity = entity;
+        this.properties = properties;
+        this.values = values;
+    }
+
+    /**
+     * Gets the entity that this change set pertains to.
+     * @return
+     */
+    public Entity getEntity() {
+        return entity;
+    }
+
+    /**
+     * Gets the number of changed properties.
+     * @return
+     */
+    public int size() {
+        return properties.length;
+    }
+
+    /**
+     * Checks whether there are no changed properties.
+     * @return
+     */
+    public boolean isEmpty() {
+        return properties.length == 0;
+    }
+
+    /**
+     * Gets the changed property at the given index.
+     * @param index Index between 0 and {@link #size() }.
+     * @return
+     */
+    public Property getProperty(int index) {
+        return properties[index];
+    }
+
+    /**
+     * Gets the value of the changed property at the given index, as it was when the change set was created.
+     * @param index Index between 0 and {@link #size() }.
+     * @return
+     */
+    public Object getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Checks whether the given property is in this change set.
+     * @param property The property.
+     * @return
+     */
+    public boolean contains(Property property) {
+        for (Property p : properties) {
+            if (p == property) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
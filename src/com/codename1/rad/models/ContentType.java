@@ -357,7 +357,7 @@ public class ContentType<T> {
             }
             
             if (otherType == Text) {
-                return (V)new AllFormatsDateFormatter().format(data);
+                return (V)AllFormatsDateFormatter.getInstance().format(data);
             }
             if (otherType == LongType) {
                 return (V)(Long)data.getTime();
@@ -380,7 +380,7 @@ public class ContentType<T> {
             
             if (otherType == Text) {
                 try {
-                    return new AllFormatsDateFormatter().parse((String)data);
+                    return AllFormatsDateFormatter.getInstance().parse((String)data);
                 } catch (Exception ex) {
                     throw new RuntimeException(ex);
                 }
@@ -0,0 +1,185 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.models;
+
+import com.codename1.ui.events.ActionEvent;
+import com.codename1.ui.events.ActionListener;
+import java.lang.ref.WeakReference;
+
+/**
+ * An internal listener collection used for property change dispatch.  Listeners are stored in an array that is replaced
+ * (never modified) when listeners are added or removed, so firing an event just iterates the current array without
+ * copying it, and listeners may safely add or remove listeners while an event is being fired.
+ *
+ * Listeners may also be registered weakly, in which case the collection doesn't prevent them from being garbage collected.
+ * Entries whose listeners have been collected are pruned the next time an event is fired.
+ * @author shannah
+ */
+class CopyOnWriteListeners {
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * Each entry is either an {@link ActionListener} or a {@link WeakListener}.
+     */
+    private Object[] listeners = EMPTY;
+
+    /**
+     * Wrapper for a weakly registered listener.
+     */
+    private static class WeakListener {
+        private final WeakReference<ActionListener> ref;
+
+        WeakListener(ActionListener l) {
+            ref = new WeakReference<ActionListener>(l);
+        }
+    }
+
+    private static ActionListener unwrap(Object entry) {
+        if (entry instanceof WeakListener) {
+            return ((WeakListener)entry).ref.get();
+        }
+        return (ActionListener)entry;
+    }
+
+    private int indexOf(ActionListener l) {
+        Object[] current = listeners;
+        int len = current.length;
+        for (int i=0; i<len; i++) {
+            if (unwrap(current[i]) == l) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void append(Object entry) {
+        Object[] current = listeners;
+        int len = current.length;
+        Object[] next = new Object[len+1];
+        System.arraycopy(current, 0, next, 0, len);
+        next[len] = entry;
+        listeners = next;
+    }
+
+    /**
+     * Adds a listener.  Does nothing if the listener is already registered.
+     * @param l The listener.
+     */
+    void add(ActionListener l) {
+        if (indexOf(l) < 0) {
+            append(l);
+        }
+    }
+
+    /**
+     * Adds a listener that is only weakly referenced by this collection.  Does nothing if the listener is already
+     * registered.
+     * @param l The listener.
+     */
+    void addWeak(ActionListener l) {
+        if (indexOf(l) < 0) {
+            append(new WeakListener(l));
+        }
+    }
+
+    /**
+     * Removes a listener.
+     * @param l The listener.
+     * @return True if the listener was removed.
+     */
+    boolean remove(ActionListener l) {
+        int i = indexOf(l);
+        if (i < 0) {
+            return false;
+        }
+        Object[] current = listeners;
+        int len = current.length;
+        if (len == 1) {
+            listeners = EMPTY;
+        } else {
+            Object[] next = new Object[len-1];
+            System.arraycopy(current, 0, next, 0, i);
+            System.arraycopy(current, i+1, next, i, len-i-1);
+            listeners = next;
+        }
+        return true;
+    }
+
+    /**
+     * Removes entries for weak listeners that have been garbage collected.
+     */
+    private void prune() {
+        Object[] current = listeners;
+        int len = current.length;
+        int live = 0;
+        for (int i=0; i<len; i++) {
+            if (unwrap(current[i]) != null) {
+                live++;
+            }
+        }
+        if (live == len) {
+            return;
+        }
+        Object[] next = live == 0 ? EMPTY : new Object[live];
+        int j = 0;
+        for (int i=0; i<len; i++) {
+            if (unwrap(current[i]) != null) {
+                next[j++] = current[i];
+            }
+        }
+        listeners = next;
+    }
+
+    /**
+     * Checks whether the collection is empty.  A collection that only contains weak listeners which have
+     * been collected, but not yet pruned, is not considered empty.
+     * @return
+     */
+    boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    /**
+     * Gets the number of live listeners, excluding weak listeners that have been garbage collected.
+     * @return
+     */
+    int size() {
+        Object[] current = listeners;
+        int len = current.length;
+        int out = 0;
+        for (int i=0; i<len; i++) {
+            if (unwrap(current[i]) != null) {
+                out++;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Fires an event to all listeners, stopping if the event is consumed.  Weak listeners that have been garbage
+     * collected are pruned.
+     * @param evt The event.
+     */
+    void fire(ActionEvent evt) {
+        Object[] current = listeners;
+        int len = current.length;
+        boolean stale = false;
+        for (int i=0; i<len; i++) {
+            ActionListener l = unwrap(current[i]);
+            if (l == null) {
+                stale = true;
+                continue;
+            }
+            l.actionPerformed(evt);
+            if (evt.isConsumed()) {
+                break;
+            }
+        }
+        if (stale) {
+            prune();
+        }
+    }
+}
@@ -6,6 +6,7 @@
 package com.codename1.rad.models;
 
 import com.codename1.rad.text.DateFormatter;
+import com.codename1.rad.text.MemoizedDateFormatter;
 
 /**
  * An attribute for setting a {@1ink DateFormatter} on a node.  This can be added to any {@link com.codename1.rad.nodes.Node}
@@ -13,6 +14,7 @@ import com.codename1.rad.text.DateFormatter;
  * @author shannah
  * 
  * @see com.codename1.rad.ui.UI#dateFormat(com.codename1.rad.text.DateFormatter) 
+ * @see com.codename1.rad.ui.UI#memoizedDateFormat(com.codename1.rad.text.DateFormatter, int) 
  */
 public class DateFormatterAttribute extends Attribute<DateFormatter> {
     
@@ -20,4 +22,16 @@ public class DateFormatterAttribute extends Attribute<DateFormatter> {
         super(value);
     }
     
+    /**
+     * Creates an attribute whose formatter remembers the strings for recently formatted dates.  Use this for
+     * columns or lists that show the same dates repeatedly.  Time-sensitive formatters such as 
+     * {@link com.codename1.rad.text.TimeAgoDateFormatter} are used as is, since their output changes over time.
+     * @param value The formatter.
+     * @param memoSize The maximum number of dates to remember.  If 0, the formatter isn't memoized.
+     * @see MemoizedDateFormatter
+     */
+    public DateFormatterAttribute(DateFormatter value, int memoSize) {
+        super(memoSize > 0 ? MemoizedDateFormatter.memoize(value, memoSize) : value);
+    }
+    
 }
@@ -12,17 +12,13 @@ import com.codename1.ui.EncodedImage;
 import com.codename1.ui.Image;
 import com.codename1.ui.URLImage;
 import com.codename1.ui.events.ActionListener;
-import com.codename1.ui.util.EventDispatcher;
 import com.codename1.util.Base64;
 import com.codename1.util.StringUtil;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Observable;
-import java.util.Set;
 
 /**
  * The base class for *Model* objects in CodeRAD.  The {@link Entity} class contains all of the plumbing
@@ -137,48 +133,138 @@ public class UserProfile extends Entity {
 public class Entity extends Observable  {
     Map<Object,Object> properties;
     private EntityType entityType;
-    private Map<Property,Set<ActionListener>> propertyChangeListenersMap;
-    private EventDispatcher propertyChangeListeners;
+    private Map<Property,CopyOnWriteListeners> propertyChangeListenersMap;
+    private CopyOnWriteListeners propertyChangeListeners;
+    
+    /**
+     * Incremented whenever a property value or the entity type of this entity changes.  Used by
+     * {@link PropertySelector} to detect when a cached property path needs to be re-resolved.
+     */
+    private int propertyVersion;
+    
+    int getPropertyVersion() {
+        return propertyVersion;
+    }
+    
+    void incrementPropertyVersion() {
+        propertyVersion++;
+    }
     
     
     public void addPropertyChangeListener(Property property, ActionListener<PropertyChangeEvent>  l)  {
         if (propertyChangeListenersMap == null) {
             propertyChangeListenersMap = new HashMap<>();
         }
-        Set<ActionListener> propertyListenerSet = propertyChangeListenersMap.get(property);
-        if (propertyListenerSet == null) {
-            propertyListenerSet = new LinkedHashSet<>();
-            propertyChangeListenersMap.put(property, propertyListenerSet);
+        CopyOnWriteListeners propertyListeners = propertyChangeListenersMap.get(property);
+        if (propertyListeners == null) {
+            propertyListeners = new CopyOnWriteListeners();
+            propertyChangeListenersMap.put(property, propertyListeners);
         }
-        propertyListenerSet.add(l);
+        propertyListeners.add(l);
     }
     
     public void removePropertyChangeListener(Property property, ActionListener<PropertyChangeEvent> l) {
         if (propertyChangeListenersMap == null) {
             return;
         }
-        Set<ActionListener> propertyListenerSet = propertyChangeListenersMap.get(property);
-        if (propertyListenerSet == null) {
+        CopyOnWriteListeners propertyListeners = propertyChangeListenersMap.get(property);
+        if (propertyListeners == null) {
             return;
         }
-        propertyListenerSet.remove(l);
+        propertyListeners.remove(l);
+        if (propertyListeners.isEmpty()) {
+            propertyChangeListenersMap.remove(property);
+        }
     }
     
     public void addPropertyChangeListener(ActionListener<PropertyChangeEvent> l) {
         if (propertyChangeListeners == null) {
-            propertyChangeListeners = new EventDispatcher();
+            propertyChangeListeners = new CopyOnWriteListeners();
         }
-        propertyChangeListeners.addListener(l);
+        propertyChangeListeners.add(l);
     }
     
     public void removePropertyChangeListener(ActionListener<PropertyChangeEvent> l) {
         if (propertyChangeListeners == null) {
             return;
         }
-        propertyChangeListeners.removeListener(l);
+        propertyChangeListeners.remove(l);
     }
     
+    /**
+     * Adds a listener to be notified of changes to the given property.  The entity only holds a weak reference
+     * to the listener, so it won't prevent the listener (or a view that it belongs to) from being garbage
+     * collected if the listener isn't removed.  The caller must retain a strong reference to the listener for as long
+     * as it should receive events (e.g. in a field of the view).  The listener can be removed with
+     * {@link #removePropertyChangeListener(com.codename1.rad.models.Property, com.codename1.ui.events.ActionListener) }.
+     * @param property The property to listen to.
+     * @param l The listener.
+     */
+    public void addWeakPropertyChangeListener(Property property, ActionListener<PropertyChangeEvent> l) {
+        if (propertyChangeListenersMap == null) {
+            propertyChangeListenersMap = new HashMap<>();
+        }
+        CopyOnWriteListeners propertyListeners = propertyChangeListenersMap.get(property);
+        if (propertyListeners == null) {
+            propertyListeners = new CopyOnWriteListeners();
+            propertyChangeListenersMap.put(property, propertyListeners);
+        }
+        propertyListeners.addWeak(l);
+    }
+    
+    /**
+     * Adds a listener to be notified of changes to any property.  The entity only holds a weak reference to the listener.
+     * @param l The listener.
+     * @see #addWeakPropertyChangeListener(com.codename1.rad.models.Property, com.codename1.ui.events.ActionListener) 
+     */
+    public void addWeakPropertyChangeListener(ActionListener<PropertyChangeEvent> l) {
+        if (propertyChangeListeners == null) {
+            propertyChangeListeners = new CopyOnWriteListeners();
+        }
+        propertyChangeListeners.addWeak(l);
+    }
+    
+    /**
+     * Gets the number of live property change listeners registered on this entity, including both listeners for
+     * specific properties and listeners for all properties.  Weak listeners that have been garbage collected are
+     * not counted.  This is intended as a diagnostic for finding listener leaks.
+     * @return The number of live listeners.
+     */
+    public int getPropertyChangeListenerCount() {
+        int out = 0;
+        if (propertyChangeListeners != null) {
+            out += propertyChangeListeners.size();
+        }
+        if (propertyChangeListenersMap != null) {
+            for (CopyOnWriteListeners l : propertyChangeListenersMap.values()) {
+                out += l.size();
+            }
+        }
+        return out;
+    }
+    
+    /**
+     * Checks whether there are any listeners that would be notified of a change to the given property.
+     * @param prop The property.
+     * @return True if there is at least one listener for the property, or for all properties.
+     */
+    public boolean hasPropertyChangeListeners(Property prop) {
+        if (propertyChangeListeners != null && !propertyChangeListeners.isEmpty()) {
+            return true;
+        }
+        return propertyChangeListenersMap != null && propertyChangeListenersMap.containsKey(prop);
+    }
+    
+    /**
+     * Dispatches a property change event to the listeners of its property, and then to the listeners of all
+     * properties.  Returns immediately when nobody is listening, so that unobserved entities don't pay for a
+     * hop to the EDT on every change.
+     * @param pce The event.
+     */
     protected void firePropertyChangeEvent(PropertyChangeEvent pce) {
+        if (!hasPropertyChangeListeners(pce.getProperty())) {
+            return;
+        }
         if (!CN.isEdt()) {
             if (Display.isInitialized()) {
                 CN.callSerially(()->firePropertyChangeEvent(pce));
@@ -187,19 +273,16 @@ public class Entity extends Observable  {
             }
         }
         if (propertyChangeListenersMap != null) {
-            Set<ActionListener> listeners = propertyChangeListenersMap.get(pce.getProperty());
+            CopyOnWriteListeners listeners = propertyChangeListenersMap.get(pce.getProperty());
             if (listeners != null) {
-                ArrayList<ActionListener> toSend = new ArrayList<>(listeners);
-                for (ActionListener l : toSend) {
-                    l.actionPerformed(pce);
-                    if (pce.isConsumed()) {
-                        return;
-                    }
+                listeners.fire(pce);
+                if (pce.isConsumed()) {
+                    return;
                 }
             }
         }
         if (propertyChangeListeners != null) {
-            propertyChangeListeners.fireActionEvent(pce);
+            propertyChangeListeners.fire(pce);
         }
     }
    
@@ -324,6 +407,9 @@ public class Entity extends Observable  {
     public void setEntityType(EntityType entityType) {
         entityType.freeze();
         this.entityType = entityType;
+        propertyVersion++;
+        // The change set is keyed by property ordinal, which is meaningless under a different type.
+        clearChangeSet();
     }
     
     public EntityType getEntityType() {
@@ -385,9 +471,122 @@ public class Entity extends Observable  {
 
     private transient Aggregate aggregate;
     
+    /**
+     * Bitset of the ordinals (see {@link EntityType#getPropertyIndex(com.codename1.rad.models.Property) }) of properties
+     * that have changed since the last call to {@link #clearChangeSet() }.  This is independent of the changed flag
+     * inherited from {@link java.util.Observable}, which is cleared whenever observers are notified.
+     */
+    private long[] changedProperties;
+    
+    void markPropertyChanged(Property prop) {
+        int index = getEntityType().getPropertyIndex(prop);
+        if (index < 0) {
+            return;
+        }
+        int word = index >> 6;
+        if (changedProperties == null || changedProperties.length <= word) {
+            long[] bits = new long[word+1];
+            if (changedProperties != null) {
+                System.arraycopy(changedProperties, 0, bits, 0, changedProperties.length);
+            }
+            changedProperties = bits;
+        }
+        changedProperties[word] |= 1L << (index & 63);
+        if (aggregate != null && aggregate != this) {
+            aggregate.memberPropertyChanged(this);
+        }
+    }
+    
+    boolean hasChangeSet() {
+        return changedProperties != null;
+    }
+    
+    private boolean isChangedAt(int index) {
+        int word = index >> 6;
+        return changedProperties != null && word < changedProperties.length && (changedProperties[word] & (1L << (index & 63))) != 0;
+    }
+    
+    /**
+     * Checks whether the given property has changed since the last call to {@link #clearChangeSet() }.
+     * @param prop The property.
+     * @return True if the property has changed.
+     */
+    public boolean isChanged(Property prop) {
+        if (changedProperties == null) {
+            return false;
+        }
+        int index = getEntityType().getPropertyIndex(prop);
+        if (index < 0) {
+            return false;
+        }
+        return isChangedAt(index);
+    }
+    
+    /**
+     * Gets the properties that have changed since the last call to {@link #clearChangeSet() }, along with
+     * their current values.  Unlike the changed flag, the change set isn't cleared by {@link #notifyObservers() }, so
+     * it stays available until the consumer of the changes (e.g. a sync layer or a store) clears it.
+     * @return The change set.  Never null.
+     */
+    public ChangeSet getChangeSet() {
+        EntityType type = getEntityType();
+        if (changedProperties == null) {
+            return new ChangeSet(this, new Property[0], new Object[0]);
+        }
+        int len = type.size();
+        int count = 0;
+        for (int i=0; i<len; i++) {
+            if (isChangedAt(i)) {
+                count++;
+            }
+        }
+        Property[] props = new Property[count];
+        Object[] values = new Object[count];
+        int pos = 0;
+        for (int i=0; i<len && pos < count; i++) {
+            if (isChangedAt(i)) {
+                Property prop = type.getPropertyAt(i);
+                props[pos] = prop;
+                values[pos] = prop.getValue(this);
+                pos++;
+            }
+        }
+        return new ChangeSet(this, props, values);
+    }
+    
+    /**
+     * Clears the changed flag of this entity.  This is also called by {@link #notifyObservers() }.  It doesn't reset
+     * the set of changed properties returned by {@link #getChangeSet() }.  Use {@link #clearChangeSet() } for that.
+     */
     @Override
-    protected synchronized void clearChanged() {
+    public synchronized void clearChanged() {
         super.clearChanged(); 
+        if (aggregate != null && aggregate != this) {
+            aggregate.memberCleared(this);
+        }
+    }
+    
+    /**
+     * Resets the set of changed properties returned by {@link #getChangeSet() }.  This should be called by the consumer 
+     * of the changes once it has processed them.
+     */
+    public synchronized void clearChangeSet() {
+        changedProperties = null;
+        if (aggregate != null && aggregate != this) {
+            aggregate.memberChangeSetCleared(this);
+        }
+    }
+    
+    /**
+     * Marks this entity as changed.  If the entity belongs to an {@link Aggregate}, the aggregate is
+     * notified so that it can track its changed members incrementally.
+     */
+    @Override
+    protected synchronized void setChanged() {
+        super.setChanged();
+        if (aggregate != null && aggregate != this) {
+            aggregate.memberChanged(this);
+        }
     }
     
     public Object get(Object key) {
@@ -427,7 +626,7 @@ public class Entity extends Observable  {
         Object existing = properties.get(key);
         if (!Objects.equals(existing, value)) {
             properties.put(key, value);
-            
+            propertyVersion++;
             setChanged();
         }
     }
@@ -599,11 +798,12 @@ public class Entity extends Observable  {
     
     
     void setChangedInternal() {
-        super.setChanged();
+        setChanged();
     }
     
     public void setChanged(Property prop, boolean firePropertyChange) {
-        super.setChanged();
+        setChanged();
+        markPropertyChanged(prop);
         if (firePropertyChange) {
             firePropertyChangeEvent(new PropertyChangeEvent(this, prop, get(prop), get(prop)));
         }
@@ -9,8 +9,12 @@ import com.codename1.ui.events.ActionEvent;
 import com.codename1.ui.events.ActionListener;
 import com.codename1.ui.util.EventDispatcher;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Encapsulates a list of entities. This list is observable, as it will fire {@link EntityListEvent} events when items are added 
@@ -37,6 +41,11 @@ public class EntityList<T extends Entity> extends Entity implements Iterable<T>
     private List<T> entities = new ArrayList<>();
     private int maxLen = -1;
     
+    /**
+     * Secondary indexes, keyed by the {@link Tag} or {@link Property} that they index.
+     */
+    private Map<Object,EntityListIndex> indexes;
+    
     
     public class EntityListEvent extends ActionEvent {
         public EntityListEvent() {
@@ -75,6 +84,105 @@ public class EntityList<T extends Entity> extends Entity implements Iterable<T>
         }
     }
     
+    /**
+     * Event fired when a contiguous range of entities is added to the list at once.  This is fired instead of individual
+     * {@link EntityAddedEvent}s when rows are added in bulk (e.g. when a page of a {@link PagedEntityList} is loaded).
+     */
+    public class EntitiesAddedEvent extends EntityListEvent {
+        private int index;
+        private List<? extends Entity> entities;
+        
+        public EntitiesAddedEvent(int index, List<? extends Entity> entities) {
+            this.index = index;
+            this.entities = entities;
+        }
+        
+        /**
+         * Gets the index of the first added entity.
+         * @return 
+         */
+        public int getIndex() {
+            return index;
+        }
+        
+        /**
+         * Gets the number of entities that were added.
+         * @return 
+         */
+        public int getCount() {
+            return entities.size();
+        }
+        
+        /**
+         * Gets the entities that were added, in index order.
+         * @return 
+         */
+        public List<? extends Entity> getEntities() {
+            return entities;
+        }
+    }
+    
+    /**
+     * Event fired when a range of rows that was already announced with an {@link EntitiesAddedEvent} is loaded again,
+     * e.g. when an evicted page of a {@link PagedEntityList} is reloaded.  The rows aren't new to the list, so listeners
+     * that maintain derived state (indexes, projections) should ignore this event.  Views can use it to render rows
+     * that they were waiting for.
+     */
+    public class EntitiesReloadedEvent extends EntityListEvent {
+        private int index;
+        private List<? extends Entity> entities;
+        
+        public EntitiesReloadedEvent(int index, List<? extends Entity> entities) {
+            this.index = index;
+            this.entities = entities;
+        }
+        
+        /**
+         * Gets the index of the first reloaded entity.
+         * @return 
+         */
+        public int getIndex() {
+            return index;
+        }
+        
+        /**
+         * Gets the number of entities that were reloaded.
+         * @return 
+         */
+        public int getCount() {
+            return entities.size();
+        }
+        
+        /**
+         * Gets the entities that were reloaded, in index order.
+         * @return 
+         */
+        public List<? extends Entity> getEntities() {
+            return entities;
+        }
+    }
+    
+    /**
+     * Event fired when the contents of the list are replaced as a whole (e.g. when an {@link EntityListProjection} is
+     * rebuilt with a new filter).  It is fired instead of individual remove and add events.  Listeners should re-read the
+     * whole list.
+     */
+    public class EntitiesResetEvent extends EntityListEvent {
+        private List<? extends Entity> oldEntities;
+        
+        public EntitiesResetEvent(List<? extends Entity> oldEntities) {
+            this.oldEntities = oldEntities;
+        }
+        
+        /**
+         * Gets the entities that were in the list before it was reset, so that listeners can release them.
+         * @return 
+         */
+        public List<? extends Entity> getOldEntities() {
+            return oldEntities;
+        }
+    }
+    
     public EntityList(int maxLen) {
         this(null, maxLen);
     }
@@ -146,6 +254,231 @@ public class EntityList<T extends Entity> extends Entity implements Iterable<T>
         return entities.get(index);
     }
 
+    /**
+     * Adds a hash index on the property with the given tag.  This makes {@link #findFirst(com.codename1.rad.models.Tag, java.lang.Object) }
+     * and {@link #findAll(com.codename1.rad.models.Tag, java.lang.Object) } lookups by that tag constant time instead of a linear 
+     * scan.  The index is kept up to date as rows are added and removed, and as the tagged property of each row changes.
+     * 
+     * [source,java]
+     * ----
+     * contacts.addIndex(Thing.identifier);
+     * Contact c = (Contact)contacts.findFirst(Thing.identifier, "1234");
+     * ----
+     * @param tag The tag.
+     */
+    public void addIndex(Tag tag) {
+        addIndex(tag, null, tag, false);
+    }
+    
+    /**
+     * Adds a hash index on the given property.
+     * @param prop The property.
+     * @see #addIndex(com.codename1.rad.models.Tag) 
+     */
+    public void addIndex(Property prop) {
+        addIndex(prop, prop, null, false);
+    }
+    
+    /**
+     * Adds a sorted index on the property with the given tag.  In addition to the lookups supported by a hash index,
+     * a sorted index supports range queries with {@link #range(com.codename1.rad.models.Tag, java.lang.Object, java.lang.Object) }.
+     * The property values must be mutually {@link Comparable}.
+     * @param tag The tag.
+     */
+    public void addSortedIndex(Tag tag) {
+        addIndex(tag, null, tag, true);
+    }
+    
+    /**
+     * Adds a sorted index on the given property.
+     * @param prop The property.
+     * @see #addSortedIndex(com.codename1.rad.models.Tag) 
+     */
+    public void addSortedIndex(Property prop) {
+        addIndex(prop, prop, null, true);
+    }
+    
+    private void addIndex(Object key, Property prop, Tag tag, boolean sorted) {
+        if (indexes == null) {
+            indexes = new HashMap<>();
+        }
+        EntityListIndex existing = indexes.get(key);
+        if (existing != null) {
+            if (existing.isSorted() == sorted) {
+                return;
+            }
+            existing.dispose();
+        }
+        indexes.put(key, new EntityListIndex(this, prop, tag, sorted));
+    }
+    
+    /**
+     * Removes the index on the property with the given tag.
+     * @param tag The tag.
+     */
+    public void removeIndex(Tag tag) {
+        removeIndexImpl(tag);
+    }
+    
+    /**
+     * Removes the index on the given property.
+     * @param prop The property.
+     */
+    public void removeIndex(Property prop) {
+        removeIndexImpl(prop);
+    }
+    
+    private void removeIndexImpl(Object key) {
+        if (indexes != null) {
+            EntityListIndex index = indexes.remove(key);
+            if (index != null) {
+                index.dispose();
+            }
+        }
+    }
+    
+    private static Object getValue(Entity row, Property prop, Tag tag) {
+        if (row == null) {
+            return null;
+        }
+        if (prop == null) {
+            EntityType type = row.getEntityType();
+            prop = type == null ? null : type.findProperty(tag);
+            if (prop == null) {
+                return null;
+            }
+        }
+        return prop.getValue(row);
+    }
+    
+    private T findFirstImpl(Object key, Property prop, Tag tag, Object value) {
+        EntityListIndex index = indexes == null ? null : indexes.get(key);
+        if (index != null) {
+            return (T)index.findFirst(value);
+        }
+        if (value == null) {
+            return null;
+        }
+        for (T row : this) {
+            if (value.equals(getValue(row, prop, tag))) {
+                return row;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Finds a row whose property with the given tag has the given value.  Uses an index if one was added with 
+     * {@link #addIndex(com.codename1.rad.models.Tag) } or {@link #addSortedIndex(com.codename1.rad.models.Tag) }, and otherwise 
+     * scans the list.  Values are compared using `equals()`, so the value must be of the same type as the property.
+     * @param tag The tag.
+     * @param value The value.
+     * @return The first matching row, or null if none matches.
+     */
+    public T findFirst(Tag tag, Object value) {
+        return findFirstImpl(tag, null, tag, value);
+    }
+    
+    /**
+     * Finds a row whose property has the given value.
+     * @param prop The property.
+     * @param value The value.
+     * @return The first matching row, or null if none matches.
+     * @see #findFirst(com.codename1.rad.models.Tag, java.lang.Object) 
+     */
+    public T findFirst(Property prop, Object value) {
+        return findFirstImpl(prop, prop, null, value);
+    }
+    
+    private List<T> findAllImpl(Object key, Property prop, Tag tag, Object value) {
+        List<T> out = new ArrayList<>();
+        EntityListIndex index = indexes == null ? null : indexes.get(key);
+        if (index != null) {
+            index.findAll(value, out);
+            return out;
+        }
+        if (value == null) {
+            return out;
+        }
+        for (T row : this) {
+            if (value.equals(getValue(row, prop, tag))) {
+                out.add(row);
+            }
+        }
+        return out;
+    }
+    
+    /**
+     * Finds all rows whose property with the given tag has the given value.
+     * @param tag The tag.
+     * @param value The value.
+     * @return The matching rows.
+     * @see #findFirst(com.codename1.rad.models.Tag, java.lang.Object) 
+     */
+    public List<T> findAll(Tag tag, Object value) {
+        return findAllImpl(tag, null, tag, value);
+    }
+    
+    /**
+     * Finds all rows whose property has the given value.
+     * @param prop The property.
+     * @param value The value.
+     * @return The matching rows.
+     * @see #findFirst(com.codename1.rad.models.Tag, java.lang.Object) 
+     */
+    public List<T> findAll(Property prop, Object value) {
+        return findAllImpl(prop, prop, null, value);
+    }
+    
+    private List<T> rangeImpl(Object key, Property prop, Tag tag, Object from, Object to) {
+        List<T> out = new ArrayList<>();
+        EntityListIndex index = indexes == null ? null : indexes.get(key);
+        if (index != null && index.isSorted()) {
+            index.range(from, to, false, out);
+            return out;
+        }
+        for (T row : this) {
+            Object value = getValue(row, prop, tag);
+            if (value != null 
+                    && (from == null || ((Comparable)value).compareTo(from) >= 0) 
+                    && (to == null || ((Comparable)value).compareTo(to) < 0)) {
+                out.add(row);
+            }
+        }
+        Collections.sort(out, new Comparator<T>() {
+            @Override
+            public int compare(T o1, T o2) {
+                return ((Comparable)getValue(o1, prop, tag)).compareTo(getValue(o2, prop, tag));
+            }
+        });
+        return out;
+    }
+    
+    /**
+     * Finds the rows whose property with the given tag has a value in the given range, ordered by value.  Uses a sorted
+     * index if one was added with {@link #addSortedIndex(com.codename1.rad.models.Tag) }, and otherwise scans and sorts 
+     * the list.
+     * @param tag The tag.
+     * @param from The lower bound (inclusive), or null for no lower bound.
+     * @param to The upper bound (exclusive), or null for no upper bound.
+     * @return The matching rows, ordered by value.
+     */
+    public List<T> range(Tag tag, Object from, Object to) {
+        return rangeImpl(tag, null, tag, from, to);
+    }
+    
+    /**
+     * Finds the rows whose property has a value in the given range, ordered by value.
+     * @param prop The property.
+     * @param from The lower bound (inclusive), or null for no lower bound.
+     * @param to The upper bound (exclusive), or null for no upper bound.
+     * @return The matching rows, ordered by value.
+     * @see #range(com.codename1.rad.models.Tag, java.lang.Object, java.lang.Object) 
+     */
+    public List<T> range(Property prop, Object from, Object to) {
+        return rangeImpl(prop, prop, null, from, to);
+    }
+
     protected void fireEntityAdded(Entity e, int index) {
         if (listeners != null && listeners.hasListeners()) {
             listeners.fireActionEvent(new EntityAddedEvent(e, index));
@@ -158,6 +491,24 @@ public class EntityList<T extends Entity> extends Entity implements Iterable<T>
         }
     }
     
+    protected void fireEntitiesAdded(int index, List<? extends Entity> added) {
+        if (listeners != null && listeners.hasListeners()) {
+            listeners.fireActionEvent(new EntitiesAddedEvent(index, added));
+        }
+    }
+    
+    protected void fireEntitiesReloaded(int index, List<? extends Entity> reloaded) {
+        if (listeners != null && listeners.hasListeners()) {
+            listeners.fireActionEvent(new EntitiesReloadedEvent(index, reloaded));
+        }
+    }
+    
+    protected void fireEntitiesReset(List<? extends Entity> oldEntities) {
+        if (listeners != null && listeners.hasListeners()) {
+            listeners.fireActionEvent(new EntitiesResetEvent(oldEntities));
+        }
+    }
+    
     public void addActionListener(ActionListener<EntityListEvent> l) {
         if (listeners == null) {
             listeners = new EventDispatcher();
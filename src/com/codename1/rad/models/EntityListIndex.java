@@ -0,0 +1,331 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.models;
+
+import com.codename1.rad.models.EntityList.EntitiesAddedEvent;
+import com.codename1.rad.models.EntityList.EntitiesResetEvent;
+import com.codename1.rad.models.EntityList.EntityAddedEvent;
+import com.codename1.rad.models.EntityList.EntityListEvent;
+import com.codename1.rad.models.EntityList.EntityRemovedEvent;
+import com.codename1.ui.events.ActionListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An internal secondary index on the rows of an {@link EntityList}, keyed by the value of a property.  The property is
+ * identified either directly, or by a {@link Tag} which is resolved against each row's {@link EntityType}.
+ *
+ * A hash index maps each key to the rows with that key.  A sorted index keeps the rows ordered by key, so that it can
+ * also answer range queries.  Keys of a sorted index must be mutually {@link Comparable}.  Rows with a null key are not
+ * indexed.
+ *
+ * The index is maintained incrementally from the list's add and remove events, and from property change events on
+ * the indexed property of each row.  The index remembers the key that each row was indexed under, so that a row can
+ * be found in O(1) (hash) or with a binary search (sorted) when its key changes.  Inserting a row into, or removing a row
+ * from, a sorted index shifts the rows after it, so those updates are O(n).  When the index is created, the sorted rows
+ * are built with a single sort instead.
+ * @author shannah
+ * @see EntityList#addIndex(com.codename1.rad.models.Tag)
+ * @see EntityList#addSortedIndex(com.codename1.rad.models.Tag)
+ */
+class EntityListIndex {
+    private final EntityList<?> list;
+    private final Property property;
+    private final Tag tag;
+    private final boolean sorted;
+
+    /**
+     * The key that each row is currently indexed under.  Contains every row that has been added, with a null key for
+     * rows that aren't indexed.
+     */
+    private final Map<Entity,Object> keys = new HashMap<>();
+
+    /**
+     * For a hash index, maps each key to either a single row, or a {@link List} of rows.
+     */
+    private final Map<Object,Object> buckets;
+
+    /**
+     * For a sorted index, the indexed rows ordered by key.  Rows with equal keys are kept in the order they were indexed.
+     */
+    private final List<Entity> sortedRows;
+
+    private final ActionListener<EntityListEvent> listListener = evt -> {
+        if (evt instanceof EntitiesAddedEvent) {
+            for (Entity e : ((EntitiesAddedEvent)evt).getEntities()) {
+                addRow(e);
+            }
+        } else if (evt instanceof EntityAddedEvent) {
+            addRow(((EntityAddedEvent)evt).getEntity());
+        } else if (evt instanceof EntityRemovedEvent) {
+            removeRow(((EntityRemovedEvent)evt).getEntity());
+        } else if (evt instanceof EntitiesResetEvent) {
+            for (Entity e : ((EntitiesResetEvent)evt).getOldEntities()) {
+                removeRow(e);
+            }
+            for (Entity e : list) {
+                addRow(e);
+            }
+        }
+    };
+
+    private final ActionListener<PropertyChangeEvent> rowListener = evt -> {
+        Entity row = (Entity)evt.getSource();
+        unindex(row);
+        index(row);
+    };
+
+    EntityListIndex(EntityList<?> list, Property property, Tag tag, boolean sorted) {
+        this.list = list;
+        this.property = property;
+        this.tag = tag;
+        this.sorted = sorted;
+        buckets = sorted ? null : new HashMap<Object,Object>();
+        sortedRows = sorted ? new ArrayList<Entity>() : null;
+        if (sorted) {
+            // Collect the keyed rows, and sort them once, rather than inserting each one.  The sort is stable, so
+            // rows with equal keys stay in list order.
+            for (Entity row : list) {
+                Property prop = getProperty(row);
+                if (prop == null || keys.containsKey(row)) {
+                    continue;
+                }
+                row.addPropertyChangeListener(prop, rowListener);
+                Object key = prop.getValue(row);
+                keys.put(row, key);
+                if (key != null) {
+                    sortedRows.add(row);
+                }
+            }
+            Collections.sort(sortedRows, (a, b) -> compare(keys.get(a), keys.get(b)));
+        } else {
+            for (Entity row : list) {
+                addRow(row);
+            }
+        }
+        list.addActionListener(listListener);
+    }
+
+    boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Removes all listeners registered by this index.
+     */
+    void dispose() {
+        list.removeActionListener(listListener);
+        for (Entity row : list) {
+            Property prop = getProperty(row);
+            if (prop != null) {
+                row.removePropertyChangeListener(prop, rowListener);
+            }
+        }
+        keys.clear();
+        if (buckets != null) {
+            buckets.clear();
+        }
+        if (sortedRows != null) {
+            sortedRows.clear();
+        }
+    }
+
+    private Property getProperty(Entity row) {
+        if (row == null) {
+            return null;
+        }
+        if (property != null) {
+            return property;
+        }
+        EntityType type = row.getEntityType();
+        return type == null ? null : type.findProperty(tag);
+    }
+
+    private Object getKey(Entity row) {
+        Property prop = getProperty(row);
+        return prop == null ? null : prop.getValue(row);
+    }
+
+    private void addRow(Entity row) {
+        Property prop = getProperty(row);
+        if (prop == null || keys.containsKey(row)) {
+            // Already indexed, e.g. a row that was added to the list twice.
+            return;
+        }
+        row.addPropertyChangeListener(prop, rowListener);
+        index(row);
+    }
+
+    private void removeRow(Entity row) {
+        Property prop = getProperty(row);
+        if (prop == null) {
+            return;
+        }
+        row.removePropertyChangeListener(prop, rowListener);
+        unindex(row);
+        keys.remove(row);
+    }
+
+    private void index(Entity row) {
+        Object key = getKey(row);
+        keys.put(row, key);
+        if (key == null) {
+            return;
+        }
+        if (sorted) {
+            sortedRows.add(upperBound(key), row);
+            return;
+        }
+        Object existing = buckets.get(key);
+        if (existing == null) {
+            buckets.put(key, row);
+        } else if (existing instanceof List) {
+            ((List<Entity>)existing).add(row);
+        } else {
+            List<Entity> bucket = new ArrayList<>(2);
+            bucket.add((Entity)existing);
+            bucket.add(row);
+            buckets.put(key, bucket);
+        }
+    }
+
+    private void unindex(Entity row) {
+        Object key = keys.get(row);
+        if (key == null) {
+            return;
+        }
+        if (sorted) {
+            // Search using the key the row was indexed under, since its current key may have changed.
+            int len = sortedRows.size();
+            for (int i=lowerBound(key); i<len; i++) {
+                Entity candidate = sortedRows.get(i);
+                if (candidate == row) {
+                    sortedRows.remove(i);
+                    break;
+                }
+                if (compare(keys.get(candidate), key) != 0) {
+                    break;
+                }
+            }
+            keys.put(row, null);
+            return;
+        }
+        keys.put(row, null);
+        Object existing = buckets.get(key);
+        if (existing == row) {
+            buckets.remove(key);
+        } else if (existing instanceof List) {
+            List<Entity> bucket = (List<Entity>)existing;
+            bucket.remove(row);
+            if (bucket.size() == 1) {
+                buckets.put(key, bucket.get(0));
+            }
+        }
+    }
+
+    private static int compare(Object a, Object b) {
+        return ((Comparable)a).compareTo(b);
+    }
+
+    /**
+     * Index of the first row whose key is greater than or equal to the given key.
+     */
+    private int lowerBound(Object key) {
+        int lo = 0;
+        int hi = sortedRows.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(keys.get(sortedRows.get(mid)), key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Index of the first row whose key is greater than the given key.
+     */
+    private int upperBound(Object key) {
+        int lo = 0;
+        int hi = sortedRows.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(keys.get(sortedRows.get(mid)), key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds a row with the given key.  If several rows have the key, returns the one that was indexed first.
+     * @param value The key.
+     * @return The row, or null if there is none.
+     */
+    Entity findFirst(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (sorted) {
+            int i = lowerBound(value);
+            if (i < sortedRows.size()) {
+                Entity row = sortedRows.get(i);
+                if (compare(keys.get(row), value) == 0) {
+                    return row;
+                }
+            }
+            return null;
+        }
+        Object existing = buckets.get(value);
+        if (existing instanceof List) {
+            return ((List<Entity>)existing).get(0);
+        }
+        return (Entity)existing;
+    }
+
+    /**
+     * Finds all rows with the given key.
+     * @param value The key.
+     * @param out The list to add the rows to.
+     */
+    void findAll(Object value, List out) {
+        if (value == null) {
+            return;
+        }
+        if (sorted) {
+            range(value, value, true, out);
+            return;
+        }
+        Object existing = buckets.get(value);
+        if (existing instanceof List) {
+            out.addAll((List<Entity>)existing);
+        } else if (existing != null) {
+            out.add(existing);
+        }
+    }
+
+    /**
+     * Finds the rows with keys in the given range, in key order.  Only supported by sorted indexes.
+     * @param from The lower bound (inclusive), or null for no lower bound.
+     * @param to The upper bound, or null for no upper bound.
+     * @param toInclusive Whether the upper bound is inclusive.
+     * @param out The list to add the rows to.
+     */
+    void range(Object from, Object to, boolean toInclusive, List out) {
+        int start = from == null ? 0 : lowerBound(from);
+        int end = to == null ? sortedRows.size() : toInclusive ? upperBound(to) : lowerBound(to);
+        for (int i=start; i<end; i++) {
+            out.add(sortedRows.get(i));
+        }
+    }
+}
@@ -0,0 +1,482 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.models;
+
+import com.codename1.rad.models.EntityList.EntitiesAddedEvent;
+import com.codename1.rad.models.EntityList.EntitiesResetEvent;
+import com.codename1.rad.models.EntityList.EntityAddedEvent;
+import com.codename1.rad.models.EntityList.EntityListEvent;
+import com.codename1.rad.models.EntityList.EntityRemovedEvent;
+import com.codename1.ui.events.ActionListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A live, read-only view of another {@link EntityList} that is filtered by an {@link EntityTest}, and/or sorted by
+ * a {@link Comparator}.  The projection listens to the source list, and to property changes on its rows, and updates
+ * itself incrementally: rows are inserted at their sorted position using binary search, and removed from their current
+ * position, firing {@link EntityAddedEvent} and {@link EntityRemovedEvent} events with the affected index.  The list is
+ * never re-sorted as a whole, except when the filter or comparator is replaced.  Then the projection is rebuilt, and a
+ * single {@link EntitiesResetEvent} is fired.  If the filter was created by {@link TextIndex#createFilter(java.lang.String) }
+ * on an index of the source list, the rebuild takes the matching rows from the index rather than testing every row.
+ *
+ * Each row is also given an order label, which increases along the projection.  When a row's properties change, its
+ * old position is found by binary search on the labels, since the comparator can no longer be used to find it.
+ *
+ * Since a projection is itself an {@link EntityList}, it can be displayed in an {@link com.codename1.rad.ui.entityviews.EntityListView},
+ * or used as the source of another projection.
+ *
+ * A projection registers listeners on its source and on the source's rows.  Call {@link #detach() } when the projection
+ * is no longer needed, so that it can be garbage collected.
+ *
+ * == Example
+ *
+ * [source,java]
+ * ----
+ * EntityListProjection<Contact> byName = new EntityListProjection<>(contacts, null,
+ *     (a, b) -> a.getText(Person.name).compareToIgnoreCase(b.getText(Person.name)),
+ *     Contact.name);
+ *
+ * EntityListProjection<Contact> favorites = new EntityListProjection<>(contacts,
+ *     e -> Boolean.TRUE.equals(e.getBoolean(Contact.favorite)),
+ *     null,
+ *     Contact.favorite);
+ * ----
+ * @author shannah
+ */
+public class EntityListProjection<T extends Entity> extends EntityList<T> {
+    private final EntityList<T> source;
+    private EntityTest filter;
+    private Comparator<? super T> comparator;
+    private final Property[] watchedProperties;
+    private final List<T> rows = new ArrayList<>();
+
+    /**
+     * The order label of each row.  Labels increase along {@link #rows}, and don't depend on the rows' properties, so
+     * they still locate a row after its sort key has changed.
+     */
+    private final Map<T,Long> labels = new HashMap<>();
+
+    /**
+     * The spacing between the labels of consecutive rows when the labels are reassigned.
+     */
+    private static final long LABEL_GAP = 1L << 20;
+    private boolean attached;
+
+    private final ActionListener<EntityListEvent> sourceListener = evt -> {
+        if (evt instanceof EntitiesAddedEvent) {
+            EntitiesAddedEvent eae = (EntitiesAddedEvent)evt;
+            sourceRangeAdded(eae.getIndex(), eae.getEntities());
+        } else if (evt instanceof EntityAddedEvent) {
+            EntityAddedEvent eae = (EntityAddedEvent)evt;
+            watch(eae.getEntity());
+            sourceAdded((T)eae.getEntity(), eae.getIndex());
+        } else if (evt instanceof EntityRemovedEvent) {
+            Entity e = ((EntityRemovedEvent)evt).getEntity();
+            unwatch(e);
+            removeRow((T)e);
+        } else if (evt instanceof EntitiesResetEvent) {
+            for (Entity e : ((EntitiesResetEvent)evt).getOldEntities()) {
+                unwatch(e);
+            }
+            for (T row : source) {
+                watch(row);
+            }
+            rebuild();
+        }
+    };
+
+    private final ActionListener<PropertyChangeEvent> rowListener = evt -> {
+        rowChanged((T)evt.getSource());
+    };
+
+    /**
+     * Creates a projection.
+     * @param source The source list.
+     * @param filter The filter.  Only rows that pass the test are included.  May be null to include all rows.
+     * @param comparator The sort order.  May be null to keep rows in source order.
+     * @param watchedProperties The properties that the filter and comparator depend on.  When one of these properties changes
+     * on a row, the row is re-tested and re-positioned.  If no properties are given, changes to any property are watched.
+     * @throws IllegalArgumentException If the source is a {@link PagedEntityList}.
+     */
+    public EntityListProjection(EntityList<T> source, EntityTest filter, Comparator<? super T> comparator, Property... watchedProperties) {
+        super(source.getRowType(), -1);
+        if (source instanceof PagedEntityList) {
+            throw new IllegalArgumentException("A PagedEntityList cannot be the source of a projection, since the projection would keep evicted rows in memory");
+        }
+        this.source = source;
+        this.filter = filter;
+        this.comparator = comparator;
+        this.watchedProperties = watchedProperties;
+        attach();
+    }
+
+    /**
+     * Gets the source list.
+     * @return
+     */
+    public EntityList<T> getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the filter.
+     * @return The filter, or null if all rows are included.
+     */
+    public EntityTest getFilter() {
+        return filter;
+    }
+
+    /**
+     * Replaces the filter, and rebuilds the projection.
+     * @param filter The filter.  May be null to include all rows.
+     */
+    public void setFilter(EntityTest filter) {
+        this.filter = filter;
+        rebuild();
+    }
+
+    /**
+     * Gets the comparator.
+     * @return The comparator, or null if rows are in source order.
+     */
+    public Comparator<? super T> getComparator() {
+        return comparator;
+    }
+
+    /**
+     * Replaces the comparator, and rebuilds the projection.
+     * @param comparator The comparator.  May be null to keep rows in source order.
+     */
+    public void setComparator(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+        rebuild();
+    }
+
+    /**
+     * Registers listeners on the source list and its rows, and builds the projection.  This is called by the
+     * constructor, so it only needs to be called explicitly after {@link #detach() }.
+     */
+    public void attach() {
+        if (attached) {
+            return;
+        }
+        attached = true;
+        source.addActionListener(sourceListener);
+        for (T row : source) {
+            watch(row);
+        }
+        rebuild();
+    }
+
+    /**
+     * Removes the listeners from the source list and its rows.  The projection stops updating until
+     * {@link #attach() } is called.
+     */
+    public void detach() {
+        if (!attached) {
+            return;
+        }
+        attached = false;
+        source.removeActionListener(sourceListener);
+        for (T row : source) {
+            unwatch(row);
+        }
+    }
+
+    private void watch(Entity row) {
+        if (row == null) {
+            return;
+        }
+        if (watchedProperties.length == 0) {
+            row.addPropertyChangeListener(rowListener);
+        } else {
+            for (Property p : watchedProperties) {
+                row.addPropertyChangeListener(p, rowListener);
+            }
+        }
+    }
+
+    private void unwatch(Entity row) {
+        if (row == null) {
+            return;
+        }
+        if (watchedProperties.length == 0) {
+            row.removePropertyChangeListener(rowListener);
+        } else {
+            for (Property p : watchedProperties) {
+                row.removePropertyChangeListener(p, rowListener);
+            }
+        }
+    }
+
+    private boolean accept(T row) {
+        return row != null && (filter == null || filter.test(row));
+    }
+
+    /**
+     * Rebuilds the projection from the source, and fires a single {@link EntitiesResetEvent}.  If the filter is backed
+     * by a {@link TextIndex} of the source, the rows are taken from the index's search results.  Search results are in no
+     * particular order, so when there is no comparator the source is scanned to keep source order, checking each row
+     * against the results.
+     */
+    private void rebuild() {
+        List<T> old = new ArrayList<T>(rows);
+        rows.clear();
+        Set matches = filter instanceof TextIndex.QueryFilter ? ((TextIndex.QueryFilter)filter).getMatches(source) : null;
+        if (matches != null && comparator != null) {
+            for (Object row : matches) {
+                rows.add((T)row);
+            }
+        } else {
+            for (T row : source) {
+                if (matches != null ? matches.contains(row) : accept(row)) {
+                    rows.add(row);
+                }
+            }
+        }
+        if (comparator != null) {
+            // Collections.sort() is stable, so rows that compare equal keep their source order.
+            Collections.sort(rows, comparator);
+        }
+        relabel();
+        if (!old.isEmpty() || !rows.isEmpty()) {
+            fireEntitiesReset(old);
+        }
+        setChanged();
+    }
+
+    /**
+     * Finds the index at which a row should be inserted to keep the rows sorted.  Rows that compare equal are
+     * kept in insertion order.
+     * @param row The row.
+     * @return
+     */
+    private int insertionIndex(T row) {
+        int lo = 0;
+        int hi = rows.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(rows.get(mid), row) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the current index of a row by binary search on its order label.  This works even if the row's sort key has
+     * changed since it was positioned.
+     * @param row The row.
+     * @return The index, or -1 if the row isn't in the projection.
+     */
+    private int indexOfRow(T row) {
+        Long label = labels.get(row);
+        if (label == null) {
+            return -1;
+        }
+        long target = label;
+        int lo = 0;
+        int hi = rows.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long l = labels.get(rows.get(mid));
+            if (l < target) {
+                lo = mid + 1;
+            } else if (l > target) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts a row, and gives it a label between the labels of its neighbours.  If there is no room between them,
+     * all rows are relabelled.
+     * @param index The index.
+     * @param row The row.
+     */
+    private void addAt(int index, T row) {
+        rows.add(index, row);
+        Long prev = index > 0 ? labels.get(rows.get(index-1)) : null;
+        Long next = index < rows.size()-1 ? labels.get(rows.get(index+1)) : null;
+        if (prev == null && next == null) {
+            labels.put(row, 0L);
+        } else if (prev == null) {
+            labels.put(row, next - LABEL_GAP);
+        } else if (next == null) {
+            labels.put(row, prev + LABEL_GAP);
+        } else if (next - prev > 1) {
+            labels.put(row, prev + (next - prev) / 2);
+        } else {
+            relabel();
+        }
+    }
+
+    private T removeAt(int index) {
+        T row = rows.remove(index);
+        labels.remove(row);
+        return row;
+    }
+
+    private void relabel() {
+        labels.clear();
+        int len = rows.size();
+        for (int i=0; i<len; i++) {
+            labels.put(rows.get(i), i * LABEL_GAP);
+        }
+    }
+
+    /**
+     * Finds the index at which a row should be inserted in an unsorted projection, so that the projection stays in
+     * source order.
+     * @param row The row.
+     * @param sourceIndex The row's index in the source, or -1 if not known.
+     * @return
+     */
+    private int sourceOrderIndex(T row, int sourceIndex) {
+        if (sourceIndex >= 0 && sourceIndex >= source.size() - 1) {
+            // Appended to the source (the common case), so it goes at the end.
+            return rows.size();
+        }
+        // Count the projected rows that precede the row in the source.
+        int pos = 0;
+        for (T r : source) {
+            if (r == row) {
+                return pos;
+            }
+            if (pos < rows.size() && rows.get(pos) == r) {
+                pos++;
+            }
+        }
+        return rows.size();
+    }
+
+    private int insertRow(T row, int sourceIndex) {
+        int index = comparator != null ? insertionIndex(row) : sourceOrderIndex(row, sourceIndex);
+        addAt(index, row);
+        return index;
+    }
+
+    private void sourceAdded(T row, int sourceIndex) {
+        if (!accept(row)) {
+            return;
+        }
+        int index = insertRow(row, sourceIndex);
+        fireEntityAdded(row, index);
+        setChanged();
+    }
+
+    private void sourceRangeAdded(int sourceIndex, List<? extends Entity> added) {
+        if (comparator == null && sourceIndex + added.size() >= source.size()) {
+            // Appended to the end of the source, so the accepted rows form a contiguous range at the end of the projection.
+            List<T> accepted = new ArrayList<>();
+            for (Entity e : added) {
+                watch(e);
+                if (accept((T)e)) {
+                    accepted.add((T)e);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                int index = rows.size();
+                for (T row : accepted) {
+                    addAt(rows.size(), row);
+                }
+                fireEntitiesAdded(index, accepted);
+                setChanged();
+            }
+            return;
+        }
+        int i = sourceIndex;
+        for (Entity e : added) {
+            watch(e);
+            sourceAdded((T)e, i++);
+        }
+    }
+
+    private void removeRow(T row) {
+        int index = indexOfRow(row);
+        if (index < 0) {
+            return;
+        }
+        removeAt(index);
+        fireEntityRemoved(row, index);
+        setChanged();
+    }
+
+    private void rowChanged(T row) {
+        int index = indexOfRow(row);
+        boolean include = accept(row);
+        if (index < 0) {
+            if (include) {
+                int newIndex = insertRow(row, -1);
+                fireEntityAdded(row, newIndex);
+                setChanged();
+            }
+            return;
+        }
+        if (!include) {
+            removeAt(index);
+            fireEntityRemoved(row, index);
+            setChanged();
+            return;
+        }
+        if (comparator == null) {
+            return;
+        }
+        boolean inOrder = (index == 0 || comparator.compare(rows.get(index-1), row) <= 0)
+                && (index == rows.size()-1 || comparator.compare(row, rows.get(index+1)) <= 0);
+        if (inOrder) {
+            return;
+        }
+        removeAt(index);
+        fireEntityRemoved(row, index);
+        int newIndex = insertionIndex(row);
+        addAt(newIndex, row);
+        fireEntityAdded(row, newIndex);
+        setChanged();
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    @Override
+    public T get(int index) {
+        return rows.get(index);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return rows.iterator();
+    }
+
+    @Override
+    public void add(T link) {
+        throw new UnsupportedOperationException("EntityListProjection is read-only.  Add rows to the source list instead.");
+    }
+
+    @Override
+    public boolean remove(T link) {
+        throw new UnsupportedOperationException("EntityListProjection is read-only.  Remove rows from the source list instead.");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("EntityListProjection is read-only.  Clear the source list instead.");
+    }
+}
@@ -9,10 +9,12 @@ package com.codename1.rad.models;
 import com.codename1.rad.models.Property.Description;
 import com.codename1.rad.models.Property.Label;
 import com.codename1.rad.models.Property.Widget;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -75,6 +77,13 @@ public class EntityType implements Iterable<Property> {
     private EntityType superType;
     //private Map<String,Property> properties = new HashMap<>();
     private final Set<Property> propertiesSet = new LinkedHashSet<>();
+    
+    /**
+     * Properties in the order they were added.  A property's index in this list is its ordinal, which
+     * is used by {@link Entity} to track which properties have changed.
+     */
+    private final List<Property> propertiesList = new ArrayList<>();
+    private final Map<Property,Integer> propertyOrdinals = new HashMap<>();
     private static Map<Class<? extends EntityType>, EntityType> types = new HashMap<>();
     
     public static EntityType getEntityType(Class<? extends EntityType> type) {
@@ -91,7 +100,10 @@ public class EntityType implements Iterable<Property> {
     }
     
     public void addProperty(Property property) {
-        propertiesSet.add(property);
+        if (propertiesSet.add(property)) {
+            propertyOrdinals.put(property, propertiesList.size());
+            propertiesList.add(property);
+        }
     }
     
     public void addAllProperties(Property... properties) {
@@ -103,6 +115,12 @@ public class EntityType implements Iterable<Property> {
     public boolean removeProperty(Property property) {
         if (propertiesSet.contains(property)) {
             propertiesSet.remove(property);
+            propertiesList.remove(property);
+            propertyOrdinals.clear();
+            int len = propertiesList.size();
+            for (int i=0; i<len; i++) {
+                propertyOrdinals.put(propertiesList.get(i), i);
+            }
             return true;
         }
         return false;
@@ -113,6 +131,36 @@ public class EntityType implements Iterable<Property> {
         return propertiesSet.iterator();
     }
 
+    /**
+     * Gets the ordinal of a property in this entity type.  Ordinals are assigned in the order
+     * that properties are added, starting at 0.  Removing a property causes the ordinals of properties
+     * added after it to shift down.
+     * @param property The property.
+     * @return The ordinal, or -1 if the property is not part of this entity type.
+     */
+    public int getPropertyIndex(Property property) {
+        Integer out = propertyOrdinals.get(property);
+        return out == null ? -1 : out;
+    }
+    
+    /**
+     * Gets the property with the given ordinal.
+     * @param index The ordinal.
+     * @return The property.
+     * @see #getPropertyIndex(com.codename1.rad.models.Property) 
+     */
+    public Property getPropertyAt(int index) {
+        return propertiesList.get(index);
+    }
+    
+    /**
+     * Gets the number of properties in this entity type.
+     * @return 
+     */
+    public int size() {
+        return propertiesList.size();
+    }
+    
     public boolean isDynamic() {
         return false;
     }
@@ -126,28 +174,28 @@ public class EntityType implements Iterable<Property> {
     public StringProperty string(Attribute... atts) {
         StringProperty out = new StringProperty();
         out.setAttributes(atts);
-        propertiesSet.add(out);
+        addProperty(out);
         return out;
     }
     
     public <T> SimpleProperty<T> object(Class<T> type, Attribute... atts) {
         SimpleProperty<T> out = new SimpleProperty<T>(type);
         out.setAttributes(atts);
-        propertiesSet.add(out);
+        addProperty(out);
         return out;
     }
     
     public DateProperty date(Attribute... atts) {
         DateProperty out = new DateProperty();
         out.setAttributes(atts);
-        propertiesSet.add(out);
+        addProperty(out);
         return out;
     }
     
     public IntProperty Integer(Attribute... atts) {
         IntProperty p = new IntProperty();
         p.setAttributes(atts);
-        propertiesSet.add(p);
+        addProperty(p);
         
         return p;
      
@@ -156,21 +204,21 @@ public class EntityType implements Iterable<Property> {
     public DoubleProperty Double(Attribute... atts) {
         DoubleProperty d = new DoubleProperty();
         d.setAttributes(atts);
-        propertiesSet.add(d);
+        addProperty(d);
         return d;
     }
     
     public BooleanProperty Boolean(Attribute... atts) {
         BooleanProperty b = new BooleanProperty();
         b.setAttributes(atts);
-        propertiesSet.add(b);
+        addProperty(b);
         return b;
     }
     
     public <T extends EntityList> ListProperty<T> compose(Class<T> type, Attribute... atts) {
         ListProperty p = new ListProperty(type);
         p.setAttributes(atts);
-        propertiesSet.add(p);
+        addProperty(p);
         return p;
     }
     
@@ -181,7 +229,7 @@ public class EntityType implements Iterable<Property> {
     public <T extends Entity> EntityProperty<T> entity(Class<T> type, Attribute... atts) {
         EntityProperty<T> p =  new EntityProperty(type);
         p.setAttributes(atts);
-        propertiesSet.add(p);
+        addProperty(p);
         return p;
     }
     
@@ -0,0 +1,65 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.models;
+
+import com.codename1.util.AsyncResource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link PagedEntityList.PageSource} that serves pages from a list that is already in memory.  Pages are delivered
+ * immediately.  This is mainly useful for tests, and for prototyping a UI before the real page source is available.
+ * @author shannah
+ */
+public class InMemoryPageSource<T extends Entity> implements PagedEntityList.PageSource<T> {
+    private final List<T> rows;
+    private boolean sizeKnown = true;
+
+    /**
+     * Creates a page source for the given rows.
+     * @param rows The rows.  The list is not copied.
+     */
+    public InMemoryPageSource(List<T> rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Creates a page source for the rows of the given entity list.
+     * @param list The list.  Its rows are copied.
+     */
+    public InMemoryPageSource(EntityList<T> list) {
+        this.rows = new ArrayList<>();
+        for (T row : list) {
+            rows.add(row);
+        }
+    }
+
+    /**
+     * Sets whether this source reports its size.  If false, {@link #getSize() } returns -1, which can be used to simulate
+     * a source whose size isn't known in advance.
+     * @param sizeKnown
+     */
+    public void setSizeKnown(boolean sizeKnown) {
+        this.sizeKnown = sizeKnown;
+    }
+
+    @Override
+    public int getSize() {
+        return sizeKnown ? rows.size() : -1;
+    }
+
+    @Override
+    public AsyncResource<List<T>> fetch(int offset, int limit) {
+        AsyncResource<List<T>> out = new AsyncResource<>();
+        int end = Math.min(rows.size(), offset + limit);
+        List<T> page = new ArrayList<>();
+        for (int i=offset; i<end; i++) {
+            page.add(rows.get(i));
+        }
+        out.complete(page);
+        return out;
+    }
+}
@@ -5,6 +5,7 @@
  */
 package com.codename1.rad.models;
 
+import com.codename1.rad.text.MemoizedNumberFormatter;
 import com.codename1.rad.text.NumberFormatter;
 
 /**
@@ -14,6 +15,7 @@ import com.codename1.rad.text.NumberFormatter;
  * @see com.codename1.rad.ui.UI#decimalFormat(int) 
  * @see com.codename1.rad.ui.UI#currencyFormat() 
  * @see com.codename1.rad.ui.UI#intFormat() 
+ * @see com.codename1.rad.ui.UI#memoizedNumberFormat(com.codename1.rad.text.NumberFormatter, int) 
  * @see com.codename1.rad.nodes.Node#getNumberFormatter() 
  */
 public class NumberFormatterAttribute extends Attribute<NumberFormatter> {
@@ -22,4 +24,15 @@ public class NumberFormatterAttribute extends Attribute<NumberFormatter> {
         super(value);
     }
     
+    /**
+     * Creates an attribute whose formatter remembers the strings for recently formatted values.  Use this for
+     * columns or lists that show the same values repeatedly.
+     * @param value The formatter.
+     * @param memoSize The maximum number of values to remember.  If 0, the formatter isn't memoized.
+     * @see MemoizedNumberFormatter
+     */
+    public NumberFormatterAttribute(NumberFormatter value, int memoSize) {
+        super(memoSize > 0 ? MemoizedNumberFormatter.memoize(value, memoSize) : value);
+    }
+    
 }
@@ -0,0 +1,349 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.models;
+
+import com.codename1.ui.CN;
+import com.codename1.util.AsyncResource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@link EntityList} whose rows are loaded on demand, one page at a time, from a {@link PageSource}.  Only a bounded number
+ * of pages are kept in memory.  When more pages are loaded than {@link #getMaxPages() }, the least recently used page is
+ * evicted, and will be loaded again the next time one of its rows is requested.
+ *
+ * {@link #get(int) } returns `null` for a row whose page isn't loaded yet, and requests the page.  When the page arrives,
+ * an {@link EntitiesAddedEvent} is fired with the range of rows that were loaded.  If the page had been loaded before and
+ * was evicted, an {@link EntitiesReloadedEvent} is fired instead, since listeners have already seen those positions.  The
+ * reloaded rows replace the rows at the same positions, and may be new instances.  {@link #invalidate() } fires an
+ * {@link EntitiesResetEvent}.  {@link com.codename1.rad.ui.entityviews.EntityListView} understands all three, and requests
+ * pages as the user scrolls.
+ *
+ * Eviction isn't reported to listeners, so a listener that keeps references to rows would defeat the memory bound.
+ * Indexes ({@link #addIndex(com.codename1.rad.models.Property) }), {@link TextIndex} and {@link EntityListProjection} are
+ * therefore not supported on paged lists, and throw an exception.
+ *
+ * If the page source doesn't know the total size, {@link #size() } is an estimate that covers the loaded rows, plus one
+ * more page while the last loaded page was full.
+ *
+ * Paged lists are read-only.  {@link #add(com.codename1.rad.models.Entity) } and {@link #remove(com.codename1.rad.models.Entity) } throw
+ * {@link UnsupportedOperationException}.
+ *
+ * == Example
+ *
+ * [source,java]
+ * ----
+ * PagedEntityList<Contact> contacts = new PagedEntityList<>(Contact.TYPE, new InMemoryPageSource<>(allContacts), 50);
+ * EntityListView view = new EntityListView(contacts, listNode);
+ * ----
+ * @author shannah
+ * @see InMemoryPageSource
+ */
+public class PagedEntityList<T extends Entity> extends EntityList<T> {
+
+    /**
+     * A source of pages for a {@link PagedEntityList}.
+     * @param <T> The row type.
+     */
+    public static interface PageSource<T extends Entity> {
+
+        /**
+         * Gets the total number of rows, if known.
+         * @return The number of rows, or -1 if it isn't known.
+         */
+        public int getSize();
+
+        /**
+         * Fetches a range of rows.  The result may be completed on any thread.  A result with fewer than `limit` rows
+         * indicates the end of the data.
+         * @param offset The index of the first row.
+         * @param limit The maximum number of rows to fetch.
+         * @return The rows.
+         */
+        public AsyncResource<List<T>> fetch(int offset, int limit);
+    }
+
+    private final PageSource<T> source;
+    private final int pageSize;
+    private int maxPages = 10;
+    private final Map<Integer,List<T>> pages = new HashMap<>();
+
+    /**
+     * Loaded page numbers, least recently used first.
+     */
+    private final List<Integer> lru = new ArrayList<>();
+    private final Set<Integer> pending = new HashSet<>();
+
+    /**
+     * Page numbers that have been loaded at least once since the list was created or invalidated.
+     */
+    private final Set<Integer> materialized = new HashSet<>();
+    private int estimatedSize;
+    private boolean endReached;
+
+    /**
+     * Creates a paged list.
+     * @param rowType The row type.
+     * @param source The page source.
+     * @param pageSize The number of rows per page.
+     */
+    public PagedEntityList(EntityType rowType, PageSource<T> source, int pageSize) {
+        super(rowType, -1);
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.source = source;
+        this.pageSize = pageSize;
+        this.estimatedSize = pageSize;
+    }
+
+    /**
+     * Gets the number of rows per page.
+     * @return
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Sets the maximum number of pages to keep in memory.
+     * @param maxPages The maximum number of pages.  Default is 10.
+     */
+    public void setMaxPages(int maxPages) {
+        this.maxPages = Math.max(1, maxPages);
+        evict(-1);
+    }
+
+    /**
+     * Gets the maximum number of pages to keep in memory.
+     * @return
+     */
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    /**
+     * Checks whether the total size of the list is known.  If not, {@link #size() } is an estimate.
+     * @return
+     */
+    public boolean isSizeKnown() {
+        return source.getSize() >= 0 || endReached;
+    }
+
+    /**
+     * Gets the size of the list.  If the size isn't known, this is an estimate.
+     * @return
+     * @see #isSizeKnown()
+     */
+    @Override
+    public int size() {
+        int size = source.getSize();
+        if (size >= 0) {
+            return size;
+        }
+        return estimatedSize;
+    }
+
+    /**
+     * Checks whether the row at the given index is loaded.
+     * @param index The row index.
+     * @return
+     */
+    public boolean isLoaded(int index) {
+        List<T> page = pages.get(index / pageSize);
+        return page != null && index % pageSize < page.size();
+    }
+
+    /**
+     * Gets the row at the given index.  If the row's page isn't loaded, the page is requested, and this returns null
+     * unless the page source delivered it immediately.
+     * @param index The row index.
+     * @return The row, or null if it isn't loaded.
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index "+index);
+        }
+        int pageNum = index / pageSize;
+        List<T> page = pages.get(pageNum);
+        if (page == null) {
+            requestPage(pageNum);
+            page = pages.get(pageNum);
+            if (page == null) {
+                return null;
+            }
+        }
+        touch(pageNum);
+        int offset = index % pageSize;
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    /**
+     * Requests the page containing the given row, if it isn't already loaded or loading.
+     * @param index The row index.
+     */
+    public void ensureLoaded(int index) {
+        int pageNum = index / pageSize;
+        if (!pages.containsKey(pageNum)) {
+            requestPage(pageNum);
+        }
+    }
+
+    /**
+     * Discards all loaded pages, and fires an {@link EntitiesResetEvent} with the rows that were loaded.  Rows will be
+     * loaded again from the page source as they are requested.
+     */
+    public void invalidate() {
+        List<T> old = new ArrayList<T>();
+        for (T row : this) {
+            old.add(row);
+        }
+        pages.clear();
+        lru.clear();
+        pending.clear();
+        materialized.clear();
+        endReached = false;
+        estimatedSize = pageSize;
+        fireEntitiesReset(old);
+        setChanged();
+    }
+
+    private void requestPage(int pageNum) {
+        if (pending.contains(pageNum)) {
+            return;
+        }
+        int offset = pageNum * pageSize;
+        int size = source.getSize();
+        if ((size >= 0 || endReached) && offset >= size()) {
+            return;
+        }
+        pending.add(pageNum);
+        source.fetch(offset, pageSize).ready(rows -> {
+            if (CN.isEdt()) {
+                pageLoaded(pageNum, rows);
+            } else {
+                CN.callSerially(() -> pageLoaded(pageNum, rows));
+            }
+        }).except(err -> {
+            CN.callSerially(() -> pending.remove(pageNum));
+        });
+    }
+
+    private void pageLoaded(int pageNum, List<T> rows) {
+        if (!pending.remove(pageNum)) {
+            // Invalidated while loading
+            return;
+        }
+        if (rows == null) {
+            rows = new ArrayList<T>();
+        }
+        pages.put(pageNum, rows);
+        touch(pageNum);
+        int offset = pageNum * pageSize;
+        int end = offset + rows.size();
+        if (rows.size() < pageSize) {
+            endReached = true;
+            estimatedSize = end;
+        } else if (!endReached && end + pageSize > estimatedSize) {
+            estimatedSize = end + pageSize;
+        }
+        evict(pageNum);
+        if (!rows.isEmpty()) {
+            if (materialized.add(pageNum)) {
+                fireEntitiesAdded(offset, rows);
+            } else {
+                fireEntitiesReloaded(offset, rows);
+            }
+        }
+        setChanged();
+    }
+
+    private void touch(int pageNum) {
+        int pos = lru.lastIndexOf(pageNum);
+        if (pos == lru.size()-1 && pos >= 0) {
+            return;
+        }
+        if (pos >= 0) {
+            lru.remove(pos);
+        }
+        lru.add(pageNum);
+    }
+
+    /**
+     * Evicts least recently used pages until no more than {@link #getMaxPages() } are loaded.
+     * @param keep A page number that should not be evicted, or -1.
+     */
+    private void evict(int keep) {
+        int i = 0;
+        while (lru.size() > maxPages && i < lru.size()) {
+            Integer pageNum = lru.get(i);
+            if (pageNum == keep) {
+                i++;
+                continue;
+            }
+            lru.remove(i);
+            pages.remove(pageNum);
+        }
+    }
+
+    /**
+     * Iterates over the rows that are currently loaded, in index order.  Rows that aren't loaded are skipped, and are
+     * not requested.
+     * @return
+     */
+    @Override
+    public Iterator<T> iterator() {
+        List<Integer> loaded = new ArrayList<>(lru);
+        Collections.sort(loaded);
+        List<T> out = new ArrayList<>();
+        for (Integer pageNum : loaded) {
+            out.addAll(pages.get(pageNum));
+        }
+        return out.iterator();
+    }
+
+    @Override
+    public void addIndex(Tag tag) {
+        throw new UnsupportedOperationException("Indexes are not supported on a PagedEntityList, since they would keep evicted rows in memory");
+    }
+
+    @Override
+    public void addIndex(Property prop) {
+        throw new UnsupportedOperationException("Indexes are not supported on a PagedEntityList, since they would keep evicted rows in memory");
+    }
+
+    @Override
+    public void addSortedIndex(Tag tag) {
+        throw new UnsupportedOperationException("Indexes are not supported on a PagedEntityList, since they would keep evicted rows in memory");
+    }
+
+    @Override
+    public void addSortedIndex(Property prop) {
+        throw new UnsupportedOperationException("Indexes are not supported on a PagedEntityList, since they would keep evicted rows in memory");
+    }
+
+    @Override
+    public void add(T link) {
+        throw new UnsupportedOperationException("PagedEntityList is read-only");
+    }
+
+    @Override
+    public boolean remove(T link) {
+        throw new UnsupportedOperationException("PagedEntityList is read-only");
+    }
+
+    @Override
+    public void clear() {
+        invalidate();
+    }
+}
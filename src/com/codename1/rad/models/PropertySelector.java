@@ -20,7 +20,6 @@ import com.codename1.ui.EncodedImage;
 import com.codename1.ui.Image;
 import com.codename1.ui.URLImage;
 import com.codename1.ui.events.ActionListener;
-import com.codename1.ui.util.EventDispatcher;
 import com.codename1.util.Base64;
 import com.codename1.util.StringUtil;
 import java.util.Date;
@@ -34,60 +33,130 @@ import java.util.Date;
  */
 public class PropertySelector {
     
-    private EventDispatcher listeners;
+    private CopyOnWriteListeners listeners;
     
     
     private ActionListener<PropertyChangeEvent> pcl;
     private ActionListener<PropertyChangeEvent> pcl() {
         if (pcl == null) {
             pcl = evt -> {
-                if (listeners != null && listeners.hasListeners() && !evt.isConsumed()) {
-                    listeners.fireActionEvent(evt);
+                if (listeners != null && !evt.isConsumed()) {
+                    listeners.fire(evt);
                 }
             };
         }
         return pcl;
     }
     
+    /**
+     * Listener registered on the parent selector (for child selectors) that is notified when
+     * the link to this selector's leaf entity may have changed.  It moves the leaf listener to the 
+     * new leaf entity, and then forwards the event.
+     */
+    private ActionListener<PropertyChangeEvent> linkListener;
+    private ActionListener<PropertyChangeEvent> linkListener() {
+        if (linkListener == null) {
+            linkListener = evt -> {
+                attachLeafListener();
+                pcl().actionPerformed(evt);
+            };
+        }
+        return linkListener;
+    }
     
+    /**
+     * The entity and property that {@link #pcl} is currently registered on.
+     */
+    private Entity attachedEntity;
+    private Property attachedProperty;
     
-    public void addPropertyChangeListener(ActionListener<PropertyChangeEvent> l) {
-        if (root != null) {
-            Property prop = property;
-            if (prop == null) {
-                prop = root.findProperty(tags);
-            }
-            if (prop != null) {
-                root.addPropertyChangeListener(prop, pcl());
+    /**
+     * True if this selector's internal listeners are registered weakly on the entities in the path.  This is
+     * the case while all listeners were added using {@link #addWeakPropertyChangeListener(com.codename1.ui.events.ActionListener) }.
+     */
+    private boolean weakAttachment;
+    
+    private void attachLeafListener() {
+        resolve();
+        if (attachedEntity == resolvedEntity && attachedProperty == resolvedProperty) {
+            return;
+        }
+        detachLeafListener();
+        if (resolvedEntity != null && resolvedProperty != null) {
+            if (weakAttachment) {
+                resolvedEntity.addWeakPropertyChangeListener(resolvedProperty, pcl());
+            } else {
+                resolvedEntity.addPropertyChangeListener(resolvedProperty, pcl());
             }
-        } else {
-            parent.addPropertyChangeListener(pcl());
+            attachedEntity = resolvedEntity;
+            attachedProperty = resolvedProperty;
+        }
+    }
+    
+    private void detachLeafListener() {
+        if (attachedEntity != null && pcl != null) {
+            attachedEntity.removePropertyChangeListener(attachedProperty, pcl);
         }
+        attachedEntity = null;
+        attachedProperty = null;
+    }
+    
+    /**
+     * Adds a listener to be notified when the selected property changes.  For child selectors, the listener is also notified when
+     * any link in the path changes, and the listener is automatically moved to the new leaf entity when an intermediate 
+     * entity is replaced.
+     * @param l The listener.
+     */
+    public void addPropertyChangeListener(ActionListener<PropertyChangeEvent> l) {
+        addPropertyChangeListener(l, false);
+    }
+    
+    /**
+     * Adds a listener to be notified when the selected property changes, without the entities in the path holding
+     * strong references to this selector.  As long as all listeners of this selector are added with this method, 
+     * the selector, and its listeners, can be garbage collected once the caller drops its references to them, even if they 
+     * are never removed.  The caller must therefore retain a strong reference to this selector (and the listener) for as long as 
+     * it should receive events.
+     * @param l The listener.
+     */
+    public void addWeakPropertyChangeListener(ActionListener<PropertyChangeEvent> l) {
+        addPropertyChangeListener(l, true);
+    }
+    
+    private void addPropertyChangeListener(ActionListener<PropertyChangeEvent> l, boolean weak) {
         if (listeners == null) {
-            listeners = new EventDispatcher();
+            listeners = new CopyOnWriteListeners();
+        }
+        if (listeners.isEmpty()) {
+            weakAttachment = weak;
+            if (parent != null) {
+                parent.addPropertyChangeListener(linkListener(), weak);
+            }
+            attachLeafListener();
+        } else if (weakAttachment && !weak) {
+            // A strong listener was added to a weakly attached selector, so it needs
+            // to be strongly attached from now on.
+            weakAttachment = false;
+            detachLeafListener();
+            if (parent != null) {
+                parent.removePropertyChangeListener(linkListener);
+                parent.addPropertyChangeListener(linkListener(), false);
+            }
+            attachLeafListener();
         }
-        listeners.addListener(l);
+        listeners.add(l);
         
     }
     
     public void removePropertyChangeListener(ActionListener<PropertyChangeEvent> l) {
-        if (listeners == null || !listeners.hasListeners()) {
+        if (listeners == null || listeners.isEmpty()) {
             return;
         }
-        listeners.removeListener(l);
-        if (!listeners.hasListeners()) {
-            if (pcl != null) {
-                if (root != null) {
-                    Property prop = property;
-                    if (prop == null) {
-                        prop = root.findProperty(tags);
-                    }
-                    if (prop != null) {
-                        root.removePropertyChangeListener(prop, pcl);
-                    }
-                } else {
-                    parent.removePropertyChangeListener(pcl);
-                }
+        listeners.remove(l);
+        if (listeners.isEmpty()) {
+            detachLeafListener();
+            if (parent != null && linkListener != null) {
+                parent.removePropertyChangeListener(linkListener);
             }
         }
     }
@@ -99,18 +168,59 @@ public class PropertySelector {
     private Property property;
     private PropertySelector parent;
     
-    public <T> T get(ContentType<T> type, T defaultValue) {
-        Entity e = null;
+    /**
+     * The cached resolved path.  {@link #resolvedEntity} is the entity that contains the selected property (i.e. the 
+     * leaf entity), and {@link #resolvedProperty} is the selected property in that entity.  For child selectors, the 
+     * cache is valid as long as the parent's leaf entity, leaf property, and the parent leaf entity's property version 
+     * are unchanged.  Hence a change to any link in the path only causes the part of the path after that link to be 
+     * re-resolved.
+     */
+    private Entity resolvedEntity;
+    private EntityType resolvedEntityType;
+    private Property resolvedProperty;
+    private Entity resolvedParentEntity;
+    private Property resolvedParentProperty;
+    private int resolvedParentVersion;
+    private boolean resolved;
+    
+    private void resolve() {
+        Entity e;
         if (parent != null) {
-            e = parent.get(ContentType.EntityType, null);
-        } else if (root != null) {
+            parent.resolve();
+            Entity parentEntity = parent.resolvedEntity;
+            Property parentProperty = parent.resolvedProperty;
+            int parentVersion = parentEntity == null ? 0 : parentEntity.getPropertyVersion();
+            if (resolved 
+                    && resolvedParentEntity == parentEntity 
+                    && resolvedParentProperty == parentProperty 
+                    && resolvedParentVersion == parentVersion) {
+                e = resolvedEntity;
+            } else {
+                resolvedParentEntity = parentEntity;
+                resolvedParentProperty = parentProperty;
+                resolvedParentVersion = parentVersion;
+                e = parent.get(ContentType.EntityType, null);
+            }
+        } else {
             e = root;
         }
+        if (e == null) {
+            resolvedEntity = null;
+            resolvedEntityType = null;
+            resolvedProperty = null;
+        } else if (!resolved || e != resolvedEntity || e.getEntityType() != resolvedEntityType || resolvedProperty == null) {
+            resolvedEntity = e;
+            resolvedEntityType = e.getEntityType();
+            resolvedProperty = property != null ? property : resolvedEntityType.findProperty(tags);
+        }
+        resolved = true;
+    }
+    
+    public <T> T get(ContentType<T> type, T defaultValue) {
+        resolve();
+        Entity e = resolvedEntity;
         if (e != null) {
-            Property prop = property;
-            if (prop == null) {
-                prop = e.getEntityType().findProperty(tags);
-            }
+            Property prop = resolvedProperty;
             if (prop != null) {
                 //if (type == ContentType.EntityType && !e.isEntity(prop)) {
                 //    return defaultValue;
@@ -198,41 +308,17 @@ public class PropertySelector {
     }
     
     public boolean isEmpty() {
-        Entity e = null;
-        if (parent != null) {
-            e = parent.get(ContentType.EntityType, null);
-        } else if (root != null) {
-            e = root;
-        }
-        
-        if (e != null) {
-            Property prop = property;
-            if (prop == null) {
-                prop = e.getEntityType().findProperty(tags);
-            }
-            if (prop != null) {
-                return e.isEmpty(prop);
-            }
+        resolve();
+        if (resolvedEntity != null && resolvedProperty != null) {
+            return resolvedEntity.isEmpty(resolvedProperty);
         }
         return true;
     }
     
     public boolean isFalsey() {
-        Entity e = null;
-        if (parent != null) {
-            e = parent.get(ContentType.EntityType, null);
-        } else if (root != null) {
-            e = root;
-        }
-        
-        if (e != null) {
-            Property prop = property;
-            if (prop == null) {
-                prop = e.getEntityType().findProperty(tags);
-            }
-            if (prop != null) {
-                return e.isFalsey(prop);
-            }
+        resolve();
+        if (resolvedEntity != null && resolvedProperty != null) {
+            return resolvedEntity.isFalsey(resolvedProperty);
         }
         return true;
     }
@@ -324,30 +410,13 @@ public class PropertySelector {
     
     
     public Property getLeafProperty() {
-        Entity e = root;
-        if (e == null) {
-            if (parent != null) {
-                e = parent.get(ContentType.EntityType, null);
-            }
-        }
-        if (e == null) {
-            return null;
-        }
-        Property prop = property;
-        if (prop == null) {
-            prop = e.getEntityType().findProperty(tags);
-        }
-        return prop;
+        resolve();
+        return resolvedProperty;
     }
     
     public Entity getLeafEntity() {
-        Entity e = root;
-        if (e == null) {
-            if (parent != null) {
-                e = parent.get(ContentType.EntityType, null);
-            }
-        }
-        return e;
+        resolve();
+        return resolvedEntity;
     }
     
 }
@@ -56,6 +56,8 @@ public class PropertyUtil {
         Object existing = entity.properties.get(prop);
         if (!Objects.equals(existing, value)) {
             entity.properties.put(prop, value);
+            entity.incrementPropertyVersion();
+            entity.markPropertyChanged(prop);
             entity.setChangedInternal();
             entity.firePropertyChangeEvent(new PropertyChangeEvent(entity, prop, existing, value));
         }
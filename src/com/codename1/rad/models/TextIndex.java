@@ -0,0 +1,506 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.models;
+
+import com.codename1.rad.models.EntityList.EntitiesAddedEvent;
+import com.codename1.rad.models.EntityList.EntitiesResetEvent;
+import com.codename1.rad.models.EntityList.EntityAddedEvent;
+import com.codename1.rad.models.EntityList.EntityListEvent;
+import com.codename1.rad.models.EntityList.EntityRemovedEvent;
+import com.codename1.ui.events.ActionListener;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A full-text index over the text properties of the rows of an {@link EntityList}.  The properties to index are
+ * identified by {@link Tag}, e.g. {@link com.codename1.rad.schemas.Thing#name} and {@link com.codename1.rad.schemas.Thing#description}.
+ *
+ * Text is split into lower-case tokens of letters and digits.  The index maps each token to the rows that contain it, and
+ * keeps the tokens in a prefix trie, so both exact token queries ({@link #findToken(java.lang.String) }) and prefix queries
+ * ({@link #findPrefix(java.lang.String) }) are answered without scanning the rows.  The index is maintained incrementally
+ * from the list's add and remove events, and from property change events on the indexed properties.
+ *
+ * The index can drive a live search in an {@link com.codename1.rad.ui.entityviews.EntityListView} via an {@link EntityListProjection}:
+ *
+ * [source,java]
+ * ----
+ * TextIndex<Contact> index = new TextIndex<>(contacts, Thing.name, Thing.description);
+ * EntityListProjection<Contact> results = index.createProjection("", null);
+ * EntityListView view = new EntityListView(results, listNode);
+ *
+ * searchField.addDataChangedListener((type, pos) -> {
+ *     results.setFilter(index.createFilter(searchField.getText()));
+ * });
+ * ----
+ *
+ * Call {@link #detach() } when the index is no longer needed.
+ * @author shannah
+ */
+public class TextIndex<T extends Entity> {
+    private final EntityList<T> list;
+    private final Tag[] tags;
+
+    /**
+     * Maps each token to the rows that contain it.
+     */
+    private final Map<String,Set<T>> postings = new HashMap<>();
+
+    /**
+     * The tokens that each row is currently indexed under.
+     */
+    private final Map<T,String[]> rowTokens = new HashMap<>();
+    private final TrieNode root = new TrieNode();
+    private boolean attached;
+
+    /**
+     * A node of the token trie.  Children are kept in parallel arrays, sorted by character.
+     */
+    private static class TrieNode {
+        private char[] chars = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+
+        /**
+         * The token that ends at this node, if it is currently in the index.
+         */
+        private String token;
+
+        private int indexOf(char c) {
+            int lo = 0;
+            int hi = chars.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (chars[mid] < c) {
+                    lo = mid + 1;
+                } else if (chars[mid] > c) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        TrieNode child(char c) {
+            int i = indexOf(c);
+            return i < 0 ? null : children[i];
+        }
+
+        TrieNode getOrCreateChild(char c) {
+            int i = indexOf(c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int pos = -(i + 1);
+            int len = chars.length;
+            char[] newChars = new char[len+1];
+            TrieNode[] newChildren = new TrieNode[len+1];
+            System.arraycopy(chars, 0, newChars, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            System.arraycopy(chars, pos, newChars, pos+1, len-pos);
+            System.arraycopy(children, pos, newChildren, pos+1, len-pos);
+            TrieNode out = new TrieNode();
+            newChars[pos] = c;
+            newChildren[pos] = out;
+            chars = newChars;
+            children = newChildren;
+            return out;
+        }
+
+        void removeChild(char c) {
+            int pos = indexOf(c);
+            if (pos < 0) {
+                return;
+            }
+            int len = chars.length;
+            char[] newChars = new char[len-1];
+            TrieNode[] newChildren = new TrieNode[len-1];
+            System.arraycopy(chars, 0, newChars, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            System.arraycopy(chars, pos+1, newChars, pos, len-pos-1);
+            System.arraycopy(children, pos+1, newChildren, pos, len-pos-1);
+            chars = newChars;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return token == null && chars.length == 0;
+        }
+
+        void collectTokens(List<String> out) {
+            if (token != null) {
+                out.add(token);
+            }
+            for (TrieNode child : children) {
+                child.collectTokens(out);
+            }
+        }
+    }
+
+    private final ActionListener<EntityListEvent> listListener = evt -> {
+        if (evt instanceof EntitiesAddedEvent) {
+            for (Entity e : ((EntitiesAddedEvent)evt).getEntities()) {
+                addRow((T)e);
+            }
+        } else if (evt instanceof EntityAddedEvent) {
+            addRow((T)((EntityAddedEvent)evt).getEntity());
+        } else if (evt instanceof EntityRemovedEvent) {
+            removeRow((T)((EntityRemovedEvent)evt).getEntity());
+        } else if (evt instanceof EntitiesResetEvent) {
+            for (Entity e : ((EntitiesResetEvent)evt).getOldEntities()) {
+                removeRow((T)e);
+            }
+            for (T row : list) {
+                addRow(row);
+            }
+        }
+    };
+
+    private final ActionListener<PropertyChangeEvent> rowListener = evt -> {
+        T row = (T)evt.getSource();
+        unindex(row);
+        index(row);
+    };
+
+    /**
+     * Creates an index over the given list.
+     * @param list The list.
+     * @param tags The tags of the text properties to index.
+     * @throws IllegalArgumentException If the list is a {@link PagedEntityList}.
+     */
+    public TextIndex(EntityList<T> list, Tag... tags) {
+        if (list instanceof PagedEntityList) {
+            throw new IllegalArgumentException("A PagedEntityList cannot be indexed, since the index would keep evicted rows in memory");
+        }
+        this.list = list;
+        this.tags = tags;
+        attach();
+    }
+
+    /**
+     * Registers listeners on the list and its rows, and indexes the rows.  This is called by the constructor, so it
+     * only needs to be called explicitly after {@link #detach() }.
+     */
+    public void attach() {
+        if (attached) {
+            return;
+        }
+        attached = true;
+        for (T row : list) {
+            addRow(row);
+        }
+        list.addActionListener(listListener);
+    }
+
+    /**
+     * Removes the listeners from the list and its rows, and clears the index.
+     */
+    public void detach() {
+        if (!attached) {
+            return;
+        }
+        attached = false;
+        list.removeActionListener(listListener);
+        for (T row : list) {
+            removeRow(row);
+        }
+    }
+
+    private Property[] getProperties(Entity row) {
+        EntityType type = row.getEntityType();
+        return type == null ? new Property[0] : getProperties(type);
+    }
+
+    private void addRow(T row) {
+        if (row == null || rowTokens.containsKey(row)) {
+            return;
+        }
+        for (Property p : getProperties(row)) {
+            row.addPropertyChangeListener(p, rowListener);
+        }
+        index(row);
+    }
+
+    private void removeRow(T row) {
+        if (row == null) {
+            return;
+        }
+        for (Property p : getProperties(row)) {
+            row.removePropertyChangeListener(p, rowListener);
+        }
+        unindex(row);
+    }
+
+    private void index(T row) {
+        List<String> tokens = new ArrayList<>();
+        for (Property p : getProperties(row)) {
+            Object value = p.getValue(row);
+            if (value != null) {
+                tokenize(String.valueOf(value), tokens);
+            }
+        }
+        String[] arr = tokens.toArray(new String[tokens.size()]);
+        rowTokens.put(row, arr);
+        for (String token : arr) {
+            Set<T> rows = postings.get(token);
+            if (rows == null) {
+                rows = new HashSet<>();
+                postings.put(token, rows);
+                addToTrie(token);
+            }
+            rows.add(row);
+        }
+    }
+
+    private void unindex(T row) {
+        String[] tokens = rowTokens.remove(row);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<T> rows = postings.get(token);
+            if (rows != null) {
+                rows.remove(row);
+                if (rows.isEmpty()) {
+                    postings.remove(token);
+                    removeFromTrie(token);
+                }
+            }
+        }
+    }
+
+    private void addToTrie(String token) {
+        TrieNode node = root;
+        int len = token.length();
+        for (int i=0; i<len; i++) {
+            node = node.getOrCreateChild(token.charAt(i));
+        }
+        node.token = token;
+    }
+
+    /**
+     * Removes a token from the trie, and prunes the nodes that no longer lead to any token, so that the trie doesn't
+     * keep growing as rows are edited.
+     */
+    private void removeFromTrie(String token) {
+        int len = token.length();
+        TrieNode[] path = new TrieNode[len+1];
+        path[0] = root;
+        for (int i=0; i<len; i++) {
+            path[i+1] = path[i].child(token.charAt(i));
+            if (path[i+1] == null) {
+                return;
+            }
+        }
+        path[len].token = null;
+        for (int i=len; i>0 && path[i].isEmpty(); i--) {
+            path[i-1].removeChild(token.charAt(i-1));
+        }
+    }
+
+    private TrieNode findNode(String prefix) {
+        TrieNode node = root;
+        int len = prefix.length();
+        for (int i=0; i<len && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Splits text into lower-case tokens of letters and digits.  Each distinct token is added once.
+     * @param text The text.
+     * @param out The list to add the tokens to.
+     */
+    private static void tokenize(String text, List<String> out) {
+        int len = text.length();
+        int start = -1;
+        for (int i=0; i<=len; i++) {
+            char c = i < len ? text.charAt(i) : ' ';
+            boolean wordChar = Character.isLetter(c) || Character.isDigit(c);
+            if (wordChar) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                String token = text.substring(start, i).toLowerCase();
+                if (!out.contains(token)) {
+                    out.add(token);
+                }
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Finds the rows that contain the given token.
+     * @param token The token.  Matched case-insensitively.
+     * @return The matching rows.
+     */
+    public Set<T> findToken(String token) {
+        Set<T> rows = postings.get(token.toLowerCase());
+        return rows == null ? new HashSet<T>() : new HashSet<T>(rows);
+    }
+
+    /**
+     * Finds the rows that contain a token starting with the given prefix.
+     * @param prefix The prefix.  Matched case-insensitively.
+     * @return The matching rows.
+     */
+    public Set<T> findPrefix(String prefix) {
+        Set<T> out = new HashSet<>();
+        TrieNode node = findNode(prefix.toLowerCase());
+        if (node == null) {
+            return out;
+        }
+        List<String> tokens = new ArrayList<>();
+        node.collectTokens(tokens);
+        for (String token : tokens) {
+            out.addAll(postings.get(token));
+        }
+        return out;
+    }
+
+    /**
+     * Finds the rows that match all of the words in the given query.  Each word is treated as a prefix, so that
+     * results can be shown as the user types.
+     * @param query The query.
+     * @return The matching rows.  If the query has no words, all indexed rows.
+     */
+    public Set<T> search(String query) {
+        List<String> words = new ArrayList<>();
+        tokenize(query, words);
+        return search(words);
+    }
+
+    private Set<T> search(List<String> words) {
+        if (words.isEmpty()) {
+            return new HashSet<T>(rowTokens.keySet());
+        }
+        Set<T> out = null;
+        for (String word : words) {
+            Set<T> matches = findPrefix(word);
+            if (out == null) {
+                out = matches;
+            } else if (matches.size() < out.size()) {
+                matches.retainAll(out);
+                out = matches;
+            } else {
+                out.retainAll(matches);
+            }
+            if (out.isEmpty()) {
+                break;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Checks whether a row matches all of the words in the given query, using the tokens that the row is indexed under.
+     * @param row The row.
+     * @param query The query.
+     * @return
+     */
+    public boolean matches(Entity row, String query) {
+        List<String> words = new ArrayList<>();
+        tokenize(query, words);
+        return matches(row, words);
+    }
+
+    private boolean matches(Entity row, List<String> words) {
+        if (words.isEmpty()) {
+            return true;
+        }
+        String[] tokens = rowTokens.get(row);
+        if (tokens == null) {
+            return false;
+        }
+        for (String word : words) {
+            boolean found = false;
+            for (String token : tokens) {
+                if (token.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A filter for a query.  Single rows are checked against the tokens they are currently indexed under, so the filter
+     * stays correct as rows change.  When an {@link EntityListProjection} of the indexed list is rebuilt with the filter,
+     * it takes the rows from {@link #search(java.lang.String) } instead of testing each row.
+     */
+    class QueryFilter implements EntityTest {
+        private final List<String> words;
+
+        QueryFilter(List<String> words) {
+            this.words = words;
+        }
+
+        @Override
+        public boolean test(Entity row) {
+            return matches(row, words);
+        }
+
+        /**
+         * Gets the rows that match the query.
+         * @param source The list that the rows are needed for.
+         * @return The matching rows, or null if the source isn't the indexed list.
+         */
+        Set<T> getMatches(EntityList<?> source) {
+            return source == list ? search(words) : null;
+        }
+    }
+
+    /**
+     * Creates a filter that accepts rows matching all of the words in the given query.  The filter checks each row
+     * against the tokens it is currently indexed under, so it stays correct as rows change.  A projection of the indexed
+     * list that is rebuilt with this filter gets its rows from the index.
+     * @param query The query.
+     * @return The filter.
+     * @see EntityListProjection#setFilter(com.codename1.rad.models.EntityTest)
+     */
+    public EntityTest createFilter(String query) {
+        List<String> words = new ArrayList<>();
+        tokenize(query, words);
+        return new QueryFilter(words);
+    }
+
+    /**
+     * Creates a projection of the list containing the rows that match the given query.  The rows are found with
+     * {@link #search(java.lang.String) }.  Update the query by setting a new filter on the projection using
+     * {@link #createFilter(java.lang.String) }.
+     * @param query The initial query.
+     * @param comparator The sort order, or null to keep the list order.
+     * @return The projection.
+     */
+    public EntityListProjection<T> createProjection(String query, Comparator<? super T> comparator) {
+        // The projection's row listeners are registered after this index's, so rows are re-indexed before
+        // the projection re-tests them.
+        Property[] watched = list.getRowType() == null ? new Property[0] : getProperties(list.getRowType());
+        return new EntityListProjection<T>(list, createFilter(query), comparator, watched);
+    }
+
+    private Property[] getProperties(EntityType type) {
+        List<Property> out = new ArrayList<>();
+        for (Tag tag : tags) {
+            Property p = type.findProperty(tag);
+            if (p != null && !out.contains(p)) {
+                out.add(p);
+            }
+        }
+        return out.toArray(new Property[out.size()]);
+    }
+}
@@ -11,6 +11,7 @@ import com.codename1.rad.attributes.ActionStyleAttribute;
 import com.codename1.rad.attributes.Badge;
 import com.codename1.rad.attributes.BadgeUIID;
 import com.codename1.rad.events.EventContext;
+import com.codename1.rad.events.EventFactory;
 import com.codename1.rad.attributes.Condition;
 import com.codename1.rad.attributes.ImageIcon;
 import com.codename1.rad.attributes.MaterialIcon;
@@ -412,21 +413,17 @@ public class ActionNode extends Node implements Proxyable {
     }
     
     public ActionEvent fireEvent(Entity entity, Component source, Map extraData) {
-        EventFactoryNode eventFactory = this.getEventFactory();
-        if (eventFactory == null) {
-            eventFactory = new EventFactoryNode(UI.getDefaultEventFactory());
-        }
-        EventContext eventContext = new EventContext();
-        eventContext.setEntity(entity);
-        eventContext.setAction(this);
-        eventContext.setEventSource(source); 
+        EventFactoryNode eventFactoryNode = this.getEventFactory();
+        EventFactory eventFactory = eventFactoryNode != null ? eventFactoryNode.getValue() : UI.getDefaultEventFactory();
+        EventContext eventContext = new EventContext(entity, source, this);
         if (extraData != null) {
-            for (Object k : extraData.keySet()) {
-                eventContext.putExtra(k, extraData.get(k));
+            for (Object o : extraData.entrySet()) {
+                Map.Entry e = (Map.Entry)o;
+                eventContext.putExtra(e.getKey(), e.getValue());
             }
         }
 
-        ActionEvent actionEvent = eventFactory.getValue().createEvent(eventContext);
+        ActionEvent actionEvent = eventFactory.createEvent(eventContext);
         NodeList actionListeners = getChildNodes(ActionListenerNode.class);
         for (Node n : actionListeners) {
             ActionListenerNode aln = (ActionListenerNode)n;
@@ -7,6 +7,7 @@ package com.codename1.rad.nodes;
 
 
 
+import com.codename1.rad.attributes.CommitPolicyAttribute;
 import com.codename1.rad.attributes.WidgetType;
 import com.codename1.rad.models.Attribute;
 import com.codename1.rad.models.Entity;
@@ -18,6 +19,7 @@ import com.codename1.rad.models.Property.Label;
 import com.codename1.rad.models.Property.Widget;
 import com.codename1.rad.models.PropertySelector;
 import com.codename1.rad.models.Tags;
+import com.codename1.rad.ui.CommitPolicy;
 import com.codename1.rad.ui.PropertyViewFactory;
 import com.codename1.rad.ui.UI;
 import com.codename1.rad.attributes.PropertySelectorAttribute;
@@ -381,4 +383,17 @@ public class FieldNode extends Node implements Proxyable {
         return att.getValue();
     }
     
+    /**
+     * Gets the policy for when text entered in this field is written to its property.
+     * @return The commit policy.  {@link CommitPolicy#IMMEDIATE} if none was specified.
+     * @see CommitPolicyAttribute
+     */
+    public CommitPolicy getCommitPolicy() {
+        CommitPolicyAttribute att = (CommitPolicyAttribute)findInheritedAttribute(CommitPolicyAttribute.class);
+        if (att == null || att.getValue() == null) {
+            return CommitPolicy.IMMEDIATE;
+        }
+        return att.getValue();
+    }
+    
 }
@@ -109,7 +109,7 @@ public class ButtonListPropertyView extends PropertyView<ButtonList> {
     
     @Override
     public void bind() {
-        getPropertySelector().addPropertyChangeListener(pcl);
+        addPropertyChangeListener(getPropertySelector(), pcl);
         getComponent().getModel().addSelectionListener(sl);
     }
 
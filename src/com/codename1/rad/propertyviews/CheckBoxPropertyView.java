@@ -43,7 +43,7 @@ public class CheckBoxPropertyView extends PropertyView<CheckBox> {
     
     @Override
     public void bind() {
-        getPropertySelector().addPropertyChangeListener(pcl);
+        addPropertyChangeListener(getPropertySelector(), pcl);
         getComponent().addChangeListener(al);
     }
 
@@ -40,7 +40,7 @@ public class ComboBoxPropertyView extends PropertyView<ComboBox> {
 
     @Override
     public void bind() {
-        getEntity().addPropertyChangeListener(getProperty(), pcl);
+        addPropertyChangeListener(getEntity(), getProperty(), pcl);
         getComponent().addActionListener(dcl);
     }
 
@@ -41,7 +41,7 @@ public class ImageContainerPropertyView extends PropertyView<ImageContainer> {
     
     @Override
     public void bind() {
-        getPropertySelector().addPropertyChangeListener(pcl);
+        addPropertyChangeListener(getPropertySelector(), pcl);
     }
 
     @Override
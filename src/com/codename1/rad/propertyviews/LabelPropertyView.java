@@ -14,6 +14,9 @@ import com.codename1.rad.models.Property;
 import com.codename1.rad.models.Property.Label;
 import com.codename1.rad.models.PropertyChangeEvent;
 import com.codename1.rad.models.PropertySelector;
+import com.codename1.rad.text.DateFormatter;
+import com.codename1.rad.text.TimeSensitiveDateFormatter;
+import com.codename1.rad.ui.RelativeTimeScheduler;
 import com.codename1.rad.ui.UI;
 import com.codename1.rad.ui.image.PropertyImageRenderer;
 import com.codename1.rad.ui.image.RoundImageRenderer;
@@ -42,6 +45,26 @@ public class LabelPropertyView extends PropertyView<com.codename1.ui.Label> {
         commit();
     };
     
+    /**
+     * Keeps the label current while it displays a date with a {@link TimeSensitiveDateFormatter}, such as "2 minutes ago".
+     */
+    private RelativeTimeScheduler.Refreshable timeRefresher = new RelativeTimeScheduler.Refreshable() {
+        @Override
+        public long getNextRefreshTime(long now) {
+            TimeSensitiveDateFormatter formatter = getTimeSensitiveFormatter();
+            if (formatter == null) {
+                return -1;
+            }
+            Date val = getPropertySelector().getDate(null);
+            return val == null ? -1 : formatter.getNextChangeTime(val, now);
+        }
+
+        @Override
+        public void refresh() {
+            update();
+        }
+    };
+    
     
     
     public LabelPropertyView(com.codename1.ui.Label component, Entity entity, FieldNode textField) {
@@ -56,16 +79,37 @@ public class LabelPropertyView extends PropertyView<com.codename1.ui.Label> {
 
     @Override
     public void bind() {
-        getPropertySelector().addPropertyChangeListener(pcl);
+        addPropertyChangeListener(getPropertySelector(), pcl);
         if (getIconPropertySelector() != null) {
-            iconPropertySelector.addPropertyChangeListener(pcl);
+            addPropertyChangeListener(iconPropertySelector, pcl);
         }
         //getEntity().addPropertyChangeListener(getPropertySelector(), pcl);
+        if (getTimeSensitiveFormatter() != null) {
+            RelativeTimeScheduler.getInstance().register(timeRefresher);
+        }
         
     }
+    
+    /**
+     * Gets the date formatter for this label if it is time-sensitive, and the bound property is a date.
+     * @return The formatter, or null.
+     */
+    private TimeSensitiveDateFormatter getTimeSensitiveFormatter() {
+        Property prop = getPropertySelector().getLeafProperty();
+        if (prop == null || prop.getContentType().getRepresentationClass() != Date.class) {
+            return null;
+        }
+        DateFormatterAttribute att = getField().getDateFormatter();
+        if (att == null) {
+            return null;
+        }
+        DateFormatter formatter = att.getValue();
+        return formatter instanceof TimeSensitiveDateFormatter ? (TimeSensitiveDateFormatter)formatter : null;
+    }
 
     @Override
     public void unbind() {
+        RelativeTimeScheduler.getInstance().unregister(timeRefresher);
         getPropertySelector().removePropertyChangeListener(pcl);
         if (getIconPropertySelector() != null) {
             getIconPropertySelector().removePropertyChangeListener(pcl);
@@ -104,6 +148,12 @@ public class LabelPropertyView extends PropertyView<com.codename1.ui.Label> {
         if (!Objects.equals(oldVal, newVal)) {
             getComponent().setText(newVal);
         }
+        if (isInitialized() && getTimeSensitiveFormatter() != null) {
+            // The date may have changed, so its next refresh time may have too.
+            RelativeTimeScheduler scheduler = RelativeTimeScheduler.getInstance();
+            scheduler.unregister(timeRefresher);
+            scheduler.register(timeRefresher);
+        }
         
         if (iconField != null) {
             PropertyImageRenderer iconRenderer = iconField.getIconRenderer();
@@ -43,7 +43,7 @@ public class RadioPropertyView extends PropertyView<RadioButton> {
     
     @Override
     public void bind() {
-        getPropertySelector().addPropertyChangeListener(pcl);
+        addPropertyChangeListener(getPropertySelector(), pcl);
         getComponent().addChangeListener(al);
     }
 
@@ -41,7 +41,7 @@ public class SpanLabelPropertyView extends PropertyView<com.codename1.components
 
     @Override
     public void bind() {
-        getEntity().addPropertyChangeListener(getProperty(), pcl);
+        addPropertyChangeListener(getEntity(), getProperty(), pcl);
         
     }
 
@@ -43,7 +43,7 @@ public class SwitchPropertyView extends PropertyView<Switch> {
     
     @Override
     public void bind() {
-        getPropertySelector().addPropertyChangeListener(pcl);
+        addPropertyChangeListener(getPropertySelector(), pcl);
         getComponent().addChangeListener(al);
     }
 
@@ -12,7 +12,6 @@ import com.codename1.rad.models.Entity;
 import com.codename1.rad.models.PropertyChangeEvent;
 import com.codename1.ui.TextArea;
 import com.codename1.ui.events.ActionListener;
-import com.codename1.ui.events.DataChangedListener;
 import java.util.Objects;
 
 /**
@@ -27,9 +26,10 @@ public class TextAreaPropertyView extends PropertyView<TextArea> {
         update();
     };
     
-    private DataChangedListener dcl = (type, index) ->{
-        commit();
-    };
+    /**
+     * Commits the text according to the field's {@link com.codename1.rad.ui.CommitPolicy}.
+     */
+    private TextCommitter committer;
     
     
     public TextAreaPropertyView(TextArea component, Entity entity, FieldNode field) {
@@ -38,13 +38,16 @@ public class TextAreaPropertyView extends PropertyView<TextArea> {
 
     @Override
     public void bind() {
-        getEntity().addPropertyChangeListener(getProperty(), pcl);
-        getComponent().addDataChangedListener(dcl);
+        addPropertyChangeListener(getEntity(), getProperty(), pcl);
+        if (committer == null) {
+            committer = new TextCommitter(this);
+        }
+        committer.bind();
     }
 
     @Override
     public void unbind() {
-        getComponent().removeDataChangedListener(dcl);
+        committer.unbind();
         getEntity().removePropertyChangeListener(getProperty(), pcl);
     }
     
@@ -57,7 +60,11 @@ public class TextAreaPropertyView extends PropertyView<TextArea> {
                 ContentType.Text
         );
         if (!Objects.equals(oldVal, newVal)) {
-            getComponent().setText(newVal);
+            if (committer != null) {
+                committer.setText(newVal);
+            } else {
+                getComponent().setText(newVal);
+            }
         }
     }
     
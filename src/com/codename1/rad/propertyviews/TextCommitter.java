@@ -0,0 +1,149 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.propertyviews;
+
+import com.codename1.rad.ui.CommitPolicy;
+import com.codename1.rad.ui.PropertyView;
+import com.codename1.ui.Component;
+import com.codename1.ui.Form;
+import com.codename1.ui.TextArea;
+import com.codename1.ui.events.ActionEvent;
+import com.codename1.ui.events.ActionListener;
+import com.codename1.ui.events.DataChangedListener;
+import com.codename1.ui.events.FocusListener;
+import com.codename1.ui.util.UITimer;
+
+/**
+ * Commits the text of a {@link TextFieldPropertyView} or {@link TextAreaPropertyView} according to the
+ * {@link CommitPolicy} of its field.
+ *
+ * The views set their text from the model with {@link #setText(java.lang.String) }, so that those changes aren't taken
+ * for user edits.  While the user has an edit that hasn't been committed yet (e.g. under {@link CommitPolicy.Type#OnFocusLost}
+ * before the field loses focus), changes to the model don't replace the text.  The edit is kept, and overwrites the model
+ * when it is committed.
+ * @author shannah
+ */
+class TextCommitter {
+    private final PropertyView<? extends TextArea> view;
+    private final CommitPolicy policy;
+    private UITimer timer;
+
+    /**
+     * Whether the text has changed since the last commit.
+     */
+    private boolean dirty;
+
+    /**
+     * Set while the text is being set from the model, so that the resulting data changed events are ignored.
+     */
+    private boolean updating;
+
+    private final DataChangedListener dcl = (type, index) -> {
+        if (!updating) {
+            changed();
+        }
+    };
+
+    private final FocusListener focusListener = new FocusListener() {
+        @Override
+        public void focusGained(Component cmp) {
+        }
+
+        @Override
+        public void focusLost(Component cmp) {
+            commitIfDirty();
+        }
+    };
+
+    private final ActionListener<ActionEvent> actionListener = evt -> {
+        commitIfDirty();
+    };
+
+    TextCommitter(PropertyView<? extends TextArea> view) {
+        this.view = view;
+        this.policy = view.getField().getCommitPolicy();
+    }
+
+    void bind() {
+        TextArea cmp = view.getComponent();
+        cmp.addDataChangedListener(dcl);
+        switch (policy.getType()) {
+            case OnFocusLost:
+                cmp.addFocusListener(focusListener);
+                cmp.addActionListener(actionListener);
+                break;
+            case OnAction:
+                cmp.addActionListener(actionListener);
+                break;
+        }
+    }
+
+    /**
+     * Removes the listeners, and commits any pending text.
+     */
+    void unbind() {
+        TextArea cmp = view.getComponent();
+        cmp.removeDataChangedListener(dcl);
+        cmp.removeFocusListener(focusListener);
+        cmp.removeActionListener(actionListener);
+        commitIfDirty();
+    }
+
+    /**
+     * Sets the text of the component from the model.  Does nothing while there is an uncommitted edit.
+     * @param text The text.
+     */
+    void setText(String text) {
+        if (dirty) {
+            return;
+        }
+        updating = true;
+        try {
+            view.getComponent().setText(text);
+        } finally {
+            updating = false;
+        }
+    }
+
+    private void changed() {
+        if (policy.getType() == CommitPolicy.Type.Immediate) {
+            view.commit();
+            return;
+        }
+        dirty = true;
+        if (policy.getType() == CommitPolicy.Type.Debounced) {
+            cancelTimer();
+            Form f = view.getComponentForm();
+            if (f == null) {
+                commitIfDirty();
+                return;
+            }
+            timer = new UITimer(() -> {
+                timer = null;
+                commitIfDirty();
+            });
+            timer.schedule(policy.getDelay(), false, f);
+        }
+    }
+
+    private void cancelTimer() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+    }
+
+    /**
+     * Commits the text if it has changed since the last commit.
+     */
+    void commitIfDirty() {
+        cancelTimer();
+        if (dirty) {
+            dirty = false;
+            view.commit();
+        }
+    }
+}
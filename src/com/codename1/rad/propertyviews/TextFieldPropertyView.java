@@ -13,7 +13,6 @@ import com.codename1.rad.models.Property;
 import com.codename1.rad.models.PropertyChangeEvent;
 import com.codename1.ui.TextField;
 import com.codename1.ui.events.ActionListener;
-import com.codename1.ui.events.DataChangedListener;
 import java.util.Objects;
 
 /**
@@ -28,9 +27,10 @@ public class TextFieldPropertyView extends PropertyView<TextField> {
         update();
     };
     
-    private DataChangedListener dcl = (type, index) ->{
-        commit();
-    };
+    /**
+     * Commits the text according to the field's {@link com.codename1.rad.ui.CommitPolicy}.
+     */
+    private TextCommitter committer;
     
     
     public TextFieldPropertyView(TextField component, Entity entity, FieldNode field) {
@@ -41,13 +41,16 @@ public class TextFieldPropertyView extends PropertyView<TextField> {
 
     @Override
     public void bind() {
-        getPropertySelector().addPropertyChangeListener(pcl);
-        getComponent().addDataChangedListener(dcl);
+        addPropertyChangeListener(getPropertySelector(), pcl);
+        if (committer == null) {
+            committer = new TextCommitter(this);
+        }
+        committer.bind();
     }
 
     @Override
     public void unbind() {
-        getComponent().removeDataChangedListener(dcl);
+        committer.unbind();
         getPropertySelector().removePropertyChangeListener(pcl);
     }
     
@@ -60,7 +63,11 @@ public class TextFieldPropertyView extends PropertyView<TextField> {
                 ContentType.Text
         );
         if (!Objects.equals(oldVal, newVal)) {
-            getComponent().setText(newVal);
+            if (committer != null) {
+                committer.setText(newVal);
+            } else {
+                getComponent().setText(newVal);
+            }
         }
     }
     
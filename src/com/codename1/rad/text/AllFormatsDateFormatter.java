@@ -11,13 +11,41 @@ import com.codename1.l10n.SimpleDateFormat;
 import com.codename1.util.StringUtil;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A Date formatter that includes many different date formats.  It will try to parse
  * dates using formats until it finds one that works.
+ * 
+ * The common ISO-8601 and RFC-1123 forms are parsed by a hand-written parser first, which doesn't throw exceptions
+ * on mismatches.  Other strings fall back to a list of {@link SimpleDateFormat}s, starting with the one that most 
+ * recently matched a string of the same shape in this formatter.  Use a separate instance per field (e.g. via {@link com.codename1.rad.models.DateFormatterAttribute})
+ * if different fields use different formats.
+ * 
+ * This class is thread-safe.
  * @author shannah
  */
 public class AllFormatsDateFormatter implements DateFormatter {
+    private static final AllFormatsDateFormatter instance = new AllFormatsDateFormatter();
+    
+    /**
+     * Maps the "shape" of strings that the fast path didn't handle (see {@link #shapeOf(java.lang.String) }) to the index
+     * into {@link #dateFormats} of the format that last parsed a string with that shape.  Keyed by shape rather than 
+     * remembering a single format because the formats are lenient, and an earlier match for a different shape could
+     * otherwise parse a string only partially.
+     */
+    private final Map<String,Integer> lastFormats = new HashMap<>();
+    private static final int MAX_SHAPES = 32;
+    
+    /**
+     * Gets a shared instance.  Used for conversions between text and dates in {@link com.codename1.rad.models.ContentType}.
+     * @return 
+     */
+    public static AllFormatsDateFormatter getInstance() {
+        return instance;
+    }
+
     private static ArrayList<DateFormat> dateFormats = new ArrayList<>();
     private static DateFormat outputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
     static {
@@ -43,19 +71,81 @@ public class AllFormatsDateFormatter implements DateFormatter {
 
     @Override
     public String format(Date date) {
-        return outputFormat.format(date);
+        synchronized (outputFormat) {
+            return outputFormat.format(date);
+        }
     }
 
     @Override
     public Date parse(String date) throws ParseException {
-        for (DateFormat fmt : dateFormats) {
-            try {
-                return fmt.parse(date);
-            } catch (ParseException pse) {}
+        Date out = FastDateParser.parse(date);
+        if (out != null) {
+            return out;
+        }
+        String shape = shapeOf(date);
+        Integer last;
+        synchronized (lastFormats) {
+            last = lastFormats.get(shape);
+        }
+        if (last != null) {
+            out = tryParse(last, date);
+            if (out != null) {
+                return out;
+            }
+        }
+        int len = dateFormats.size();
+        for (int i=0; i<len; i++) {
+            if (last != null && i == last) {
+                continue;
+            }
+            out = tryParse(i, date);
+            if (out != null) {
+                synchronized (lastFormats) {
+                    if (lastFormats.size() >= MAX_SHAPES) {
+                        lastFormats.clear();
+                    }
+                    lastFormats.put(shape, i);
+                }
+                return out;
+            }
         }
         throw new ParseException("Failed to parse date "+date, 0);
     }
     
+    private static Date tryParse(int index, String date) {
+        DateFormat fmt = dateFormats.get(index);
+        try {
+            // SimpleDateFormat is not thread-safe, and the formats are shared by all instances.
+            synchronized (fmt) {
+                return fmt.parse(date);
+            }
+        } catch (ParseException pse) {
+            return null;
+        }
+    }
+    
+    /**
+     * Gets the shape of a date string: digits are replaced by '9' and letters by 'a'.  E.g. "2020-01-31T10:00:00Z" 
+     * has the shape "9999-99-99a99:99:99a".
+     * @param date The date string.
+     * @return 
+     */
+    private static String shapeOf(String date) {
+        int len = date.length();
+        char[] out = new char[len];
+        for (int i=0; i<len; i++) {
+            char c = date.charAt(i);
+            if (c >= '0' && c <= '9') {
+                out[i] = '9';
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                out[i] = 'a';
+            } else {
+                out[i] = c;
+            }
+        }
+        return new String(out);
+    }
+    
     private static class SimpleDateFormatExt extends SimpleDateFormat {
 
     boolean convertTimezone = false;
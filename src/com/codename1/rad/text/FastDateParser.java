@@ -0,0 +1,271 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.text;
+
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * A hand-written parser for the most common date formats handled by {@link AllFormatsDateFormatter}.  It
+ * doesn't allocate anything other than the result (and a {@link Calendar} for local times), and it reports a mismatch
+ * by returning null rather than throwing an exception, so it is cheap to try before falling back to
+ * {@link com.codename1.l10n.SimpleDateFormat}.
+ *
+ * Supported formats:
+ *
+ * . `yyyy-MM-dd'T'HH:mm:ss.SSS'Z'` - Local time, for compatibility with {@link AllFormatsDateFormatter#format(java.util.Date) }.
+ * . `yyyy-MM-dd'T'HH:mm[:ss[.S...]]` followed by `Z` or an offset `+hh:mm`, `+hhmm` or `+hh`.  `Z` is UTC, except
+ *   in the format above.
+ * . `yyyy-MM-dd HH:mm:ss` - Local time.
+ * . `yyyy-MM-dd` - Local time.
+ * . `MM/dd/yyyy` - Local time.
+ * . `EEE, dd MMM yyyy HH:mm:ss` followed by `GMT`, `UT`, `UTC`, `Z` or an offset `+hhmm` (RFC-1123).
+ *
+ * All fields must be ASCII digits.  Anything else (e.g. named time zones) is left to the slow path.
+ * @author shannah
+ */
+class FastDateParser {
+    private static final String MONTHS = "janfebmaraprmayjunjulaugsepoctnovdec";
+
+    /**
+     * Parses the given string.
+     * @param s The string.
+     * @return The date, or null if the string isn't in one of the supported formats.
+     */
+    static Date parse(String s) {
+        int len = s.length();
+        if (len < 10) {
+            return null;
+        }
+        char c2 = s.charAt(2);
+        if (c2 == '/') {
+            return parseUSDate(s);
+        }
+        if (s.charAt(4) == '-') {
+            return parseIso(s);
+        }
+        if (c2 == 'n' || c2 == 'e' || c2 == 'd' || c2 == 'u' || c2 == 'i' || c2 == 't' || c2 == ',') {
+            return parseRfc1123(s);
+        }
+        return null;
+    }
+
+    private static int digits(String s, int pos, int count) {
+        if (pos + count > s.length()) {
+            return -1;
+        }
+        int out = 0;
+        for (int i=pos; i<pos+count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            out = out * 10 + (c - '0');
+        }
+        return out;
+    }
+
+    private static Date parseUSDate(String s) {
+        if (s.length() != 10 || s.charAt(5) != '/') {
+            return null;
+        }
+        int month = digits(s, 0, 2);
+        int day = digits(s, 3, 2);
+        int year = digits(s, 6, 4);
+        if (month < 0 || day < 0 || year < 0) {
+            return null;
+        }
+        return local(year, month, day, 0, 0, 0, 0);
+    }
+
+    private static Date parseIso(String s) {
+        int len = s.length();
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        if (year < 0 || month < 0 || day < 0 || s.charAt(7) != '-') {
+            return null;
+        }
+        if (len == 10) {
+            return local(year, month, day, 0, 0, 0, 0);
+        }
+        char sep = s.charAt(10);
+        if ((sep != 'T' && sep != ' ') || len < 16) {
+            return null;
+        }
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        if (hour < 0 || minute < 0 || s.charAt(13) != ':') {
+            return null;
+        }
+        int pos = 16;
+        int second = 0;
+        if (pos < len && s.charAt(pos) == ':') {
+            second = digits(s, pos+1, 2);
+            if (second < 0) {
+                return null;
+            }
+            pos += 3;
+        }
+        if (sep == ' ') {
+            // yyyy-MM-dd HH:mm:ss
+            return pos == len && pos == 19 ? local(year, month, day, hour, minute, second, 0) : null;
+        }
+        int millis = 0;
+        if (pos < len && s.charAt(pos) == '.') {
+            pos++;
+            int start = pos;
+            int scale = 100;
+            while (pos < len) {
+                char c = s.charAt(pos);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                millis += (c - '0') * scale;
+                scale /= 10;
+                pos++;
+            }
+            if (pos == start) {
+                return null;
+            }
+            if (pos - start == 3 && pos == len - 1 && s.charAt(pos) == 'Z') {
+                // AllFormatsDateFormatter.format() writes local time followed by a literal 'Z', and its slow path parses
+                // that pattern back as local time.  Keep exactly three fraction digits followed by Z local, so that
+                // formatted dates round trip, and so that the result doesn't depend on which path parsed it.  Any other
+                // precision followed by Z is a real ISO-8601 UTC time.
+                return local(year, month, day, hour, minute, second, millis);
+            }
+        }
+        if (pos >= len) {
+            return null;
+        }
+        int offset = parseOffset(s, pos, true);
+        if (offset == Integer.MIN_VALUE) {
+            return null;
+        }
+        return utc(year, month, day, hour, minute, second, millis, offset);
+    }
+
+    /**
+     * Parses a UTC offset of the form `Z`, `+hh:mm`, `+hhmm` or `+hh`, which must extend to the end of the string.
+     * @param s The string.
+     * @param pos The position of the sign.
+     * @param allowColon Whether `+hh:mm` is allowed.
+     * @return The offset in minutes, or Integer.MIN_VALUE if it isn't a valid offset.
+     */
+    private static int parseOffset(String s, int pos, boolean allowColon) {
+        int len = s.length();
+        char sign = s.charAt(pos);
+        if (sign == 'Z') {
+            return pos == len - 1 ? 0 : Integer.MIN_VALUE;
+        }
+        if (sign != '+' && sign != '-') {
+            return Integer.MIN_VALUE;
+        }
+        int hours = digits(s, pos+1, 2);
+        if (hours < 0) {
+            return Integer.MIN_VALUE;
+        }
+        int minutes = 0;
+        int rest = len - pos - 3;
+        if (rest == 3 && allowColon && s.charAt(pos+3) == ':') {
+            minutes = digits(s, pos+4, 2);
+        } else if (rest == 2) {
+            minutes = digits(s, pos+3, 2);
+        } else if (rest != 0) {
+            return Integer.MIN_VALUE;
+        }
+        if (minutes < 0) {
+            return Integer.MIN_VALUE;
+        }
+        int offset = hours * 60 + minutes;
+        return sign == '-' ? -offset : offset;
+    }
+
+    private static Date parseRfc1123(String s) {
+        int len = s.length();
+        int pos = s.indexOf(", ");
+        if (pos < 0 || pos > 9) {
+            return null;
+        }
+        pos += 2;
+        int dayLen = pos + 1 < len && s.charAt(pos+1) == ' ' ? 1 : 2;
+        int day = digits(s, pos, dayLen);
+        pos += dayLen;
+        if (day < 0 || pos + 22 > len || s.charAt(pos) != ' ' || s.charAt(pos+4) != ' ') {
+            return null;
+        }
+        int month = -1;
+        String mon = s.substring(pos+1, pos+4).toLowerCase();
+        int idx = MONTHS.indexOf(mon);
+        if (idx >= 0 && idx % 3 == 0) {
+            month = idx / 3 + 1;
+        }
+        pos += 5;
+        int year = digits(s, pos, 4);
+        pos += 4;
+        if (month < 0 || year < 0 || s.charAt(pos) != ' ' || s.charAt(pos+3) != ':' || s.charAt(pos+6) != ':' || s.charAt(pos+9) != ' ') {
+            return null;
+        }
+        int hour = digits(s, pos+1, 2);
+        int minute = digits(s, pos+4, 2);
+        int second = digits(s, pos+7, 2);
+        if (hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        pos += 10;
+        String zone = s.substring(pos);
+        int offset;
+        if ("GMT".equals(zone) || "UTC".equals(zone) || "UT".equals(zone) || "Z".equals(zone)) {
+            offset = 0;
+        } else {
+            offset = parseOffset(s, pos, false);
+            if (offset == Integer.MIN_VALUE) {
+                return null;
+            }
+        }
+        return utc(year, month, day, hour, minute, second, 0, offset);
+    }
+
+    private static Date local(int year, int month, int day, int hour, int minute, int second, int millis) {
+        Calendar cal = Calendar.getInstance();
+        cal.set(Calendar.YEAR, year);
+        cal.set(Calendar.MONTH, Calendar.JANUARY + month - 1);
+        cal.set(Calendar.DAY_OF_MONTH, day);
+        cal.set(Calendar.HOUR_OF_DAY, hour);
+        cal.set(Calendar.MINUTE, minute);
+        cal.set(Calendar.SECOND, second);
+        cal.set(Calendar.MILLISECOND, millis);
+        return cal.getTime();
+    }
+
+    /**
+     * Creates a date from fields in a fixed UTC offset.
+     * @param offset The offset from UTC in minutes.
+     */
+    private static Date utc(int year, int month, int day, int hour, int minute, int second, int millis, int offset) {
+        if (month < 1 || month > 12) {
+            return null;
+        }
+        long days = daysFromCivil(year, month, 1) + day - 1;
+        long time = ((days * 24 + hour) * 60 + minute - offset) * 60 + second;
+        return new Date(time * 1000 + millis);
+    }
+
+    /**
+     * Number of days from 1970-01-01 to the given date in the proleptic Gregorian calendar.
+     */
+    private static long daysFromCivil(int y, int m, int d) {
+        if (m <= 2) {
+            y--;
+        }
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + d - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+}
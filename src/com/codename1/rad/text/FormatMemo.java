@@ -0,0 +1,70 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.text;
+
+import com.codename1.l10n.L10NManager;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A bounded cache of formatted strings, used by {@link MemoizedNumberFormatter} and {@link MemoizedDateFormatter}.
+ * When full, the least recently used entry is evicted.  The cache is cleared whenever the {@link L10NManager} locale
+ * changes, since the formatted strings depend on it.
+ * @author shannah
+ */
+class FormatMemo<K> {
+    private final int capacity;
+    private final LinkedHashMap<K,String> entries = new LinkedHashMap<>();
+    private String locale;
+
+    FormatMemo(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Memo capacity must be at least 1 but was "+capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets the string for the given key, and marks it as most recently used.
+     * @param key The key.
+     * @return The string, or null if it isn't cached.
+     */
+    synchronized String get(K key) {
+        checkLocale();
+        String out = entries.remove(key);
+        if (out != null) {
+            entries.put(key, out);
+        }
+        return out;
+    }
+
+    synchronized void put(K key, String value) {
+        checkLocale();
+        entries.remove(key);
+        if (entries.size() >= capacity) {
+            Iterator<K> it = entries.keySet().iterator();
+            it.next();
+            it.remove();
+        }
+        entries.put(key, value);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void checkLocale() {
+        String current = L10NManager.getInstance().getLocale();
+        if (current == null ? locale != null : !current.equals(locale)) {
+            entries.clear();
+            locale = current;
+        }
+    }
+}
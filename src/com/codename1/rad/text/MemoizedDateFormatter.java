@@ -0,0 +1,95 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.text;
+
+import com.codename1.l10n.ParseException;
+import java.util.Date;
+
+/**
+ * A {@link DateFormatter} that wraps another formatter, and remembers the strings it produced for recently
+ * formatted dates.  This is useful for table columns and list rows that show the same dates repeatedly, since the
+ * localized formatters call {@link com.codename1.l10n.L10NManager} on every format.
+ *
+ * Dates are remembered by their time in milliseconds, since {@link Date} is mutable.  The memo holds at most the given
+ * number of dates, evicting the least recently used one when full, and is cleared when the locale changes.
+ *
+ * Formatters whose output depends on the current time (i.e. {@link TimeSensitiveDateFormatter}s such as
+ * {@link TimeAgoDateFormatter}) can't be memoized.  Use {@link #memoize(com.codename1.rad.text.DateFormatter, int) }
+ * to wrap a formatter only if it is safe to do so.
+ * @author shannah
+ * @see com.codename1.rad.models.DateFormatterAttribute#DateFormatterAttribute(com.codename1.rad.text.DateFormatter, int) 
+ */
+public class MemoizedDateFormatter implements DateFormatter {
+    private final DateFormatter delegate;
+    private final FormatMemo<Long> memo;
+
+    /**
+     * Creates a memoizing wrapper.
+     * @param delegate The formatter to wrap.  Must not be a {@link TimeSensitiveDateFormatter}.
+     * @param capacity The maximum number of dates to remember.
+     */
+    public MemoizedDateFormatter(DateFormatter delegate, int capacity) {
+        if (delegate instanceof TimeSensitiveDateFormatter) {
+            throw new IllegalArgumentException("Cannot memoize time-sensitive formatter "+delegate);
+        }
+        this.delegate = delegate;
+        this.memo = new FormatMemo<Long>(capacity);
+    }
+
+    /**
+     * Wraps the given formatter in a {@link MemoizedDateFormatter}, unless it is time-sensitive, or already memoized.
+     * @param formatter The formatter.
+     * @param capacity The maximum number of dates to remember.
+     * @return The wrapped formatter, or the formatter itself if it can't be memoized.
+     */
+    public static DateFormatter memoize(DateFormatter formatter, int capacity) {
+        if (formatter == null || formatter instanceof TimeSensitiveDateFormatter || formatter instanceof MemoizedDateFormatter) {
+            return formatter;
+        }
+        return new MemoizedDateFormatter(formatter, capacity);
+    }
+
+    /**
+     * Gets the wrapped formatter.
+     * @return
+     */
+    public DateFormatter getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String format(Date date) {
+        if (date == null) {
+            return delegate.format(date);
+        }
+        Long key = date.getTime();
+        String out = memo.get(key);
+        if (out == null) {
+            out = delegate.format(date);
+            if (out != null) {
+                memo.put(key, out);
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public Date parse(String date) throws ParseException {
+        return delegate.parse(date);
+    }
+
+    @Override
+    public boolean supportsParse() {
+        return delegate.supportsParse();
+    }
+
+    /**
+     * Clears the memo.
+     */
+    public void clear() {
+        memo.clear();
+    }
+}
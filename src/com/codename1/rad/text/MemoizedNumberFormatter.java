@@ -0,0 +1,92 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.text;
+
+import com.codename1.l10n.ParseException;
+
+/**
+ * A {@link NumberFormatter} that wraps another formatter, and remembers the strings it produced for recently
+ * formatted values.  This is useful for table columns and list rows that show the same values repeatedly, such as
+ * prices, since the localized formatters call {@link com.codename1.l10n.L10NManager} on every format.
+ *
+ * The memo holds at most the given number of values, evicting the least recently used one when full, and is
+ * cleared when the locale changes.  Only immutable numbers ({@link Integer}, {@link Long}, {@link Double}, {@link Float},
+ * {@link Short} and {@link Byte}) are memoized.  Other numbers are passed straight to the wrapped formatter.
+ *
+ * [source,java]
+ * ----
+ * new NumberFormatterAttribute(new CurrencyFormatter(), 200)
+ * ----
+ * @author shannah
+ * @see com.codename1.rad.models.NumberFormatterAttribute#NumberFormatterAttribute(com.codename1.rad.text.NumberFormatter, int) 
+ */
+public class MemoizedNumberFormatter implements NumberFormatter {
+    private final NumberFormatter delegate;
+    private final FormatMemo<Number> memo;
+
+    /**
+     * Creates a memoizing wrapper.
+     * @param delegate The formatter to wrap.
+     * @param capacity The maximum number of values to remember.
+     */
+    public MemoizedNumberFormatter(NumberFormatter delegate, int capacity) {
+        this.delegate = delegate;
+        this.memo = new FormatMemo<Number>(capacity);
+    }
+
+    /**
+     * Wraps the given formatter in a {@link MemoizedNumberFormatter}, unless it is already memoized.
+     * @param formatter The formatter.
+     * @param capacity The maximum number of values to remember.
+     * @return The wrapped formatter.
+     */
+    public static NumberFormatter memoize(NumberFormatter formatter, int capacity) {
+        if (formatter == null || formatter instanceof MemoizedNumberFormatter) {
+            return formatter;
+        }
+        return new MemoizedNumberFormatter(formatter, capacity);
+    }
+
+    /**
+     * Gets the wrapped formatter.
+     * @return
+     */
+    public NumberFormatter getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String format(Number number) {
+        if (!isImmutable(number)) {
+            return delegate.format(number);
+        }
+        String out = memo.get(number);
+        if (out == null) {
+            out = delegate.format(number);
+            if (out != null) {
+                memo.put(number, out);
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public Number parse(String number) throws ParseException {
+        return delegate.parse(number);
+    }
+
+    /**
+     * Clears the memo.
+     */
+    public void clear() {
+        memo.clear();
+    }
+
+    private static boolean isImmutable(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Double
+                || number instanceof Float || number instanceof Short || number instanceof Byte;
+    }
+}
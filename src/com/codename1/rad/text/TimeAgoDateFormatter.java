@@ -12,10 +12,18 @@ import java.util.Date;
 /**
  * A date formatter that formats dates like "2 days ago".
  * 
+ * Since the output depends on the current time, labels using this formatter are refreshed by 
+ * {@link com.codename1.rad.ui.RelativeTimeScheduler} as the output changes.
+ * 
  * NOTE: Does not support parsing.
  * @author shannah
  */
-public class TimeAgoDateFormatter implements DateFormatter {
+public class TimeAgoDateFormatter implements TimeSensitiveDateFormatter {
+    private static final long SECOND = 1000l;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    
     private DateUtil dateUtil = new DateUtil();
 
     @Override
@@ -32,5 +40,24 @@ public class TimeAgoDateFormatter implements DateFormatter {
     public boolean supportsParse() {
         return false;
     }
+
+    /**
+     * Gets the next time that the output may change.  The output counts seconds, minutes, hours or days depending on
+     * how long ago the date was, so the next change is at the next whole unit of elapsed time.
+     * @param date The date being formatted.
+     * @param now The current time in milliseconds.
+     * @return 
+     */
+    @Override
+    public long getNextChangeTime(Date date, long now) {
+        long time = date.getTime();
+        long age = now - time;
+        if (age < 0) {
+            // In the future.  Changes when it becomes the present.
+            return time;
+        }
+        long unit = age < MINUTE ? SECOND : age < HOUR ? MINUTE : age < DAY ? HOUR : DAY;
+        return time + (age / unit + 1) * unit;
+    }
     
 }
@@ -0,0 +1,25 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.text;
+
+import java.util.Date;
+
+/**
+ * Interface for date formatters whose output depends on the current time, such as {@link TimeAgoDateFormatter}.  Views
+ * that display dates with such a formatter can be kept current by {@link com.codename1.rad.ui.RelativeTimeScheduler}.
+ * @author shannah
+ */
+public interface TimeSensitiveDateFormatter extends DateFormatter {
+    
+    /**
+     * Gets the time at which the formatted value of the given date may next change.
+     * @param date The date being formatted.
+     * @param now The current time in milliseconds.
+     * @return The time in milliseconds at which {@link #format(java.util.Date) } may return a different value, or -1 if it
+     * will not change.
+     */
+    public long getNextChangeTime(Date date, long now);
+}
@@ -5,12 +5,17 @@
  */
 package com.codename1.rad.ui;
 
+import com.codename1.rad.controllers.ViewController;
 import com.codename1.rad.models.Entity;
 import com.codename1.rad.models.Property;
 import com.codename1.rad.models.PropertyChangeEvent;
 import com.codename1.rad.models.Tag;
+import com.codename1.ui.CN;
+import com.codename1.ui.Component;
 import com.codename1.ui.Container;
 import com.codename1.ui.events.ActionListener;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * A base class for a view that can bind to an entity.  Sublasses just need toi implement {@link #update() }.
@@ -19,9 +24,28 @@ import com.codename1.ui.events.ActionListener;
 public abstract class AbstractEntityView<T extends Entity> extends Container implements EntityView<T> {
     private T entity;
     
+    /**
+     * Whether updates are deferred, or null to use {@link UI#isDeferredUpdatesEnabled() }.
+     */
+    private Boolean deferredUpdates;
+    
+    /**
+     * Properties that changed since the last deferred update, or null if there are none.
+     */
+    private Set<Property> pendingChanges;
+    
+    /**
+     * Whether this view is in the {@link ViewUpdateScheduler}'s next pass.  Maintained by the scheduler.
+     */
+    boolean updateScheduled;
+    
     
     private ActionListener<PropertyChangeEvent> pcl = pce -> {
-        update();
+        if (isDeferredUpdates()) {
+            scheduleUpdate(pce.getProperty());
+        } else {
+            update();
+        }
     };
     
     public AbstractEntityView(T entity) {
@@ -29,7 +53,11 @@ public abstract class AbstractEntityView<T extends Entity> extends Container imp
     }
     
     public void bind() {
-        entity.addPropertyChangeListener(pcl);
+        if (UI.isWeakBindingEnabled()) {
+            entity.addWeakPropertyChangeListener(pcl);
+        } else {
+            entity.addPropertyChangeListener(pcl);
+        }
     }
     public void unbind() {
         entity.removePropertyChangeListener(pcl);
@@ -38,11 +66,114 @@ public abstract class AbstractEntityView<T extends Entity> extends Container imp
     @Override
     protected void initComponent() {
         super.initComponent();
+        ViewController.cacheViewController(this);
         bind();
+        reschedulePendingUpdate();
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        super.setVisible(visible);
+        if (visible) {
+            reschedulePendingUpdate();
+        }
+    }
+
+    /**
+     * Reschedules postponed changes when the view is laid out, which happens when it, or a hidden ancestor, is shown 
+     * again.
+     */
+    @Override
+    protected void laidOut() {
+        super.laidOut();
+        reschedulePendingUpdate();
+    }
+    
+    private void reschedulePendingUpdate() {
+        if (pendingChanges != null && !updateScheduled && isShowing()) {
+            ViewUpdateScheduler.getInstance().schedule(this);
+        }
+    }
+    
+    /**
+     * Sets whether property changes on this view's entity are applied by a deferred, coalesced call to 
+     * {@link #update(java.util.Set) } rather than by calling {@link #update() } immediately.  This overrides
+     * {@link UI#setDeferredUpdatesEnabled(boolean) } for this view.
+     * @param deferred True to defer updates.
+     */
+    public void setDeferredUpdates(boolean deferred) {
+        this.deferredUpdates = deferred;
+    }
+    
+    /**
+     * Checks whether updates of this view are deferred.
+     * @return 
+     * @see #setDeferredUpdates(boolean) 
+     */
+    public boolean isDeferredUpdates() {
+        return deferredUpdates != null ? deferredUpdates : UI.isDeferredUpdatesEnabled();
+    }
+    
+    /**
+     * Marks this view as needing an update because the given property changed.  The view is updated once, before the next 
+     * paint, however many changes are recorded before then.  If the view isn't showing, the update is postponed until it is.
+     * @param changedProperty The property that changed.
+     */
+    public void scheduleUpdate(Property changedProperty) {
+        if (!CN.isEdt()) {
+            CN.callSerially(() -> scheduleUpdate(changedProperty));
+            return;
+        }
+        if (pendingChanges == null) {
+            pendingChanges = new HashSet<>();
+        }
+        pendingChanges.add(changedProperty);
+        if (isShowing()) {
+            ViewUpdateScheduler.getInstance().schedule(this);
+        }
+    }
+    
+    /**
+     * Updates the view after the given properties changed.  This is called when updates are deferred 
+     * (see {@link #setDeferredUpdates(boolean) }).  The default implementation calls {@link #update() }.  Subclasses
+     * can override this to only refresh the parts of the view that depend on the changed properties.
+     * @param changedProperties The properties that changed since the last update.
+     */
+    public void update(Set<Property> changedProperties) {
+        update();
+    }
+    
+    /**
+     * Checks whether the view is initialized, and it and all of its ancestors are visible.
+     * @return 
+     */
+    private boolean isShowing() {
+        if (!isInitialized()) {
+            return false;
+        }
+        for (Component c = this; c != null; c = c.getParent()) {
+            if (!c.isVisible()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Applies pending changes if the view is showing.  Called by {@link ViewUpdateScheduler}.
+     */
+    void flushPendingUpdate() {
+        if (pendingChanges == null || !isShowing()) {
+            return;
+        }
+        Set<Property> changes = pendingChanges;
+        pendingChanges = null;
+        update(changes);
     }
 
     @Override
     protected void deinitialize() {
+        ViewController.clearCachedViewController(this);
         unbind();
         super.deinitialize();
     }
@@ -0,0 +1,106 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.ui;
+
+/**
+ * Specifies when a text property view writes the text that the user entered back to its property.  Each commit sets
+ * the property, which fires a {@link com.codename1.rad.models.PropertyChangeEvent} and updates all dependent views, so
+ * committing on every keystroke can make typing laggy when many views or validators depend on a field.
+ *
+ * Whatever the policy, pending text is always committed when the view is unbound (e.g. when its form is closed).
+ *
+ * [source,java]
+ * ----
+ * textField(
+ *     tags(Thing.name),
+ *     commitPolicy(CommitPolicy.debounced(300))
+ * )
+ * ----
+ * @author shannah
+ * @see com.codename1.rad.attributes.CommitPolicyAttribute
+ * @see com.codename1.rad.nodes.FieldNode#getCommitPolicy() 
+ * @see com.codename1.rad.propertyviews.TextFieldPropertyView
+ * @see com.codename1.rad.propertyviews.TextAreaPropertyView
+ */
+public final class CommitPolicy {
+
+    /**
+     * Commit policy types.
+     */
+    public static enum Type {
+        /**
+         * Commit on every change.
+         */
+        Immediate,
+
+        /**
+         * Commit after the text has stopped changing for a delay.
+         */
+        Debounced,
+
+        /**
+         * Commit when the field loses focus, or its action is fired (e.g. the user presses "Done").
+         */
+        OnFocusLost,
+
+        /**
+         * Commit only when the field's action is fired (e.g. the user presses "Done").
+         */
+        OnAction
+    }
+
+    /**
+     * Commit on every change.  This is the default.
+     */
+    public static final CommitPolicy IMMEDIATE = new CommitPolicy(Type.Immediate, 0);
+
+    /**
+     * Commit when the field loses focus, or its action is fired.
+     */
+    public static final CommitPolicy ON_FOCUS_LOST = new CommitPolicy(Type.OnFocusLost, 0);
+
+    /**
+     * Commit when the field's action is fired.
+     */
+    public static final CommitPolicy ON_ACTION = new CommitPolicy(Type.OnAction, 0);
+
+    private final Type type;
+    private final int delay;
+
+    private CommitPolicy(Type type, int delay) {
+        this.type = type;
+        this.delay = delay;
+    }
+
+    /**
+     * Creates a policy to commit after the text has stopped changing for the given delay.
+     * @param delay The delay in milliseconds.
+     * @return The policy.
+     */
+    public static CommitPolicy debounced(int delay) {
+        if (delay <= 0) {
+            return IMMEDIATE;
+        }
+        return new CommitPolicy(Type.Debounced, delay);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the delay in milliseconds for a {@link Type#Debounced} policy.
+     * @return The delay, or 0 for other policies.
+     */
+    public int getDelay() {
+        return delay;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.Debounced ? "CommitPolicy["+type+", "+delay+"ms]" : "CommitPolicy["+type+"]";
+    }
+}
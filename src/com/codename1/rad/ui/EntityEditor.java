@@ -21,8 +21,13 @@ import com.codename1.rad.models.Property;
 import com.codename1.rad.models.Property.Name;
 import com.codename1.components.SpanLabel;
 import com.codename1.rad.models.Attribute;
+import com.codename1.rad.attributes.WidgetType;
+import com.codename1.ui.CN;
 import com.codename1.ui.Component;
 import com.codename1.ui.Container;
+import com.codename1.ui.Form;
+import com.codename1.ui.events.ScrollListener;
+import com.codename1.ui.geom.Dimension;
 import com.codename1.ui.layouts.BorderLayout;
 import com.codename1.ui.layouts.BoxLayout;
 import com.codename1.ui.layouts.GridLayout;
@@ -129,6 +134,24 @@ And the result:
 
 .The UI generated from the above UI descriptor.  All fields are bound to the entity, so changes to the entity will instantly update the UI, and vice-versa.
 image::../../../../doc-files/EntityEditor.png[]
+ * 
+ * == Lazy Sections
+ * 
+ * By default, the editor builds the property views for all sections when it is first shown.  For forms with many
+ * fields, add a {@link LazySectionsAttribute} to the form (or call {@link #setLazySections(boolean) }) so that each section
+ * is first added as an empty placeholder, sized from an estimate of its height, and its property views are only created
+ * when it comes near the visible area of the enclosing scroll container.  Sections are built one at a time, one per EDT
+ * cycle, so that building doesn't block scrolling.  Property views are bound when their section is built, and unbound
+ * when the editor is removed, just as they are in the default mode.
+ * 
+ * [source,java]
+ * ----
+ * form(
+ *     lazySections(true),
+ *     section(...),
+ *     section(...)
+ * )
+ * ----
  * 
  * @author shannah
  * 
@@ -139,6 +162,27 @@ public class EntityEditor extends Container {
     private Node rootNode;
     //private UI uiDescriptor;
     private boolean built;
+    private Boolean lazySections;
+    
+    /**
+     * Estimated height of a row of fields in a section that hasn't been built yet, in millimetres.
+     */
+    private static final float ESTIMATED_ROW_HEIGHT_MM = 10f;
+    
+    /**
+     * Estimated number of rows occupied by a table field.
+     */
+    private static final int ESTIMATED_TABLE_ROWS = 4;
+    
+    /**
+     * Lazy sections that haven't been built yet, in order.
+     */
+    private final List<SectionEditor> pendingSections = new ArrayList<>();
+    private Container lazyScroller;
+    private boolean materializeScheduled;
+    private final ScrollListener lazyScrollListener = (scrollX, scrollY, oldScrollX, oldScrollY) -> {
+        scheduleMaterialize();
+    };
     public static final ActionNode.Category TOP_LEFT_TOOLBAR = new ActionNode.Category(new Name("top_left_toolbar"));
     public static final ActionNode.Category TOP_RIGHT_TOOLBAR = new ActionNode.Category(new Name("top_right_toolbar"));
     public static final ActionNode.Category MORE_MENU = new ActionNode.Category(new Name("more_menu"));
@@ -200,6 +244,16 @@ public class EntityEditor extends Container {
         }
     }
     
+    /**
+     * Attribute for enabling lazy sections on a form.  See "Lazy Sections" in {@link EntityEditor}.
+     * @see UI#lazySections(boolean) 
+     */
+    public static class LazySectionsAttribute extends Attribute<Boolean> {
+        public LazySectionsAttribute(boolean lazy) {
+            super(lazy);
+        }
+    }
+    
     public EntityEditor(Entity entity, UI uiDescriptor, EntityForm form) {
         this(entity, uiDescriptor.getRoot(), form);
     }
@@ -222,12 +276,42 @@ public class EntityEditor extends Container {
     
     
     
+    /**
+     * Sets whether sections should be built lazily.  This overrides the {@link LazySectionsAttribute} of the form node.
+     * Must be called before the editor is shown.
+     * @param lazy True to build sections lazily.
+     */
+    public void setLazySections(boolean lazy) {
+        this.lazySections = lazy;
+    }
+    
+    /**
+     * Checks whether sections are built lazily.
+     * @return 
+     * @see #setLazySections(boolean) 
+     */
+    public boolean isLazySections() {
+        if (lazySections != null) {
+            return lazySections;
+        }
+        LazySectionsAttribute att = (LazySectionsAttribute)rootNode.findAttribute(LazySectionsAttribute.class);
+        return att != null && att.getValue();
+    }
+    
     private void buildSections() {
+        boolean lazy = isLazySections();
         for (SectionNode section : (FormNode)rootNode) {
             SectionEditor sectionEditor = new SectionEditor(entity, section);
-            sectionEditor.build();
+            if (lazy) {
+                pendingSections.add(sectionEditor);
+            } else {
+                sectionEditor.build();
+            }
             add(sectionEditor);
         }
+        if (form != null) {
+            setScrollableY(true);
+        }
     }
     
     private ViewNode getRootView() {
@@ -294,8 +378,88 @@ public class EntityEditor extends Container {
     protected void initComponent() {
         build();
         super.initComponent();
+        if (!pendingSections.isEmpty()) {
+            lazyScroller = findVerticalScroller();
+            if (lazyScroller != null) {
+                lazyScroller.addScrollListener(lazyScrollListener);
+            }
+            scheduleMaterialize();
+        }
         
-        
+    }
+
+    @Override
+    protected void deinitialize() {
+        if (lazyScroller != null) {
+            lazyScroller.removeScrollListener(lazyScrollListener);
+            lazyScroller = null;
+        }
+        super.deinitialize();
+    }
+
+    @Override
+    protected void laidOut() {
+        super.laidOut();
+        if (!pendingSections.isEmpty()) {
+            scheduleMaterialize();
+        }
+    }
+    
+    private Container findVerticalScroller() {
+        Container cnt = this;
+        while (cnt != null) {
+            if (cnt.isScrollableY()) {
+                return cnt;
+            }
+            cnt = cnt.getParent();
+        }
+        return null;
+    }
+    
+    private void scheduleMaterialize() {
+        if (materializeScheduled || pendingSections.isEmpty()) {
+            return;
+        }
+        materializeScheduled = true;
+        CN.callSerially(() -> materializeNext());
+    }
+    
+    /**
+     * Builds the first pending section that is near the visible area, and schedules the next one for a later EDT cycle.
+     */
+    private void materializeNext() {
+        materializeScheduled = false;
+        if (!isInitialized()) {
+            return;
+        }
+        for (SectionEditor section : pendingSections) {
+            if (isNearViewport(section)) {
+                pendingSections.remove(section);
+                section.build();
+                Form f = getComponentForm();
+                if (f != null) {
+                    f.revalidateLater();
+                }
+                scheduleMaterialize();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Checks whether a section is within one screen of the visible area of the scroll container.
+     */
+    private boolean isNearViewport(Component section) {
+        if (lazyScroller == null) {
+            return true;
+        }
+        int viewportHeight = lazyScroller.getHeight();
+        if (viewportHeight <= 0) {
+            // Not laid out yet.  laidOut() will try again.
+            return false;
+        }
+        int y = section.getAbsoluteY() - lazyScroller.getAbsoluteY();
+        return y < 2 * viewportHeight && y + section.getHeight() > -viewportHeight;
     }
     
     
@@ -312,9 +476,49 @@ public class EntityEditor extends Container {
 
         @Override
         protected void initComponent() {
-            build();
+            if (!pendingSections.contains(this)) {
+                build();
+            }
             super.initComponent();
         }
+
+        @Override
+        protected Dimension calcPreferredSize() {
+            if (!built) {
+                Dimension out = super.calcPreferredSize();
+                out.setHeight(Math.max(out.getHeight(), estimateHeight()));
+                return out;
+            }
+            return super.calcPreferredSize();
+        }
+        
+        /**
+         * Estimates the height of the section before it is built, from the number of rows of fields.
+         */
+        private int estimateHeight() {
+            int columns = Math.max(1, sectionDescriptor.getColumns().getValue());
+            int fields = 0;
+            int rows = 0;
+            for (FieldNode field : sectionDescriptor) {
+                if (field.getProperty(entity.getEntityType()) == null) {
+                    continue;
+                }
+                WidgetType widgetType = field.getWidgetType(entity.getEntityType());
+                if (widgetType != null && WidgetType.TABLE.getValue().equals(widgetType.getValue())) {
+                    rows += ESTIMATED_TABLE_ROWS;
+                } else {
+                    fields++;
+                }
+            }
+            rows += (fields + columns - 1) / columns;
+            if (sectionDescriptor.getLabel() != null) {
+                rows++;
+            }
+            if (sectionDescriptor.getDescription() != null) {
+                rows++;
+            }
+            return CN.convertToPixels(rows * ESTIMATED_ROW_HEIGHT_MM);
+        }
         
         private void buildSections() {
             List<FieldEditor> currRow = new ArrayList<>();
@@ -355,12 +559,6 @@ public class EntityEditor extends Container {
             buildSections();
             buildBottomActionsBar(sectionDescriptor, this, entity);
             
-            
-            if (form != null) {
-                form.setLayout(new BorderLayout());
-                form.add(CENTER, this);
-            }
-            
         }
     }
     
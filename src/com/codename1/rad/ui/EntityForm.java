@@ -7,6 +7,7 @@ package com.codename1.rad.ui;
 
 import com.codename1.rad.models.Entity;
 import com.codename1.ui.Form;
+import com.codename1.ui.layouts.BorderLayout;
 
 /**
  * A form with an embedded {@link EntityEditor}.
@@ -16,6 +17,16 @@ public class EntityForm extends Form {
     private EntityEditor editor;
     
     public EntityForm(Entity entity, UI uiDescriptor) {
+        super(new BorderLayout());
         editor = new EntityEditor(entity, uiDescriptor, this);
+        add(BorderLayout.CENTER, editor);
+    }
+    
+    /**
+     * Gets the editor embedded in this form.
+     * @return 
+     */
+    public EntityEditor getEditor() {
+        return editor;
     }
 }
@@ -5,13 +5,16 @@
  */
 package com.codename1.rad.ui;
 
+import com.codename1.rad.controllers.ViewController;
 import com.codename1.rad.nodes.FieldNode;
 import com.codename1.rad.models.Entity;
 import com.codename1.rad.models.Property;
+import com.codename1.rad.models.PropertyChangeEvent;
 import com.codename1.rad.models.PropertySelector;
 import com.codename1.ui.Component;
 import com.codename1.ui.Container;
 import com.codename1.ui.Editable;
+import com.codename1.ui.events.ActionListener;
 import com.codename1.ui.layouts.BorderLayout;
 
 /**
@@ -51,6 +54,7 @@ public abstract class PropertyView<T extends Component> extends Container implem
     @Override
     protected void initComponent() {
         super.initComponent();
+        ViewController.cacheViewController(this);
         bind();
         update();
 
@@ -58,11 +62,41 @@ public abstract class PropertyView<T extends Component> extends Container implem
 
     @Override
     protected void deinitialize() {
+        ViewController.clearCachedViewController(this);
         unbind();
         super.deinitialize();
     }
     
     
+    /**
+     * Adds a property change listener to a property selector for binding.  If weak binding is enabled (see {@link UI#setWeakBindingEnabled(boolean) })
+     * the listener is registered weakly.
+     * @param selector The property selector.
+     * @param l The listener.  Should be retained by this view.
+     */
+    protected void addPropertyChangeListener(PropertySelector selector, ActionListener<PropertyChangeEvent> l) {
+        if (UI.isWeakBindingEnabled()) {
+            selector.addWeakPropertyChangeListener(l);
+        } else {
+            selector.addPropertyChangeListener(l);
+        }
+    }
+    
+    /**
+     * Adds a property change listener to an entity's property for binding.  If weak binding is enabled (see {@link UI#setWeakBindingEnabled(boolean) })
+     * the listener is registered weakly.
+     * @param entity The entity.
+     * @param property The property.
+     * @param l The listener.  Should be retained by this view.
+     */
+    protected void addPropertyChangeListener(Entity entity, Property property, ActionListener<PropertyChangeEvent> l) {
+        if (UI.isWeakBindingEnabled()) {
+            entity.addWeakPropertyChangeListener(property, l);
+        } else {
+            entity.addPropertyChangeListener(property, l);
+        }
+    }
+    
     public abstract void bind();
     
     public abstract void unbind();
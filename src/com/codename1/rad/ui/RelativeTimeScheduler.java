@@ -0,0 +1,273 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.ui;
+
+import com.codename1.ui.CN;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * A shared scheduler that refreshes views whose content depends on the current time, such as labels showing "2 minutes ago"
+ * (see {@link com.codename1.rad.text.TimeSensitiveDateFormatter}).  Views register a {@link Refreshable} while they are on
+ * screen, and the scheduler refreshes each one when its content is next due to change, using a single timer for all of them.
+ *
+ * Registered views are grouped by how soon they change: every second, minute, hour or day.  When the timer fires, only the
+ * groups that are due are visited, and within them only the views that are due are refreshed.  After a refresh, a view is
+ * moved to the group matching its new change time, so e.g. a label moves from the seconds group to the minutes group as
+ * it ages.  The scheduler keeps a map from each registered view to its group, so registering and unregistering don't
+ * scan the groups.
+ *
+ * {@link com.codename1.rad.propertyviews.LabelPropertyView} registers itself automatically while it is bound to a date
+ * property with a time-sensitive formatter, and unregisters when it is deinitialized.
+ *
+ * All methods must be called on the EDT, and {@link Refreshable#refresh() } is called on the EDT.
+ * @author shannah
+ */
+public class RelativeTimeScheduler {
+    private static final long SECOND = 1000l;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+
+    /**
+     * Minimum delay between timer runs.  Refreshes due within this window are coalesced into one run.
+     */
+    private static final long MIN_DELAY = 250l;
+
+    private static RelativeTimeScheduler instance;
+
+    /**
+     * Something that can be refreshed by the scheduler.
+     */
+    public static interface Refreshable {
+
+        /**
+         * Gets the time at which this should next be refreshed.
+         * @param now The current time in milliseconds.
+         * @return The time in milliseconds, or -1 if it doesn't need to be refreshed.
+         */
+        public long getNextRefreshTime(long now);
+
+        /**
+         * Refreshes the content.  Implementations should only update their UI if the content actually changed.
+         */
+        public void refresh();
+    }
+
+    /**
+     * A group of registered entries that change at roughly the same rate.
+     */
+    private static class Group {
+        private final Map<Refreshable,Long> dueTimes = new HashMap<>();
+
+        /**
+         * A lower bound on the due times in the group, or Long.MAX_VALUE if empty.  Removing an entry doesn't raise it,
+         * so it may be early; the timer run then finds nothing due, and recomputes it.
+         */
+        private long nextDue = Long.MAX_VALUE;
+
+        void add(Refreshable r, long due) {
+            dueTimes.put(r, due);
+            if (due < nextDue) {
+                nextDue = due;
+            }
+        }
+
+        void remove(Refreshable r) {
+            dueTimes.remove(r);
+            if (dueTimes.isEmpty()) {
+                nextDue = Long.MAX_VALUE;
+            }
+        }
+    }
+
+    /**
+     * Groups for entries that change within a second, a minute, an hour, and longer.
+     */
+    private final Group[] groups = new Group[]{new Group(), new Group(), new Group(), new Group()};
+
+    /**
+     * The group that each registered entry is in.
+     */
+    private final Map<Refreshable,Group> registered = new HashMap<>();
+    private Timer timer;
+    private TimerTask task;
+    private long scheduledTime = Long.MAX_VALUE;
+    
+    /**
+     * Entries being refreshed by the current timer run.  Entries unregistered during the run are removed from this set, 
+     * so that they aren't re-registered after the run.
+     */
+    private final Set<Refreshable> ticking = new HashSet<>();
+
+    /**
+     * Gets the shared scheduler.
+     * @return
+     */
+    public static RelativeTimeScheduler getInstance() {
+        if (instance == null) {
+            instance = new RelativeTimeScheduler();
+        }
+        return instance;
+    }
+
+    private Group groupFor(long due, long now) {
+        long delay = due - now;
+        if (delay <= SECOND) {
+            return groups[0];
+        }
+        if (delay <= MINUTE) {
+            return groups[1];
+        }
+        if (delay <= HOUR) {
+            return groups[2];
+        }
+        return groups[3];
+    }
+
+    /**
+     * Registers an entry.  It will be refreshed at the time returned by {@link Refreshable#getNextRefreshTime(long) }, and
+     * after each refresh, at its next refresh time, until it is unregistered.  Does nothing if the entry is already
+     * registered.
+     * @param r The entry.
+     */
+    public void register(Refreshable r) {
+        if (registered.containsKey(r)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long due = r.getNextRefreshTime(now);
+        if (due < 0) {
+            return;
+        }
+        add(r, due, now);
+        schedule();
+    }
+
+    private void add(Refreshable r, long due, long now) {
+        Group g = groupFor(due, now);
+        g.add(r, due);
+        registered.put(r, g);
+    }
+
+    /**
+     * Unregisters an entry.
+     * @param r The entry.
+     */
+    public void unregister(Refreshable r) {
+        ticking.remove(r);
+        Group g = registered.remove(r);
+        if (g != null) {
+            g.remove(r);
+        }
+        schedule();
+    }
+
+    /**
+     * Checks whether an entry is registered.
+     * @param r The entry.
+     * @return
+     */
+    public boolean isRegistered(Refreshable r) {
+        return registered.containsKey(r);
+    }
+
+    /**
+     * Schedules the timer for the earliest due time, if that is earlier than the currently scheduled run.  Cancels
+     * the timer if nothing is registered.
+     */
+    private void schedule() {
+        long next = Long.MAX_VALUE;
+        for (Group g : groups) {
+            if (g.nextDue < next) {
+                next = g.nextDue;
+            }
+        }
+        if (next == Long.MAX_VALUE || registered.isEmpty()) {
+            if (task != null) {
+                task.cancel();
+                task = null;
+            }
+            scheduledTime = Long.MAX_VALUE;
+            return;
+        }
+        if (task != null && scheduledTime <= next) {
+            return;
+        }
+        if (task != null) {
+            task.cancel();
+        }
+        if (timer == null) {
+            timer = new Timer();
+        }
+        long delay = Math.max(MIN_DELAY, next - System.currentTimeMillis());
+        scheduledTime = System.currentTimeMillis() + delay;
+        task = new TimerTask() {
+            @Override
+            public void run() {
+                CN.callSerially(() -> tick(this));
+            }
+        };
+        timer.schedule(task, delay);
+    }
+
+    private void tick(TimerTask source) {
+        if (source != task) {
+            // Superseded by a later schedule() call
+            return;
+        }
+        task = null;
+        scheduledTime = Long.MAX_VALUE;
+        long now = System.currentTimeMillis();
+        ticking.clear();
+        List<Refreshable> due = new ArrayList<>();
+        for (Group g : groups) {
+            if (g.nextDue > now) {
+                continue;
+            }
+            long min = Long.MAX_VALUE;
+            Iterator<Map.Entry<Refreshable,Long>> it = g.dueTimes.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Refreshable,Long> e = it.next();
+                long t = e.getValue();
+                if (t <= now) {
+                    it.remove();
+                    registered.remove(e.getKey());
+                    due.add(e.getKey());
+                } else if (t < min) {
+                    min = t;
+                }
+            }
+            g.nextDue = min;
+        }
+        ticking.addAll(due);
+        for (Refreshable r : due) {
+            if (!ticking.contains(r)) {
+                // Unregistered by an earlier refresh in this run
+                continue;
+            }
+            r.refresh();
+            if (!ticking.contains(r)) {
+                continue;
+            }
+            long next = r.getNextRefreshTime(now);
+            if (next >= 0 && !isRegistered(r)) {
+                if (next <= now) {
+                    next = now + SECOND;
+                }
+                add(r, next, now);
+            }
+        }
+        ticking.clear();
+        schedule();
+    }
+}
@@ -32,14 +32,19 @@ import com.codename1.rad.nodes.SectionNode;
 import com.codename1.rad.nodes.ViewNode;
 import com.codename1.rad.propertyviews.LabelPropertyView;
 import com.codename1.ui.Button;
+import com.codename1.ui.CN;
 import com.codename1.ui.Component;
 import static com.codename1.ui.ComponentSelector.$;
 import com.codename1.ui.Container;
 import com.codename1.ui.FontImage;
 import com.codename1.ui.Label;
 import com.codename1.ui.events.ActionEvent;
+import com.codename1.ui.events.ScrollListener;
+import com.codename1.ui.geom.Dimension;
 import com.codename1.ui.layouts.BorderLayout;
 import com.codename1.ui.layouts.BoxLayout;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A settings form similar to the iOS and Android "Settings" applications.  
@@ -359,12 +364,52 @@ public class SettingsFormSample {
 * 
 * If you add the {@link UIIDPrefix} attribute to the ViewNode, that prefix will be added to all UIIDs in this component and subcomponents.
 * 
+* == Lazy Rows
+* 
+* For settings forms with many entries, set the {@link #LAZY_ROWS} view parameter to true.  Each row is then added as
+* an empty placeholder, and its {@link SettingsFormActionView} is only created when the row comes near the visible area
+* of the form.  Rows are built in small batches, one batch per EDT cycle, so opening the form only pays for the rows that
+* are on screen.  Editors for a row's {@link FieldNode} are always created when the row is tapped, in either mode.
+* 
+* [source,java]
+* ----
+* new ViewNode(
+*     param(SettingsForm.LAZY_ROWS, true),
+*     section(...),
+*     ...
+* );
+* ----
 * 
  * @author shannah
  */
 public class SettingsForm extends AbstractEntityView implements WidgetTypes {
+    
+    /**
+     * View parameter to build the rows of the form lazily, as they are scrolled into view.  Default false.
+     */
+    public static final ViewProperty<Boolean> LAZY_ROWS = ViewProperty.booleanProperty();
+    
+    /**
+     * Estimated height of a row that hasn't been built yet, in millimetres.
+     */
+    private static final float ESTIMATED_ROW_HEIGHT_MM = 12f;
+    
+    /**
+     * Maximum time to spend building rows in one EDT cycle, in milliseconds.
+     */
+    private static final long ROW_BUILD_BUDGET = 8l;
+    
     private ViewNode node;
     
+    /**
+     * Lazy rows that haven't been built yet, in order.
+     */
+    private final List<LazyRow> pendingRows = new ArrayList<>();
+    private boolean materializeScheduled;
+    private final ScrollListener lazyScrollListener = (scrollX, scrollY, oldScrollX, oldScrollY) -> {
+        scheduleMaterialize();
+    };
+    
     /**
      * Creates a new SettingsForm to edit properties of the given entity.
      * 
@@ -384,14 +429,84 @@ public class SettingsForm extends AbstractEntityView implements WidgetTypes {
         $(this).addTags("SettingsForm");
         setLayout(BoxLayout.y());
         setScrollableY(true);
+        boolean lazy = Boolean.TRUE.equals(node.getViewParameterValue(LAZY_ROWS));
         NodeList l = node.getChildNodes(SectionNode.class);
         for (Node n : l) {
             SectionNode sn = (SectionNode)n;
-            add(new SettingsFormSection(entity, sn));
+            SettingsFormSection section = new SettingsFormSection(entity, sn, lazy);
+            if (lazy) {
+                for (Component row : section) {
+                    if (row instanceof LazyRow) {
+                        pendingRows.add((LazyRow)row);
+                    }
+                }
+            }
+            add(section);
+        }
+        if (!pendingRows.isEmpty()) {
+            addScrollListener(lazyScrollListener);
         }
         
     }
 
+    @Override
+    protected void laidOut() {
+        super.laidOut();
+        scheduleMaterialize();
+    }
+    
+    private void scheduleMaterialize() {
+        if (materializeScheduled || pendingRows.isEmpty()) {
+            return;
+        }
+        materializeScheduled = true;
+        CN.callSerially(() -> materializeRows());
+    }
+    
+    /**
+     * Builds the pending rows that are near the visible area, until the time budget for this EDT cycle is spent.  Any
+     * remaining rows are left for a later cycle.
+     */
+    private void materializeRows() {
+        materializeScheduled = false;
+        if (!isInitialized()) {
+            return;
+        }
+        int viewportHeight = getHeight();
+        if (viewportHeight <= 0) {
+            // Not laid out yet.  laidOut() will try again.
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int top = getAbsoluteY();
+        boolean built = false;
+        boolean more = false;
+        for (int i=0; i<pendingRows.size(); i++) {
+            LazyRow row = pendingRows.get(i);
+            int y = row.getAbsoluteY() - top;
+            if (y >= 2 * viewportHeight) {
+                // Rows are in order, so the rest are further down.
+                break;
+            }
+            if (y + row.getHeight() <= -viewportHeight) {
+                continue;
+            }
+            if (System.currentTimeMillis() - start > ROW_BUILD_BUDGET) {
+                more = true;
+                break;
+            }
+            row.build();
+            pendingRows.remove(i--);
+            built = true;
+        }
+        if (built) {
+            revalidateLater();
+        }
+        if (more) {
+            scheduleMaterialize();
+        }
+    }
+
     @Override
     public void update() {
         
@@ -427,6 +542,16 @@ public class SettingsForm extends AbstractEntityView implements WidgetTypes {
      */
     public static class SettingsFormSection extends Container {
         public SettingsFormSection(Entity entity, SectionNode section) {
+            this(entity, section, false);
+        }
+        
+        /**
+         * Creates a section.
+         * @param entity The entity.
+         * @param section The section node.
+         * @param lazy If true, each row is added as a placeholder, whose view is built later by {@link SettingsForm}.
+         */
+        SettingsFormSection(Entity entity, SectionNode section, boolean lazy) {
             super(BoxLayout.y());
             String uiidPrefix = section.getUIIDPrefix("");
             String uiid = section.getUIID("SettingsFormSection");
@@ -444,8 +569,45 @@ public class SettingsForm extends AbstractEntityView implements WidgetTypes {
                 if (!an.isEnabled(entity)) {
                     continue;
                 }
-                add(an.createView(entity));
+                if (lazy) {
+                    add(new LazyRow(entity, an));
+                } else {
+                    add(an.createView(entity));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Placeholder for a row of a {@link SettingsForm} in {@link #LAZY_ROWS} mode.  It reserves an estimated height until
+     * the row's view is built.
+     */
+    private static class LazyRow extends Container {
+        private final Entity entity;
+        private final ActionNode action;
+        private boolean built;
+        
+        LazyRow(Entity entity, ActionNode action) {
+            super(new BorderLayout());
+            stripMarginAndPadding();
+            this.entity = entity;
+            this.action = action;
+        }
+        
+        void build() {
+            if (built) {
+                return;
+            }
+            built = true;
+            add(BorderLayout.CENTER, action.createView(entity));
+        }
+
+        @Override
+        protected Dimension calcPreferredSize() {
+            if (!built) {
+                return new Dimension(0, CN.convertToPixels(ESTIMATED_ROW_HEIGHT_MM));
             }
+            return super.calcPreferredSize();
         }
     }
     
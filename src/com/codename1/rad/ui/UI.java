@@ -9,6 +9,7 @@ package com.codename1.rad.ui;
 import ca.weblite.shared.components.table.DefaultTableCellEditor;
 import ca.weblite.shared.components.table.DefaultTableCellRenderer;
 import com.codename1.rad.attributes.ActionStyleAttribute;
+import com.codename1.rad.attributes.CommitPolicyAttribute;
 import com.codename1.rad.events.EventFactory;
 import com.codename1.rad.nodes.FormNode;
 import com.codename1.rad.nodes.FieldNode;
@@ -99,6 +100,8 @@ public class UI extends EntityType implements ActionCategories, WidgetTypes {
     private static TableCellRenderer defaultTableCellRenderer;
     private static TableCellEditor defaultTableCellEditor;
     private static EntityListCellRenderer defaultListCellRenderer;
+    private static boolean weakBindingEnabled;
+    private static boolean deferredUpdatesEnabled;
     private static File tmpDir;
     
     private static StrongCache cache;
@@ -199,6 +202,46 @@ public class UI extends EntityType implements ActionCategories, WidgetTypes {
         defaultTableCellEditor = editor;
     }
     
+    /**
+     * Enables or disables weak binding.  When enabled, views such as {@link AbstractEntityView} and {@link PropertyView}
+     * register their property change listeners weakly (see {@link Entity#addWeakPropertyChangeListener(com.codename1.ui.events.ActionListener) }),
+     * so that views which are built but never shown, or which are discarded without being deinitialized, don't remain 
+     * reachable from long-lived entities.  Default is false.
+     * @param enabled True to enable weak binding.
+     */
+    public static void setWeakBindingEnabled(boolean enabled) {
+        weakBindingEnabled = enabled;
+    }
+    
+    /**
+     * Checks whether weak binding is enabled.
+     * @return 
+     * @see #setWeakBindingEnabled(boolean) 
+     */
+    public static boolean isWeakBindingEnabled() {
+        return weakBindingEnabled;
+    }
+    
+    /**
+     * Enables or disables deferred updates.  When enabled, {@link AbstractEntityView}s don't call {@link AbstractEntityView#update() }
+     * for every property change event.  Instead they record the changed properties, and are updated once, before the next 
+     * paint, with {@link AbstractEntityView#update(java.util.Set) }.  Views that aren't showing are updated when they
+     * are shown.  Individual views can override this with {@link AbstractEntityView#setDeferredUpdates(boolean) }.  Default is false.
+     * @param enabled True to enable deferred updates.
+     */
+    public static void setDeferredUpdatesEnabled(boolean enabled) {
+        deferredUpdatesEnabled = enabled;
+    }
+    
+    /**
+     * Checks whether deferred updates are enabled.
+     * @return 
+     * @see #setDeferredUpdatesEnabled(boolean) 
+     */
+    public static boolean isDeferredUpdatesEnabled() {
+        return deferredUpdatesEnabled;
+    }
+    
     public static File getTempDir() {
         if (tmpDir == null) {
             tmpDir = new File("CodeRadTmp");
@@ -289,6 +332,24 @@ public class UI extends EntityType implements ActionCategories, WidgetTypes {
         return new ActionStyleAttribute(style);
     }
     
+    /**
+     * Creates an attribute for specifying when text fields write their text back to their properties.
+     * @param policy The policy.  E.g. {@link CommitPolicy#debounced(int) }.
+     * @return The attribute.
+     */
+    public static CommitPolicyAttribute commitPolicy(CommitPolicy policy) {
+        return new CommitPolicyAttribute(policy);
+    }
+    
+    /**
+     * Creates an attribute for building the sections of an {@link EntityEditor} lazily, as they are scrolled into view.
+     * @param lazy True to build sections lazily.
+     * @return The attribute.
+     */
+    public static EntityEditor.LazySectionsAttribute lazySections(boolean lazy) {
+        return new EntityEditor.LazySectionsAttribute(lazy);
+    }
+    
     public static NodeDecoratorAttribute decorator(NodeDecorator decorator) {
         return new NodeDecoratorAttribute(decorator);
     }
@@ -488,6 +549,17 @@ public class UI extends EntityType implements ActionCategories, WidgetTypes {
         return new DateFormatterAttribute(fmt);
     }
     
+    /**
+     * Creates a date format attribute that remembers the strings for up to the given number of recently formatted dates.
+     * @param fmt The formatter.
+     * @param memoSize The maximum number of dates to remember.
+     * @return The attribute.
+     * @see com.codename1.rad.text.MemoizedDateFormatter
+     */
+    public static DateFormatterAttribute memoizedDateFormat(DateFormatter fmt, int memoSize) {
+        return new DateFormatterAttribute(fmt, memoSize);
+    }
+    
     public static DateFormatterAttribute shortDateFormat() {
         return dateFormat(new LocalDateShortStyleFormatter());
     }
@@ -524,6 +596,17 @@ public class UI extends EntityType implements ActionCategories, WidgetTypes {
         return new NumberFormatterAttribute(new IntegerFormatter());
     }
     
+    /**
+     * Creates a number format attribute that remembers the strings for up to the given number of recently formatted values.
+     * @param fmt The formatter.
+     * @param memoSize The maximum number of values to remember.
+     * @return The attribute.
+     * @see com.codename1.rad.text.MemoizedNumberFormatter
+     */
+    public static NumberFormatterAttribute memoizedNumberFormat(NumberFormatter fmt, int memoSize) {
+        return new NumberFormatterAttribute(fmt, memoSize);
+    }
+    
     public static Editable editable(boolean editable) {
         return new Editable(editable);
     }
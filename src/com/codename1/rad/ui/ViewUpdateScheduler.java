@@ -0,0 +1,57 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.codename1.rad.ui;
+
+import com.codename1.ui.CN;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coalesces deferred updates of {@link AbstractEntityView}s.  Views that receive property change events mark themselves
+ * dirty, and a single pass on the EDT, before the next paint, calls {@link AbstractEntityView#update(java.util.Set) } once
+ * for each dirty view with all of the properties that changed since its last update.
+ * @author shannah
+ * @see UI#setDeferredUpdatesEnabled(boolean) 
+ */
+class ViewUpdateScheduler {
+    private static ViewUpdateScheduler instance;
+    private List<AbstractEntityView> dirtyViews = new ArrayList<>();
+    private boolean scheduled;
+
+    static ViewUpdateScheduler getInstance() {
+        if (instance == null) {
+            instance = new ViewUpdateScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Schedules a view to be updated in the next pass.  Must be called on the EDT.
+     * @param view The view.  Adding a view that is already scheduled does nothing.
+     */
+    void schedule(AbstractEntityView view) {
+        if (view.updateScheduled) {
+            return;
+        }
+        view.updateScheduled = true;
+        dirtyViews.add(view);
+        if (!scheduled) {
+            scheduled = true;
+            CN.callSerially(() -> flush());
+        }
+    }
+
+    private void flush() {
+        scheduled = false;
+        List<AbstractEntityView> views = dirtyViews;
+        dirtyViews = new ArrayList<>();
+        for (AbstractEntityView view : views) {
+            view.updateScheduled = false;
+            // Views that aren't showing keep their changes, and are rescheduled when they are shown.
+            view.flushPendingUpdate();
+        }
+    }
+}
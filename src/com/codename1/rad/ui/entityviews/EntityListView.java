@@ -19,14 +19,18 @@ import com.codename1.rad.nodes.Node;
 import com.codename1.rad.models.Entity;
 import com.codename1.rad.models.EntityList;
 import com.codename1.rad.models.EntityList.EntityListEvent;
+import com.codename1.rad.models.PagedEntityList;
 import com.codename1.components.FloatingActionButton;
 import com.codename1.rad.ui.UI;
+import com.codename1.ui.CN;
 import com.codename1.ui.Component;
 import static com.codename1.ui.ComponentSelector.$;
 import com.codename1.ui.Container;
 import com.codename1.ui.FontImage;
 import com.codename1.ui.animations.ComponentAnimation;
 import com.codename1.ui.events.ActionListener;
+import com.codename1.ui.events.ScrollListener;
+import com.codename1.ui.geom.Dimension;
 import com.codename1.ui.layouts.BorderLayout;
 import com.codename1.ui.layouts.BoxLayout;
 import com.codename1.ui.layouts.Layout;
@@ -38,6 +42,11 @@ import java.util.List;
  * A view that renders an {@link EntityList} visually.  This will bind to the list's events so that rows will animate in and 
  * out appropriately when they are added to the model.  The list can be customized with a {@link EntityListCellRenderer}.
  * 
+ * If the list is a {@link PagedEntityList}, rows are rendered as their pages are loaded, and the next page is requested 
+ * as the user scrolls toward the end of the rendered rows.  Row views that are scrolled far out of view are released and
+ * replaced with empty placeholders of the same height, so that memory use doesn't grow with the number of rows scrolled
+ * through.  They are rendered again when they scroll back into range.
+ * 
  * @see ListCellRendererAttribute
  * @see RowTemplateNode
  * 
@@ -67,8 +76,89 @@ public class EntityListView<T extends EntityList> extends AbstractEntityView<T>
         
     };
     boolean firstUpdate = true;
+    
+    /**
+     * For a {@link PagedEntityList}, the number of rows that have been rendered.  Rows are rendered in order, 
+     * as their pages are loaded.
+     */
+    private int pagedRowCount;
+    
+    /**
+     * The container whose scroll position is used to request more pages of a {@link PagedEntityList}.
+     */
+    private Container pagingScroller;
+    
+    /**
+     * For a {@link PagedEntityList}, the number of screens (heights of the scroller) above and below the visible area
+     * within which row views are kept.  Rows further away are released.
+     */
+    private static final int LIVE_ROW_SCREENS = 2;
+    
+    /**
+     * For a {@link PagedEntityList}, the range of row indices [liveStart, liveEnd) that may have rendered row views.  Rows
+     * outside this range are placeholders.
+     */
+    private int liveStart, liveEnd;
+    
+    /**
+     * An empty stand-in for a released row view, that keeps the row's height so that the scroll position doesn't change.
+     */
+    private static class RowPlaceholder extends Container {
+        private final int rowHeight;
+        
+        RowPlaceholder(int rowHeight) {
+            this.rowHeight = rowHeight;
+            getStyle().stripMarginAndPadding();
+        }
+
+        @Override
+        protected Dimension calcPreferredSize() {
+            return new Dimension(0, rowHeight);
+        }
+    }
+    
+    private ScrollListener pagingScrollListener = (scrollX, scrollY, oldScrollX, oldScrollY) -> {
+        updateLiveRows();
+        requestNextPageIfNeeded();
+    };
+    
     private ActionListener<EntityListEvent> listListener = evt-> {
-        if (evt instanceof EntityList.EntityAddedEvent) {
+        if (evt instanceof EntityList.EntitiesAddedEvent) {
+            if (firstUpdate) {
+                update();
+                return;
+            }
+            if (!(getEntity() instanceof PagedEntityList)) {
+                EntityList.EntitiesAddedEvent eae = (EntityList.EntitiesAddedEvent)evt;
+                int index = eae.getIndex();
+                for (Entity e : eae.getEntities()) {
+                    EntityView rowView = renderer.getListCellRendererComponent(this, e, index, selection.isSelected(index, 0), false);
+                    if (index < wrapper.getComponentCount()) {
+                        wrapper.addComponent(index, (Component)rowView);
+                    } else {
+                        wrapper.add((Component)rowView);
+                    }
+                    index++;
+                }
+                if (getComponentForm() != null) {
+                    wrapper.revalidateWithAnimationSafety();
+                }
+                return;
+            }
+            appendLoadedPagedRows();
+            // Keep loading until the visible area is filled.  Deferred so that the new rows are laid out first.
+            CN.callSerially(()->{
+                if (isInitialized()) {
+                    updateLiveRows();
+                    requestNextPageIfNeeded();
+                }
+            });
+        } else if (evt instanceof EntityList.EntitiesReloadedEvent) {
+            // An evicted page was loaded again.  Render any placeholders in range that were waiting for it.
+            if (!firstUpdate && isInitialized()) {
+                updateLiveRows();
+            }
+        } else if (evt instanceof EntityList.EntityAddedEvent) {
             if (firstUpdate) {
                 update();
                 return;
@@ -78,7 +168,13 @@ public class EntityListView<T extends EntityList> extends AbstractEntityView<T>
             EntityView rowView = renderer.getListCellRendererComponent(this, e, wrapper.getComponentCount(), selection.isSelected(wrapper.getComponentCount(), 0), false);
             Component cmp = (Component)rowView;
             
-            wrapper.add(cmp);
+            int index = eae.getIndex();
+            if (index >= 0 && index < wrapper.getComponentCount()) {
+                // Inserted in the middle (e.g. a sorted projection)
+                wrapper.addComponent(index, cmp);
+            } else {
+                wrapper.add(cmp);
+            }
             if (getComponentForm() != null) {
                 cmp.setX(0);
                 cmp.setY(wrapper.getHeight() + wrapper.getScrollY());
@@ -117,6 +213,14 @@ public class EntityListView<T extends EntityList> extends AbstractEntityView<T>
                 }
             }
  
+        } else if (evt instanceof EntityList.EntitiesResetEvent) {
+            if (firstUpdate) {
+                update();
+                return;
+            }
+            reloadRows();
+            // An invalidated paged list has no loaded pages left, so request the first one again.
+            requestNextPageIfNeeded();
         }
     };
     
@@ -158,14 +262,212 @@ public class EntityListView<T extends EntityList> extends AbstractEntityView<T>
     protected void initComponent() {
         super.initComponent();
         getEntity().addActionListener(listListener);
+        if (getEntity() instanceof PagedEntityList) {
+            appendLoadedPagedRows();
+            pagingScroller = findVerticalScroller();
+            if (pagingScroller != null) {
+                pagingScroller.addScrollListener(pagingScrollListener);
+            }
+            requestNextPageIfNeeded();
+        }
     }
 
     @Override
     protected void deinitialize() {
         getEntity().removeActionListener(listListener);
+        if (pagingScroller != null) {
+            pagingScroller.removeScrollListener(pagingScrollListener);
+            pagingScroller = null;
+        }
         super.deinitialize();
     }
     
+    /**
+     * Finds the container that scrolls this list vertically.  This is the scroll wrapper if it is scrollable, otherwise
+     * the nearest scrollable ancestor.
+     * @return The scroller, or null if there is none.
+     */
+    private Container findVerticalScroller() {
+        if (wrapper.isScrollableY()) {
+            return wrapper;
+        }
+        Container parent = getParent();
+        while (parent != null) {
+            if (parent.isScrollableY()) {
+                return parent;
+            }
+            parent = parent.getParent();
+        }
+        return null;
+    }
+    
+    /**
+     * Replaces all row views with views of the current rows.  Used when the list is reset as a whole.
+     */
+    private void reloadRows() {
+        wrapper.removeAll();
+        EntityList<?> entityList = getEntity();
+        if (entityList instanceof PagedEntityList) {
+            pagedRowCount = 0;
+            liveStart = liveEnd = 0;
+            appendLoadedPagedRows();
+        } else {
+            int index = 0;
+            for (Entity e : entityList) {
+                EntityView rowView = renderer.getListCellRendererComponent(this, e, index, selection.isSelected(index, 0), false);
+                wrapper.add((Component)rowView);
+                index++;
+            }
+        }
+        if (getComponentForm() != null) {
+            wrapper.revalidateWithAnimationSafety();
+        }
+    }
+    
+    /**
+     * For a {@link PagedEntityList}, renders any rows following the last rendered row whose pages have been loaded.
+     */
+    private void appendLoadedPagedRows() {
+        PagedEntityList<?> paged = (PagedEntityList<?>)getEntity();
+        int size = paged.size();
+        boolean added = false;
+        while (pagedRowCount < size && paged.isLoaded(pagedRowCount)) {
+            Entity e = paged.get(pagedRowCount);
+            EntityView rowView = renderer.getListCellRendererComponent(this, e, pagedRowCount, selection.isSelected(pagedRowCount, 0), false);
+            wrapper.add((Component)rowView);
+            pagedRowCount++;
+            added = true;
+        }
+        if (added) {
+            liveEnd = pagedRowCount;
+            if (getComponentForm() != null) {
+                wrapper.revalidateWithAnimationSafety();
+            }
+        }
+    }
+    
+    /**
+     * For a {@link PagedEntityList}, releases the views of rows that are more than {@link #LIVE_ROW_SCREENS} screens out of
+     * view, and renders the placeholders that have come back into range.  Rows are laid out top to bottom, so the range is
+     * found with a binary search on the row positions, and only the rows that enter or leave the range are visited.
+     */
+    private void updateLiveRows() {
+        if (!(getEntity() instanceof PagedEntityList) || pagingScroller == null || pagingScroller.getHeight() <= 0) {
+            return;
+        }
+        int count = wrapper.getComponentCount();
+        if (count == 0) {
+            return;
+        }
+        // The visible area, in the coordinates of the rows.
+        int margin = pagingScroller.getHeight() * LIVE_ROW_SCREENS;
+        int top = pagingScroller.getAbsoluteY() - wrapper.getAbsoluteY() + wrapper.getScrollY();
+        int bottom = top + pagingScroller.getHeight();
+        int start = firstRowEndingAfter(top - margin);
+        int end = firstRowStartingAfter(bottom + margin);
+        
+        for (int i=liveStart; i<liveEnd && i<count; i++) {
+            if (i < start || i >= end) {
+                releaseRow(i);
+            }
+        }
+        PagedEntityList<?> paged = (PagedEntityList<?>)getEntity();
+        boolean rendered = false;
+        for (int i=start; i<end; i++) {
+            if (wrapper.getComponentAt(i) instanceof RowPlaceholder) {
+                if (paged.isLoaded(i)) {
+                    rendered |= renderRow(paged, i);
+                } else {
+                    // The page was evicted.  It is rendered when the EntitiesReloadedEvent arrives.
+                    paged.ensureLoaded(i);
+                }
+            }
+        }
+        liveStart = start;
+        liveEnd = end;
+        if (rendered) {
+            wrapper.revalidateWithAnimationSafety();
+        }
+    }
+    
+    private int firstRowEndingAfter(int y) {
+        int lo = 0, hi = wrapper.getComponentCount();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Component row = wrapper.getComponentAt(mid);
+            if (row.getY() + row.getHeight() <= y) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    private int firstRowStartingAfter(int y) {
+        int lo = 0, hi = wrapper.getComponentCount();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (wrapper.getComponentAt(mid).getY() <= y) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    private void releaseRow(int index) {
+        Component row = wrapper.getComponentAt(index);
+        if (row instanceof RowPlaceholder) {
+            return;
+        }
+        RowPlaceholder placeholder = new RowPlaceholder(row.getHeight());
+        placeholder.setX(row.getX());
+        placeholder.setY(row.getY());
+        placeholder.setWidth(row.getWidth());
+        placeholder.setHeight(row.getHeight());
+        wrapper.replace(row, placeholder, null);
+    }
+    
+    private boolean renderRow(PagedEntityList<?> paged, int index) {
+        Entity e = paged.get(index);
+        if (e == null) {
+            return false;
+        }
+        Component placeholder = wrapper.getComponentAt(index);
+        Component row = (Component)renderer.getListCellRendererComponent(this, e, index, selection.isSelected(index, 0), false);
+        row.setX(placeholder.getX());
+        row.setY(placeholder.getY());
+        row.setWidth(placeholder.getWidth());
+        row.setHeight(placeholder.getHeight());
+        wrapper.replace(placeholder, row, null);
+        return true;
+    }
+    
+    /**
+     * For a {@link PagedEntityList}, requests the page following the last rendered row if the user has scrolled 
+     * to within a screen of the end of the rendered rows.
+     */
+    private void requestNextPageIfNeeded() {
+        if (!(getEntity() instanceof PagedEntityList)) {
+            return;
+        }
+        PagedEntityList<?> paged = (PagedEntityList<?>)getEntity();
+        if (pagedRowCount >= paged.size()) {
+            return;
+        }
+        if (pagingScroller != null && pagingScroller.getHeight() > 0 && wrapper.getComponentCount() > 0) {
+            Component lastRow = wrapper.getComponentAt(wrapper.getComponentCount()-1);
+            int rowsBottom = lastRow.getAbsoluteY() + lastRow.getHeight();
+            int visibleBottom = pagingScroller.getAbsoluteY() + pagingScroller.getHeight();
+            if (rowsBottom - visibleBottom > pagingScroller.getHeight()) {
+                return;
+            }
+        }
+        paged.ensureLoaded(pagedRowCount);
+    }
+    
     
     
     
@@ -227,7 +529,13 @@ public class EntityListView<T extends EntityList> extends AbstractEntityView<T>
         }
         
         EntityList<?> entityList = getEntity();
-        
+        if (entityList instanceof PagedEntityList) {
+            appendLoadedPagedRows();
+            if (pagedRowCount == 0) {
+                ((PagedEntityList<?>)entityList).ensureLoaded(0);
+            }
+            return;
+        }
         
         int index = 0;
         
@@ -7,6 +7,7 @@ package com.codename1.rad.ui.entityviews;
 
 import com.codename1.rad.ui.ActionCategories;
 import com.codename1.rad.ui.EntityView;
+import com.codename1.rad.ui.UI;
 import com.codename1.rad.ui.ViewProperty;
 import com.codename1.rad.ui.ViewPropertyParameter;
 import com.codename1.rad.attributes.IconRendererAttribute;
@@ -196,7 +197,11 @@ public class MultiButtonEntityView<T extends Entity> extends MultiButton impleme
     
     @Override
     public void bind() {
-        entity.addPropertyChangeListener(pcl);
+        if (UI.isWeakBindingEnabled()) {
+            entity.addWeakPropertyChangeListener(pcl);
+        } else {
+            entity.addPropertyChangeListener(pcl);
+        }
     }
 
     @Override
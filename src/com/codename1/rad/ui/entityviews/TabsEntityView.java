@@ -30,20 +30,91 @@ import com.codename1.rad.ui.AbstractEntityView;
 import com.codename1.rad.ui.EntityView;
 import com.codename1.rad.ui.EntityViewFactory;
 import com.codename1.rad.ui.UI;
+import com.codename1.rad.ui.ViewProperty;
 import com.codename1.rad.ui.ViewPropertyParameter;
 import static com.codename1.rad.ui.entityviews.EntityListView.SCROLLABLE_Y;
+import com.codename1.ui.CN;
 import com.codename1.ui.Component;
 import com.codename1.ui.Container;
 import com.codename1.ui.Tabs;
+import com.codename1.ui.events.SelectionListener;
 import com.codename1.ui.layouts.BorderLayout;
 
 /**
- *
+ * A view that shows each of its child nodes in a tab.
+ * 
+ * Tab contents are created lazily: a tab's view is only created when the tab is first selected.  The following view 
+ * parameters customize this:
+ * 
+ * . {@link #PREFETCH_ADJACENT_TABS} - If true, the tabs next to the selected tab are created when the app is idle, so that
+ * they are ready when the user swipes to them.
+ * . {@link #UNBIND_HIDDEN_TABS} - If true, the content of a tab is discarded when it is hidden, which unbinds it from
+ * its entity, so that hidden tabs don't respond to property changes.  It is created again, with current data, when
+ * the tab is shown again.
+ * 
+ * [source,java]
+ * ----
+ * view(
+ *     viewFactory(TabsEntityView.class),
+ *     param(TabsEntityView.PREFETCH_ADJACENT_TABS, true),
+ *     ...
+ * )
+ * ----
  * @author shannah
  */
 public class TabsEntityView extends AbstractEntityView implements ScrollableContainer {
+    
+    /**
+     * View parameter to create the tabs adjacent to the selected tab during idle time.  Default false.
+     */
+    public static final ViewProperty<Boolean> PREFETCH_ADJACENT_TABS = ViewProperty.booleanProperty();
+    
+    /**
+     * View parameter to discard the content of hidden tabs, so that they are unbound from their entities.  Default false.
+     */
+    public static final ViewProperty<Boolean> UNBIND_HIDDEN_TABS = ViewProperty.booleanProperty();
+    
     private ViewNode node;
     private Tabs tabs;
+    private boolean prefetchAdjacentTabs;
+    private boolean unbindHiddenTabs;
+    
+    /**
+     * The container for a tab's content, which is created on demand.
+     */
+    private class TabHolder extends Container {
+        private final Node tabNode;
+        private EntityView content;
+        
+        TabHolder(Node tabNode) {
+            super(new BorderLayout());
+            this.tabNode = tabNode;
+        }
+        
+        void build() {
+            if (content != null) {
+                return;
+            }
+            content = createTab(tabNode);
+            if (content != null) {
+                add(BorderLayout.CENTER, (Component)content);
+                if (isInitialized()) {
+                    revalidateLater();
+                }
+            }
+        }
+        
+        void release() {
+            if (content != null) {
+                removeAll();
+                content = null;
+            }
+        }
+    }
+    
+    private SelectionListener selectionListener = (oldSelected, newSelected) -> {
+        showTab(newSelected);
+    };
     
     public TabsEntityView(Entity entity, ViewNode node) {
         super(entity);
@@ -63,6 +134,8 @@ public class TabsEntityView extends AbstractEntityView implements ScrollableCont
     }
     
     private void initUI() {
+        prefetchAdjacentTabs = Boolean.TRUE.equals(node.getViewParameterValue(PREFETCH_ADJACENT_TABS));
+        unbindHiddenTabs = Boolean.TRUE.equals(node.getViewParameterValue(UNBIND_HIDDEN_TABS));
         tabs = createTabs();
         for (Node n : getViewNode().getChildNodes()) {
             UIID uiid = (UIID)n.findAttribute(UIID.class);
@@ -73,14 +146,83 @@ public class TabsEntityView extends AbstractEntityView implements ScrollableCont
             if (l == null) {
                 continue;
             }
-            EntityView content = createTab(n);
-            if (content == null) {
+            if (getTabEntity(n) == null) {
                 continue;
             }
-            tabs.addTab(l.getValue(getEntity()), (Component)content);
+            tabs.addTab(l.getValue(getEntity()), new TabHolder(n));
         }
         setLayout(new BorderLayout());
         add(BorderLayout.CENTER, tabs);
+        tabs.addSelectionListener(selectionListener);
+        if (tabs.getTabCount() > 0) {
+            showTab(tabs.getSelectedIndex());
+        }
+    }
+    
+    private TabHolder getTabHolder(int index) {
+        if (index < 0 || index >= tabs.getTabCount()) {
+            return null;
+        }
+        return (TabHolder)tabs.getTabComponentAt(index);
+    }
+    
+    /**
+     * Creates the content of the tab at the given index if necessary, and applies the prefetch and unbind policies
+     * to the other tabs.
+     */
+    private void showTab(int index) {
+        TabHolder selected = getTabHolder(index);
+        if (selected == null) {
+            return;
+        }
+        selected.build();
+        if (unbindHiddenTabs) {
+            int count = tabs.getTabCount();
+            for (int i=0; i<count; i++) {
+                if (i == index || (prefetchAdjacentTabs && Math.abs(i - index) == 1)) {
+                    continue;
+                }
+                getTabHolder(i).release();
+            }
+        }
+        if (prefetchAdjacentTabs) {
+            CN.callSeriallyOnIdle(() -> {
+                if (tabs.getSelectedIndex() != index) {
+                    // The selection changed before we got to it.  The new selection will prefetch its own neighbours.
+                    return;
+                }
+                TabHolder next = getTabHolder(index + 1);
+                if (next != null) {
+                    next.build();
+                }
+                TabHolder prev = getTabHolder(index - 1);
+                if (prev != null) {
+                    prev.build();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Gets the entity that would be shown in a tab for the given node, without creating the tab's view.
+     * @param node The tab node.
+     * @return The entity, or null if the node can't be shown as a tab.
+     */
+    private Entity getTabEntity(Node node) {
+        ViewNode vn = (ViewNode)node.as(ViewNode.class);
+        if (vn != null) {
+            if (vn.getViewFactory(null) == null) {
+                return null;
+            }
+            PropertySelector sel = vn.createPropertySelector(getEntity());
+            return sel == null ? null : sel.getEntity(null);
+        }
+        ListNode ln = (ListNode)node.as(ListNode.class);
+        if (ln != null) {
+            PropertySelector selector = ln.createPropertySelector(getEntity());
+            return selector == null ? null : selector.getEntityList(null);
+        }
+        return null;
     }
     
     
@@ -160,6 +302,9 @@ public class TabsEntityView extends AbstractEntityView implements ScrollableCont
     @Override
     public Container getVerticalScroller() {
         Component cmp = tabs.getSelectedComponent();
+        if (cmp instanceof TabHolder) {
+            cmp = (Component)((TabHolder)cmp).content;
+        }
         if (cmp == null) {
             return null;
         }